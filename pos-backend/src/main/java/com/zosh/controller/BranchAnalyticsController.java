@@ -1,8 +1,11 @@
 package com.zosh.controller;
 
+import com.zosh.domain.SalesWindow;
 import com.zosh.modal.PaymentSummary;
 import com.zosh.payload.dto.*;
+import com.zosh.payload.response.ApiResponse;
 import com.zosh.service.BranchAnalyticsService;
+import com.zosh.service.DailySalesRollupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +21,7 @@ import java.util.List;
 public class BranchAnalyticsController {
 
     private final BranchAnalyticsService branchAnalyticsService;
+    private final DailySalesRollupService dailySalesRollupService;
 
     // ✅ Allow only BRANCH_MANAGER or BRANCH_ADMIN
     private static final String ALLOWED_ROLES = "hasRole('BRANCH_MANAGER') or hasRole('BRANCH_ADMIN')";
@@ -35,14 +39,16 @@ public class BranchAnalyticsController {
     }
 
     /**
-     * Get top 5 products by quantity (with % contribution)
+     * Get top 5 products by quantity (with % contribution) over all time, today,
+     * or the last 7 or 30 days
      */
     @GetMapping("/top-products")
     @PreAuthorize(ALLOWED_ROLES)
     public ResponseEntity<List<ProductPerformanceDTO>> getTopProductsByQuantity(
-            @RequestParam Long branchId
+            @RequestParam Long branchId,
+            @RequestParam(defaultValue = "ALL_TIME") SalesWindow window
     ) {
-        return ResponseEntity.ok(branchAnalyticsService.getTopProductsByQuantityWithPercentage(branchId));
+        return ResponseEntity.ok(branchAnalyticsService.getTopProductsByQuantityWithPercentage(branchId, window));
     }
 
     /**
@@ -88,4 +94,18 @@ public class BranchAnalyticsController {
         );
     }
 
+    /**
+     * Rebuild the daily sales rollup for a range of closed days
+     */
+    @PostMapping("/rollups/daily-sales/rebuild")
+    @PreAuthorize(ALLOWED_ROLES)
+    public ResponseEntity<ApiResponse> rebuildDailySales(
+            @RequestParam Long branchId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        int days = dailySalesRollupService.rebuild(branchId, from, to);
+        return ResponseEntity.ok(new ApiResponse("Rebuilt daily sales for " + days + " days"));
+    }
+
 }
@@ -1,10 +1,12 @@
 package com.zosh.controller;
+import com.zosh.exception.AccessDeniedException;
 import com.zosh.exception.ResourceNotFoundException;
 import com.zosh.exception.UserException;
 import com.zosh.modal.User;
 import com.zosh.payload.dto.BranchDTO;
 import com.zosh.payload.dto.UserDTO;
 import com.zosh.service.BranchService;
+import com.zosh.service.LiveSalesService;
 import com.zosh.service.StoreService;
 import com.zosh.service.UserService;
 import jakarta.validation.Valid;
@@ -12,9 +14,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -25,6 +29,7 @@ public class BranchController {
 
     private final BranchService branchService;
     private final UserService userService;
+    private final LiveSalesService liveSalesService;
 
 
     // 🔹 Create Branch
@@ -37,6 +42,12 @@ public class BranchController {
         return ResponseEntity.ok(branchService.createBranch(dto,user));
     }
 
+    // 📡 Live sales ticker for the branch's current day
+    @GetMapping(value = "/{id}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLiveSales(@PathVariable Long id) throws UserException, AccessDeniedException {
+        return liveSalesService.subscribeBranch(id);
+    }
+
     // 🔹 Get Branch by ID
     @GetMapping("/{id}")
     public ResponseEntity<BranchDTO> getBranch(@PathVariable Long id) {
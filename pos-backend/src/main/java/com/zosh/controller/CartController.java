@@ -0,0 +1,70 @@
+package com.zosh.controller;
+
+import com.zosh.exception.UserException;
+import com.zosh.payload.dto.CartDTO;
+import com.zosh.payload.dto.OrderDTO;
+import com.zosh.payload.request.CartCheckoutRequest;
+import com.zosh.payload.request.CartItemRequest;
+import com.zosh.payload.response.ApiResponse;
+import com.zosh.service.CartService;
+import com.zosh.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/carts")
+@RequiredArgsConstructor
+@PreAuthorize("hasAuthority('ROLE_CASHIER')")
+public class CartController {
+
+    private final CartService cartService;
+    private final IdempotencyService idempotencyService;
+
+    // 🛒 Current cashier's cart
+    @GetMapping
+    public ResponseEntity<CartDTO> getCart() throws UserException {
+        return ResponseEntity.ok(cartService.getCart());
+    }
+
+    // ➕ Scan: add units of a product
+    @PostMapping("/items")
+    public ResponseEntity<CartDTO> addItem(@RequestBody CartItemRequest request) throws UserException {
+        int quantity = request.getQuantity() != null ? request.getQuantity() : 1;
+        return ResponseEntity.ok(cartService.addItem(request.getProductId(), quantity));
+    }
+
+    // ✏️ Set the quantity of a line
+    @PutMapping("/items/{productId}")
+    public ResponseEntity<CartDTO> updateQuantity(@PathVariable Long productId,
+                                                  @RequestBody CartItemRequest request) throws UserException {
+        if (request.getQuantity() == null) {
+            throw new UserException("quantity is required");
+        }
+        return ResponseEntity.ok(cartService.updateQuantity(productId, request.getQuantity()));
+    }
+
+    // ❌ Remove a line
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<CartDTO> removeItem(@PathVariable Long productId) throws UserException {
+        return ResponseEntity.ok(cartService.removeItem(productId));
+    }
+
+    // 🧹 Empty the cart
+    @DeleteMapping
+    public ResponseEntity<ApiResponse> clearCart() throws UserException {
+        cartService.clearCart();
+        return ResponseEntity.ok(new ApiResponse("Cart cleared"));
+    }
+
+    // 💳 Convert the cart into an order
+    @PostMapping("/checkout")
+    public ResponseEntity<OrderDTO> checkout(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody CartCheckoutRequest request) throws UserException {
+        return ResponseEntity.ok(idempotencyService.execute(
+                idempotencyKey, "carts-checkout", request, OrderDTO.class,
+                () -> cartService.checkout(request)));
+    }
+}
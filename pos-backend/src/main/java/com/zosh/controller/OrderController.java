@@ -3,8 +3,12 @@ package com.zosh.controller;
 import com.zosh.domain.OrderStatus;
 import com.zosh.domain.PaymentType;
 import com.zosh.exception.UserException;
+import com.zosh.payload.dto.BatchOrderResponseDTO;
 import com.zosh.payload.dto.OrderDTO;
+import com.zosh.payload.response.CursorPage;
+import com.zosh.service.IdempotencyService;
 import com.zosh.service.OrderService;
+import com.zosh.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.jaxb.SpringDataJaxb;
 import org.springframework.http.ResponseEntity;
@@ -19,11 +23,31 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+
+    private static final int MAX_PAGE_SIZE = 200;
 
     @PostMapping
     @PreAuthorize("hasAuthority('ROLE_CASHIER')")
-    public ResponseEntity<OrderDTO> createOrder(@RequestBody OrderDTO dto) throws UserException {
-        return ResponseEntity.ok(orderService.createOrder(dto));
+    public ResponseEntity<OrderDTO> createOrder(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody OrderDTO dto) throws UserException {
+        return ResponseEntity.ok(idempotencyService.execute(
+                idempotencyKey, "orders", dto, OrderDTO.class,
+                () -> orderService.createOrder(dto)));
+    }
+
+    /**
+     * Replays orders a till queued while offline, keeping their original createdAt.
+     * Returns one result per submitted order, in submission order. Retries are
+     * deduplicated per order by clientOrderId rather than by Idempotency-Key, as
+     * each chunk of the batch commits in its own transaction.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('ROLE_CASHIER')")
+    public ResponseEntity<BatchOrderResponseDTO> createOrdersBatch(
+            @RequestBody List<OrderDTO> orders) throws UserException {
+        return ResponseEntity.ok(orderService.createOrdersBatch(orders));
     }
 
     @GetMapping("/{id}")
@@ -33,18 +57,22 @@ public class OrderController {
 
 
     @GetMapping("/branch/{branchId}")
-    public ResponseEntity<List<OrderDTO>> getOrdersByBranch(
+    public ResponseEntity<CursorPage<OrderDTO>> getOrdersByBranch(
             @PathVariable Long branchId,
             @RequestParam(required = false) Long customerId,
             @RequestParam(required = false) Long cashierId,
             @RequestParam(required = false) PaymentType paymentType,
-            @RequestParam(required = false) OrderStatus status) {
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         return ResponseEntity.ok(orderService.getOrdersByBranch(
                     branchId,
                     customerId,
                     cashierId,
                     paymentType,
-                    status
+                    status,
+                    cursor,
+                    KeysetCursor.clampLimit(limit, MAX_PAGE_SIZE)
                 )
         );
     }
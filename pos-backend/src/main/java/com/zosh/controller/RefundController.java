@@ -5,12 +5,21 @@ import com.zosh.exception.UserException;
 import com.zosh.mapper.RefundMapper;
 import com.zosh.modal.Refund;
 import com.zosh.payload.dto.RefundDTO;
+import com.zosh.payload.response.CursorPage;
+import com.zosh.service.IdempotencyService;
 import com.zosh.service.RefundService;
+import com.zosh.util.KeysetCursor;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,41 +30,82 @@ import java.util.stream.Collectors;
 public class RefundController {
 
     private final RefundService refundService;
+    private final IdempotencyService idempotencyService;
 
-    // ✅ 1. Create a refund
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // ✅ 1. Create a refund (replays with the same Idempotency-Key return the first refund)
     @PostMapping
-    public ResponseEntity<RefundDTO> createRefund(@RequestBody RefundDTO refundDTO)
-            throws UserException, ResourceNotFoundException {
-        Refund refund = refundService.createRefund(refundDTO);
-        return ResponseEntity.ok(RefundMapper.toDTO(refund));
+    public ResponseEntity<RefundDTO> createRefund(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody RefundDTO refundDTO) throws UserException, ResourceNotFoundException {
+        return ResponseEntity.ok(idempotencyService.<RefundDTO, UserException, ResourceNotFoundException>execute(
+                idempotencyKey, "refunds", refundDTO, RefundDTO.class,
+                () -> RefundMapper.toDTO(refundService.createRefund(refundDTO))));
     }
 
-    // ✅ 2. Get all refunds (admin)
+    // ✅ 2. Get refunds (admin), one page at a time, optionally by branch, cashier and dates
     @GetMapping
-    public ResponseEntity<List<RefundDTO>> getAllRefunds() {
-        List<RefundDTO> refunds = refundService.getAllRefunds().stream()
-                .map(RefundMapper::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(refunds);
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_STORE_ADMIN', 'ROLE_STORE_MANAGER')")
+    public ResponseEntity<CursorPage<RefundDTO>> getAllRefunds(
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) Long cashierId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) throws UserException {
+        return ResponseEntity.ok(refundService.getRefunds(
+                branchId, cashierId, startOf(from), endOf(to), cursor,
+                KeysetCursor.clampLimit(limit, MAX_PAGE_SIZE)));
     }
 
     // ✅ 3. Get refunds by cashier
     @GetMapping("/cashier/{cashierId}")
-    public ResponseEntity<List<RefundDTO>> getRefundsByCashier(
-            @PathVariable Long cashierId) {
-        List<RefundDTO> refunds = refundService.getRefundsByCashier(cashierId).stream()
-                .map(RefundMapper::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(refunds);
+    public ResponseEntity<CursorPage<RefundDTO>> getRefundsByCashier(
+            @PathVariable Long cashierId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) throws UserException {
+        return ResponseEntity.ok(refundService.getRefunds(
+                null, cashierId, startOf(from), endOf(to), cursor,
+                KeysetCursor.clampLimit(limit, MAX_PAGE_SIZE)));
     }
 
     // ✅ 4. Get refunds by branch
     @GetMapping("/branch/{branchId}")
-    public ResponseEntity<List<RefundDTO>> getRefundsByBranch(@PathVariable Long branchId) {
-        List<RefundDTO> refunds = refundService.getRefundsByBranch(branchId).stream()
-                .map(RefundMapper::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(refunds);
+    public ResponseEntity<CursorPage<RefundDTO>> getRefundsByBranch(
+            @PathVariable Long branchId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) throws UserException {
+        return ResponseEntity.ok(refundService.getRefunds(
+                branchId, null, startOf(from), endOf(to), cursor,
+                KeysetCursor.clampLimit(limit, MAX_PAGE_SIZE)));
+    }
+
+    // ✅ CSV export for auditors, streamed straight to the response as rows are read
+    @GetMapping(value = "/export", produces = "text/csv")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_STORE_ADMIN', 'ROLE_STORE_MANAGER')")
+    public void exportRefunds(
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) Long cashierId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException, UserException {
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"refunds.csv\"");
+        refundService.exportRefundsCsv(branchId, cashierId, startOf(from), endOf(to), response.getWriter());
     }
 
     // ✅ 5. Get refunds by shift report
@@ -74,11 +124,7 @@ public class RefundController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
     ) {
-        List<RefundDTO> refunds = refundService
-                .getRefundsByCashierAndDateRange(cashierId, from, to).stream()
-                .map(RefundMapper::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(refunds);
+        return ResponseEntity.ok(refundService.getRefundsByCashierAndDateRange(cashierId, from, to));
     }
 
     // ✅ 7. Get refund by ID
@@ -94,4 +140,13 @@ public class RefundController {
         refundService.deleteRefund(id);
         return ResponseEntity.ok("Refund deleted successfully.");
     }
+
+    // Inclusive date filters as a half-open [from, to + 1 day) range of creation times
+    private static LocalDateTime startOf(LocalDate from) {
+        return from != null ? from.atStartOfDay() : null;
+    }
+
+    private static LocalDateTime endOf(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay() : null;
+    }
 }
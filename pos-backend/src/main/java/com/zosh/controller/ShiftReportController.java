@@ -4,12 +4,16 @@ import com.zosh.exception.UserException;
 import com.zosh.mapper.ShiftReportMapper;
 import com.zosh.modal.ShiftReport;
 import com.zosh.payload.dto.ShiftReportDTO;
+import com.zosh.payload.dto.ShiftSummaryDTO;
+import com.zosh.payload.response.CursorPage;
 import com.zosh.service.ShiftReportService;
+import com.zosh.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -22,6 +26,8 @@ public class ShiftReportController {
     private final ShiftReportService shiftReportService;
     private final ShiftReportMapper shiftReportMapper;
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     /**
      * 🔄 Start a new shift (only once per day)
      */
@@ -89,28 +95,39 @@ public class ShiftReportController {
     }
 
     /**
-     * 🏬 Get all shift reports for a branch
+     * 🏬 Get shift history for a branch, one page of summaries at a time
      */
     @GetMapping("/branch/{branchId}")
-    public ResponseEntity<List<ShiftReportDTO>> getShiftsByBranch(
-            @PathVariable Long branchId
+    public ResponseEntity<CursorPage<ShiftSummaryDTO>> getShiftsByBranch(
+            @PathVariable Long branchId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
     ) {
-        List<ShiftReport> shifts = shiftReportService.getShiftReportsByBranch(branchId);
-        List<ShiftReportDTO> dto = shifts.stream()
-                .map(ShiftReportMapper::toDTO).collect(Collectors.toList());
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok(shiftReportService.getShiftSummaries(
+                branchId, startOf(from), endOf(to), cursor,
+                KeysetCursor.clampLimit(limit, MAX_PAGE_SIZE)));
     }
 
     /**
-     * 📋 Get all shift reports (admin use)
+     * 📋 Get shift history across all branches (admin use)
      */
     @GetMapping
-    public ResponseEntity<List<ShiftReportDTO>> getAllShifts() {
-        List<ShiftReport> shifts=shiftReportService.getAllShiftReports();
-
-        List<ShiftReportDTO> dto = shifts.stream()
-                .map(ShiftReportMapper::toDTO).collect(Collectors.toList());
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<CursorPage<ShiftSummaryDTO>> getAllShifts(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        // ✅ Summaries only; full detail is loaded by GET /{id}
+        return ResponseEntity.ok(shiftReportService.getShiftSummaries(
+                null, startOf(from), endOf(to), cursor,
+                KeysetCursor.clampLimit(limit, MAX_PAGE_SIZE)));
     }
 
     /**
@@ -131,4 +148,13 @@ public class ShiftReportController {
         shiftReportService.deleteShiftReport(id);
         return ResponseEntity.ok().build();
     }
+
+    // Inclusive date filters as a half-open [from, to + 1 day) range of shift starts
+    private static LocalDateTime startOf(LocalDate from) {
+        return from != null ? from.atStartOfDay() : null;
+    }
+
+    private static LocalDateTime endOf(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay() : null;
+    }
 }
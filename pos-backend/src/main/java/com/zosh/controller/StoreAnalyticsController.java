@@ -1,11 +1,18 @@
 package com.zosh.controller;
 
 import com.zosh.payload.StoreAnalysis.*;
+import com.zosh.service.StoreAlertService;
 import com.zosh.service.StoreAnalyticsService;
+import com.zosh.service.StoreKpiSnapshotService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/store/analytics")
@@ -13,11 +20,13 @@ import java.util.List;
 public class StoreAnalyticsController {
 
     private final StoreAnalyticsService storeAnalyticsService;
+    private final StoreKpiSnapshotService storeKpiSnapshotService;
+    private final StoreAlertService storeAlertService;
 
     // ✨ Store Overview (KPI Summary)
     @GetMapping("/{storeAdminId}/overview")
-    public StoreOverviewDTO getStoreOverview(@PathVariable Long storeAdminId) {
-        return storeAnalyticsService.getStoreOverview(storeAdminId);
+    public ResponseEntity<StoreOverviewDTO> getStoreOverview(@PathVariable Long storeAdminId) {
+        return fromSnapshot(storeAdminId, StoreKpiSnapshotDTO::getOverview);
     }
 
     // 📊 Sales Trends by Time (daily/weekly/monthly)
@@ -41,32 +50,32 @@ public class StoreAnalyticsController {
 
     // 📚 Sales by Product Category (pie/bar)
     @GetMapping("/{storeAdminId}/sales/category")
-    public List<CategorySalesDTO> getSalesByCategory(@PathVariable Long storeAdminId) {
-        return storeAnalyticsService.getSalesByCategory(storeAdminId);
+    public ResponseEntity<List<CategorySalesDTO>> getSalesByCategory(@PathVariable Long storeAdminId) {
+        return fromSnapshot(storeAdminId, StoreKpiSnapshotDTO::getSalesByCategory);
     }
 
     // 💳 Sales by Payment Method (pie)
     @GetMapping("/{storeAdminId}/sales/payment-method")
-    public List<PaymentInsightDTO> getSalesByPaymentMethod(@PathVariable Long storeAdminId) {
-        return storeAnalyticsService.getSalesByPaymentMethod(storeAdminId);
+    public ResponseEntity<List<PaymentInsightDTO>> getSalesByPaymentMethod(@PathVariable Long storeAdminId) {
+        return fromSnapshot(storeAdminId, StoreKpiSnapshotDTO::getPaymentMethods);
     }
 
     // 📍 Sales by Branch (bar)
     @GetMapping("/{storeAdminId}/sales/branch")
-    public List<BranchSalesDTO> getSalesByBranch(@PathVariable Long storeAdminId) {
-        return storeAnalyticsService.getSalesByBranch(storeAdminId);
+    public ResponseEntity<List<BranchSalesDTO>> getSalesByBranch(@PathVariable Long storeAdminId) {
+        return fromSnapshot(storeAdminId, StoreKpiSnapshotDTO::getSalesByBranch);
     }
 
     // 💵 Payment Breakdown (Cash, UPI, Card)
     @GetMapping("/{storeAdminId}/payments")
-    public List<PaymentInsightDTO> getPaymentBreakdown(@PathVariable Long storeAdminId) {
-        return storeAnalyticsService.getPaymentBreakdown(storeAdminId);
+    public ResponseEntity<List<PaymentInsightDTO>> getPaymentBreakdown(@PathVariable Long storeAdminId) {
+        return fromSnapshot(storeAdminId, StoreKpiSnapshotDTO::getPaymentMethods);
     }
 
     // 🏘️ Branch Performance
     @GetMapping("/{storeAdminId}/branch-performance")
-    public BranchPerformanceDTO getBranchPerformance(@PathVariable Long storeAdminId) {
-        return storeAnalyticsService.getBranchPerformance(storeAdminId);
+    public ResponseEntity<BranchPerformanceDTO> getBranchPerformance(@PathVariable Long storeAdminId) {
+        return fromSnapshot(storeAdminId, StoreKpiSnapshotDTO::getBranchPerformance);
     }
 
     // ⚠️ Alerts and Health Monitoring
@@ -74,4 +83,20 @@ public class StoreAnalyticsController {
     public StoreAlertDTO getStoreAlerts(@PathVariable Long storeAdminId) {
         return storeAnalyticsService.getStoreAlerts(storeAdminId);
     }
+
+    // 📡 Live alerts: the current state on connect, then every change
+    @GetMapping(value = "/{storeAdminId}/alerts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStoreAlerts(@PathVariable Long storeAdminId) {
+        return storeAlertService.subscribe(storeAdminId);
+    }
+
+    // ✅ Serves one section of the materialized dashboard; the snapshot version is the ETag,
+    // so a client sending it back in If-None-Match gets a 304 until something changes
+    private <T> ResponseEntity<T> fromSnapshot(Long storeAdminId, Function<StoreKpiSnapshotDTO, T> section) {
+        StoreKpiSnapshotDTO snapshot = storeKpiSnapshotService.getSnapshot(storeAdminId);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(snapshot.getVersion()))
+                .cacheControl(CacheControl.noCache())
+                .body(section.apply(snapshot));
+    }
 }
@@ -2,6 +2,7 @@ package com.zosh.controller;
 
 
 import com.zosh.domain.StoreStatus;
+import com.zosh.exception.AccessDeniedException;
 import com.zosh.exception.ResourceNotFoundException;
 import com.zosh.exception.UserException;
 import com.zosh.mapper.StoreMapper;
@@ -10,6 +11,7 @@ import com.zosh.modal.User;
 import com.zosh.payload.dto.StoreDTO;
 import com.zosh.payload.dto.UserDTO;
 import com.zosh.payload.response.ApiResponse;
+import com.zosh.service.LiveSalesService;
 import com.zosh.service.StoreService;
 import com.zosh.service.UserService;
 import jakarta.validation.Valid;
@@ -17,10 +19,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.method.P;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -31,6 +35,7 @@ public class StoreController {
 
     private final StoreService storeService;
     private final UserService userService;
+    private final LiveSalesService liveSalesService;
 
     // 🔹 Create Store
     @PostMapping
@@ -40,6 +45,12 @@ public class StoreController {
         return ResponseEntity.ok(storeService.createStore(storeDto, user));
     }
 
+    // 📡 Live sales ticker across all of the store's branches
+    @GetMapping(value = "/{id}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLiveSales(@PathVariable Long id) throws UserException, AccessDeniedException {
+        return liveSalesService.subscribeStore(id);
+    }
+
     // 🔹 Get Store by ID
     @GetMapping("/{id}")
     public ResponseEntity<StoreDTO> getStoreById(@PathVariable Long id) throws ResourceNotFoundException {
@@ -0,0 +1,19 @@
+package com.zosh.domain;
+
+public enum SalesWindow {
+    TODAY(1),
+    LAST_7_DAYS(7),
+    LAST_30_DAYS(30),
+    ALL_TIME(0);
+
+    // Business days covered, counting today; 0 for no limit
+    private final int days;
+
+    SalesWindow(int days) {
+        this.days = days;
+    }
+
+    public int getDays() {
+        return days;
+    }
+}
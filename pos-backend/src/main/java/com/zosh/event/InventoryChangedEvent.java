@@ -0,0 +1,21 @@
+package com.zosh.event;
+
+import com.zosh.modal.Inventory;
+import com.zosh.modal.Store;
+
+/**
+ * Published when a branch's stock level for a product is set, changed or
+ * removed outside of order placement, which publishes OrderPlacedEvent instead.
+ */
+public record InventoryChangedEvent(Long branchId,
+                                    Long storeAdminId,
+                                    Long productId) {
+
+    public static InventoryChangedEvent of(Inventory inventory) {
+        Store store = inventory.getBranch().getStore();
+        return new InventoryChangedEvent(
+                inventory.getBranch().getId(),
+                store != null && store.getStoreAdmin() != null ? store.getStoreAdmin().getId() : null,
+                inventory.getProduct().getId());
+    }
+}
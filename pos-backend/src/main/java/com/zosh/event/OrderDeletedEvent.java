@@ -0,0 +1,15 @@
+package com.zosh.event;
+
+import com.zosh.modal.Order;
+
+/**
+ * Published inside the transaction that deletes an order and delivered to
+ * listeners after it commits. Carries the order as it was placed, so each
+ * listener takes back exactly what the matching OrderPlacedEvent added.
+ */
+public record OrderDeletedEvent(OrderPlacedEvent order) {
+
+    public static OrderDeletedEvent of(Order order) {
+        return new OrderDeletedEvent(OrderPlacedEvent.of(order));
+    }
+}
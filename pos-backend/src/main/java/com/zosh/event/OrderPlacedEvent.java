@@ -0,0 +1,72 @@
+package com.zosh.event;
+
+import com.zosh.domain.PaymentType;
+import com.zosh.modal.Branch;
+import com.zosh.modal.Money;
+import com.zosh.modal.Order;
+import com.zosh.modal.OrderItem;
+import com.zosh.modal.Store;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published inside the transaction that saves an order and delivered to
+ * listeners after it commits. Carries a detached snapshot so listeners never
+ * touch the persistence context of the request that placed the order.
+ */
+public record OrderPlacedEvent(Long orderId,
+                               Long branchId,
+                               Long storeId,
+                               Long storeAdminId,
+                               Long cashierId,
+                               LocalDateTime createdAt,
+                               LocalDate businessDate,
+                               PaymentType paymentType,
+                               long totalMinor,
+                               List<Line> lines) {
+
+    public static final long UNCATEGORIZED = 0L;
+
+    public record Line(Long productId,
+                       String productName,
+                       Long categoryId,
+                       int quantity,
+                       long lineTotalMinor) {
+    }
+
+    public static OrderPlacedEvent of(Order order) {
+        Branch branch = order.getBranch();
+        Store store = branch.getStore();
+        List<Line> lines = order.getItems() == null ? List.of() : order.getItems().stream()
+                .map(OrderPlacedEvent::line)
+                .toList();
+
+        return new OrderPlacedEvent(
+                order.getId(),
+                branch.getId(),
+                store != null ? store.getId() : null,
+                store != null && store.getStoreAdmin() != null ? store.getStoreAdmin().getId() : null,
+                order.getCashier() != null ? order.getCashier().getId() : null,
+                order.getCreatedAt(),
+                branch.businessDate(order.getCreatedAt()),
+                paymentTypeOf(order),
+                Money.minorOf(order.getTotalAmount()),
+                lines);
+    }
+
+    // Orders without a payment type are counted as cash, as the shift reports do
+    public static PaymentType paymentTypeOf(Order order) {
+        return order.getPaymentType() != null ? order.getPaymentType() : PaymentType.CASH;
+    }
+
+    private static Line line(OrderItem item) {
+        return new Line(
+                item.getProduct().getId(),
+                item.getProduct().getName(),
+                item.getProduct().getCategory() != null ? item.getProduct().getCategory().getId() : UNCATEGORIZED,
+                item.getQuantity() != null ? item.getQuantity() : 0,
+                Money.minorOf(item.getLineTotal()));
+    }
+}
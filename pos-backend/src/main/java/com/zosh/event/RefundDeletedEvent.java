@@ -0,0 +1,15 @@
+package com.zosh.event;
+
+import com.zosh.modal.Refund;
+
+/**
+ * Published inside the transaction that deletes a refund and delivered to
+ * listeners after it commits. Carries the refund as it was issued, so each
+ * listener takes back exactly what the matching RefundIssuedEvent added.
+ */
+public record RefundDeletedEvent(RefundIssuedEvent refund) {
+
+    public static RefundDeletedEvent of(Refund refund) {
+        return new RefundDeletedEvent(RefundIssuedEvent.of(refund));
+    }
+}
@@ -0,0 +1,46 @@
+package com.zosh.event;
+
+import com.zosh.domain.PaymentType;
+import com.zosh.modal.Branch;
+import com.zosh.modal.Money;
+import com.zosh.modal.Refund;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published inside the transaction that saves a refund and delivered to
+ * listeners after it commits. The refunded order's lines travel with it so
+ * listeners can split the amount across categories and products.
+ */
+public record RefundIssuedEvent(Long refundId,
+                                Long orderId,
+                                Long branchId,
+                                Long storeId,
+                                Long storeAdminId,
+                                Long cashierId,
+                                LocalDateTime createdAt,
+                                LocalDate businessDate,
+                                PaymentType paymentType,
+                                long amountMinor,
+                                List<OrderPlacedEvent.Line> orderLines) {
+
+    public static RefundIssuedEvent of(Refund refund) {
+        Branch branch = refund.getBranch();
+        OrderPlacedEvent order = OrderPlacedEvent.of(refund.getOrder());
+
+        return new RefundIssuedEvent(
+                refund.getId(),
+                order.orderId(),
+                branch.getId(),
+                branch.getStore() != null ? branch.getStore().getId() : null,
+                order.storeAdminId(),
+                refund.getCashier() != null ? refund.getCashier().getId() : null,
+                refund.getCreatedAt(),
+                branch.businessDate(refund.getCreatedAt()),
+                order.paymentType(),
+                Money.minorOf(refund.getAmount()),
+                order.lines());
+    }
+}
@@ -29,6 +29,15 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(response,HttpStatus.BAD_REQUEST);
 	}
 
+	@ExceptionHandler(IdempotencyException.class)
+	public ResponseEntity<ExceptionResponse> IdempotencyExceptionHandler(
+			IdempotencyException ex, WebRequest req) {
+		ExceptionResponse response = new ExceptionResponse(
+				ex.getMessage(),
+				req.getDescription(false), LocalDateTime.now());
+		return new ResponseEntity<>(response, ex.getStatus());
+	}
+
 	@ExceptionHandler(AccessDeniedException.class)
 	public ResponseEntity<String> handleAccessDenied(AccessDeniedException ex) {
 		return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ex.getMessage());
@@ -0,0 +1,19 @@
+package com.zosh.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * An Idempotency-Key that cannot be honoured: reused with a different request
+ * body (422), or still being processed by another attempt (409).
+ */
+@Getter
+public class IdempotencyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
@@ -16,6 +16,7 @@ public class BranchMapper {
                 .email(branch.getEmail())
                 .closeTime(branch.getCloseTime())
                 .openTime(branch.getOpenTime())
+                .timeZone(branch.getTimeZone())
                 .workingDays(branch.getWorkingDays())
                 .storeId(branch.getStore() != null ? branch.getStore().getId() : null)
                 .store(StoreMapper.toDto(branch.getStore()))
@@ -36,6 +37,7 @@ public class BranchMapper {
                 .phone(dto.getPhone())
                 .closeTime(dto.getCloseTime())
                 .openTime(dto.getOpenTime())
+                .timeZone(dto.getTimeZone())
                 .workingDays(dto.getWorkingDays())
                 .createdAt(dto.getCreatedAt())
                 .updatedAt(dto.getUpdatedAt())
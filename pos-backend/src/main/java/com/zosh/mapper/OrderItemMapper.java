@@ -1,5 +1,6 @@
 package com.zosh.mapper;
 
+import com.zosh.modal.Money;
 import com.zosh.modal.OrderItem;
 import com.zosh.payload.dto.OrderItemDTO;
 
@@ -12,7 +13,8 @@ public class OrderItemMapper {
                 .id(item.getId())
                 .productId(item.getProduct() != null ? item.getProduct().getId() : null)
                 .quantity(item.getQuantity())
-                .price(item.getPrice())
+                .price(Money.toMajor(item.getUnitPrice()))
+                .lineTotal(Money.toMajor(item.getLineTotal()))
                 .product(item.getProduct() != null ? ProductMapper.toDto(item.getProduct()) : null)
                 .build();
     }
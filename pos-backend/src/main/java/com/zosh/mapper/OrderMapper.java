@@ -1,6 +1,7 @@
 package com.zosh.mapper;
 
 
+import com.zosh.modal.Money;
 import com.zosh.modal.Order;
 import com.zosh.modal.OrderItem;
 import com.zosh.payload.dto.OrderDTO;
@@ -13,7 +14,8 @@ public class OrderMapper {
     public static OrderDTO toDto(Order order) {
         return OrderDTO.builder()
                 .id(order.getId())
-                .totalAmount(order.getTotalAmount())
+                .clientOrderId(order.getClientOrderId())
+                .totalAmount(Money.toMajor(order.getTotalAmount()))
                 .branchId(order.getBranch().getId())
                 .cashierId(order.getCashier().getId())
                 .customer(order.getCustomer())
@@ -1,6 +1,7 @@
 package com.zosh.mapper;
 
 import com.zosh.modal.Category;
+import com.zosh.modal.Money;
 import com.zosh.modal.Product;
 import com.zosh.modal.Store;
 import com.zosh.payload.dto.ProductDTO;
@@ -14,7 +15,7 @@ public class ProductMapper {
                 .sku(product.getSku())
                 .description(product.getDescription())
                 .mrp(product.getMrp())
-                .sellingPrice(product.getSellingPrice())
+                .sellingPrice(Money.toMajor(product.getSellingPrice()))
                 .brand(product.getBrand())
                 .category(product.getCategory().getName())
                 .categoryId(product.getCategory().getId())
@@ -34,7 +35,7 @@ public class ProductMapper {
                 .sku(dto.getSku())
                 .description(dto.getDescription())
                 .mrp(dto.getMrp())
-                .sellingPrice(dto.getSellingPrice())
+                .sellingPrice(Money.ofMajor(dto.getSellingPrice()))
                 .brand(dto.getBrand())
                 .category(category)
 
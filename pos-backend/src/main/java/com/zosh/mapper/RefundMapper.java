@@ -1,6 +1,7 @@
 package com.zosh.mapper;
 
 
+import com.zosh.modal.Money;
 import com.zosh.modal.Refund;
 import com.zosh.payload.dto.RefundDTO;
 
@@ -11,7 +12,7 @@ public class RefundMapper {
         dto.setId(refund.getId());
         dto.setOrderId(refund.getOrder().getId());
         dto.setReason(refund.getReason());
-        dto.setAmount(refund.getAmount());
+        dto.setAmount(Money.toMajor(refund.getAmount()));
         dto.setCashierName(refund.getCashier().getFullName());
         dto.setBranchId(refund.getBranch().getId());
         dto.setShiftReportId(refund.getShiftReport() != null ? refund.getShiftReport().getId() : null);
@@ -17,9 +17,9 @@ public class ShiftReportMapper {
         dto.setId(shiftReport.getId());
         dto.setShiftStart(shiftReport.getShiftStart());
         dto.setShiftEnd(shiftReport.getShiftEnd());
-        dto.setTotalSales(shiftReport.getTotalSales() != null ? shiftReport.getTotalSales() : 0.0);
-        dto.setTotalRefunds(shiftReport.getTotalRefunds() != null ? shiftReport.getTotalRefunds() : 0.0);
-        dto.setNetSales(shiftReport.getNetSales() != null ? shiftReport.getNetSales() : 0.0);
+        dto.setTotalSales(Money.toMajor(Money.minorOf(shiftReport.getTotalSales())));
+        dto.setTotalRefunds(Money.toMajor(Money.minorOf(shiftReport.getTotalRefunds())));
+        dto.setNetSales(Money.toMajor(Money.minorOf(shiftReport.getNetSales())));
         dto.setTotalOrders(shiftReport.getTotalOrders());
         dto.setCashier(UserMapper.toDTO(shiftReport.getCashier()));
 
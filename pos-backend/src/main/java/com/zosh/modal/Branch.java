@@ -3,8 +3,11 @@ package com.zosh.modal;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.UUID;
 
@@ -40,6 +43,11 @@ public class Branch {
 
     private LocalTime closeTime;
 
+    /**
+     * IANA zone id such as "Asia/Kolkata". Null means the server's zone.
+     */
+    private String timeZone;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -53,6 +61,32 @@ public class Branch {
     @JsonIgnore
     private User manager;
 
+    // Zone the branch's business day is counted in; unknown ids fall back to the server zone
+    public ZoneId zoneId() {
+        if (timeZone == null || timeZone.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(timeZone);
+        } catch (DateTimeException e) {
+            return ZoneId.systemDefault();
+        }
+    }
+
+    // Branch calendar day of a server-local timestamp such as Order.createdAt
+    public LocalDate businessDate(LocalDateTime serverTime) {
+        return serverTime.atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(zoneId())
+                .toLocalDate();
+    }
+
+    // Server-local timestamp at which the given branch day starts
+    public LocalDateTime startOfBusinessDay(LocalDate date) {
+        return date.atStartOfDay(zoneId())
+                .withZoneSameInstant(ZoneId.systemDefault())
+                .toLocalDateTime();
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = updatedAt = LocalDateTime.now();
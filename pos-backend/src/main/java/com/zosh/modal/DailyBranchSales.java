@@ -0,0 +1,69 @@
+package com.zosh.modal;
+
+import com.zosh.domain.PaymentType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated sales of one branch day, per payment type and category.
+ * Maintained incrementally after every order and refund commit and rebuilt
+ * from orders/refunds on demand, so dashboards read O(days) rows.
+ *
+ * orderCount and refundCount attribute each order to the category of its
+ * first line, so they add up correctly across categories; they are not a
+ * per-category order count.
+ */
+@Entity
+@Table(name = "daily_branch_sales",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_daily_branch_sales_key",
+        columnNames = {"branch_id", "salesDate", "paymentType", "categoryId"}
+    ),
+    indexes = {
+        @Index(name = "idx_daily_branch_sales_date", columnList = "salesDate")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyBranchSales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_branch_sales_seq")
+    @SequenceGenerator(name = "daily_branch_sales_seq", sequenceName = "daily_branch_sales_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "branch_id", nullable = false)
+    private Branch branch;
+
+    // Calendar day in the branch's time zone
+    @Column(nullable = false)
+    private LocalDate salesDate;
+
+    @Column(nullable = false)
+    private PaymentType paymentType;
+
+    // 0 for products without a category
+    @Column(nullable = false)
+    private Long categoryId;
+
+    @Column(name = "sales_minor", nullable = false)
+    private long salesMinor;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(nullable = false)
+    private int orderCount;
+
+    @Column(name = "refund_minor", nullable = false)
+    private long refundMinor;
+
+    @Column(nullable = false)
+    private int refundCount;
+}
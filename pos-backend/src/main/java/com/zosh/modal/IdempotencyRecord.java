@@ -0,0 +1,60 @@
+package com.zosh.modal;
+
+import com.zosh.domain.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reservation and response of an idempotent request. The row is inserted as
+ * PENDING before the request runs, so only one instance runs it; it is completed
+ * with the response so a retried request with the same Idempotency-Key can be
+ * answered without running it again.
+ */
+@Entity
+@Table(name = "idempotency_records",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_idempotency_scope_key",
+        columnNames = {"scope", "idempotencyKey"}
+    ),
+    indexes = {
+        @Index(name = "idx_idempotency_expires_at", columnList = "expiresAt")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(nullable = false)
+    private String scope;
+
+    @Column(nullable = false)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, so a key reused for another request is rejected
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    private IdempotencyStatus status;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
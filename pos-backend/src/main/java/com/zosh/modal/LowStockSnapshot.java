@@ -0,0 +1,41 @@
+package com.zosh.modal;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Number of low-stock items a branch had on a given (branch-local) day, so the
+ * dashboard can compare today against a real value for yesterday.
+ */
+@Entity
+@Table(name = "daily_low_stock_snapshots",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_low_stock_snapshot_branch_date",
+        columnNames = {"branch_id", "snapshotDate"}
+    )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LowStockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "branch_id", nullable = false)
+    private Branch branch;
+
+    @Column(nullable = false)
+    private LocalDate snapshotDate;
+
+    private int lowStockCount;
+
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,95 @@
+package com.zosh.modal;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import jakarta.persistence.Embeddable;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * An amount of money held as a whole number of minor units (paise/cents), so
+ * order totals, line prices and aggregations are exact long arithmetic.
+ * Conversion to a decimal major-unit value happens only at the API boundary.
+ */
+@Embeddable
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class Money implements Comparable<Money> {
+
+    public static final int MINOR_PER_MAJOR = 100;
+
+    public static final Money ZERO = new Money(0L);
+
+    private long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Rounds a decimal major-unit amount (e.g. 29.99) to the nearest minor unit.
+     * Returns null for null so optional request fields pass through unchanged.
+     */
+    @JsonCreator
+    public static Money ofMajor(Double major) {
+        return major != null ? ofMinor(toMinor(major)) : null;
+    }
+
+    public static long toMinor(double major) {
+        return Math.round(major * MINOR_PER_MAJOR);
+    }
+
+    public static double toMajor(long minorUnits) {
+        return (double) minorUnits / MINOR_PER_MAJOR;
+    }
+
+    // Null-safe conversion for mappers, where a missing amount stays missing
+    public static Double toMajor(Money money) {
+        return money != null ? money.toMajor() : null;
+    }
+
+    // Null-safe minor units for summation, treating a missing amount as zero
+    public static long minorOf(Money money) {
+        return money != null ? money.minorUnits : 0L;
+    }
+
+    @JsonValue
+    public double toMajor() {
+        return toMajor(minorUnits);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, minorOf(other)));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, minorOf(other)));
+    }
+
+    public Money times(long quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return BigDecimal.valueOf(minorUnits, 2).toPlainString();
+    }
+}
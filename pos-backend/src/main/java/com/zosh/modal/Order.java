@@ -16,7 +16,30 @@ import java.util.List;
         @Index(name = "idx_order_cashier", columnList = "cashier_id"),
         @Index(name = "idx_order_customer", columnList = "customer_id"),
         @Index(name = "idx_order_created_at", columnList = "createdAt"),
+        @Index(name = "idx_order_branch_created", columnList = "branch_id, createdAt, id"),
         @Index(name = "idx_order_status", columnList = "status")
+    },
+    uniqueConstraints = @UniqueConstraint(name = "uk_order_client_order_id", columnNames = "client_order_id")
+)
+@NamedEntityGraph(
+    name = "Order.detail",
+    attributeNodes = {
+        @NamedAttributeNode("branch"),
+        @NamedAttributeNode("cashier"),
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "items", subgraph = "items")
+    },
+    subgraphs = {
+        @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+        @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("category"))
+    }
+)
+@NamedEntityGraph(
+    name = "Order.summary",
+    attributeNodes = {
+        @NamedAttributeNode("branch"),
+        @NamedAttributeNode("cashier"),
+        @NamedAttributeNode("customer")
     }
 )
 @Getter
@@ -27,13 +50,20 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
-    private Double totalAmount;
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "total_amount_minor"))
+    private Money totalAmount;
 
     private LocalDateTime createdAt;
 
+    // Id an offline till gave the order, so a re-sent sync batch is not stored twice
+    @Column(name = "client_order_id", length = 64)
+    private String clientOrderId;
+
     @ManyToOne
     @JoinColumn(name = "branch_id")
     @JsonIgnore
@@ -57,7 +87,10 @@ public class Order {
 
     @PrePersist
     public void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Orders synced from an offline till keep the time they were rung up
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 }
 
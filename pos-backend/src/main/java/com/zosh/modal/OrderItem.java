@@ -8,7 +8,8 @@ import lombok.*;
 @Table(name = "order_items",
     indexes = {
         @Index(name = "idx_order_item_order", columnList = "order_id"),
-        @Index(name = "idx_order_item_product", columnList = "product_id")
+        @Index(name = "idx_order_item_product", columnList = "product_id"),
+        @Index(name = "idx_order_item_sales", columnList = "order_id, product_id, line_total_minor, quantity")
     }
 )
 @Getter
@@ -19,12 +20,21 @@ import lombok.*;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     private Integer quantity;
 
-    private Double price;
+    // Price of a single unit at the time of sale
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "unit_price_minor"))
+    private Money unitPrice;
+
+    // unitPrice * quantity; what this line adds to the order total
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "line_total_minor"))
+    private Money lineTotal;
 
     @ManyToOne
     @JoinColumn(name = "product_id")
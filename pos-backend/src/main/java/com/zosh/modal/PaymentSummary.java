@@ -17,7 +17,9 @@ public class PaymentSummary {
 
     private PaymentType type; // CASH, CARD, UPI
 
-    private Double totalAmount;
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "total_amount_minor"))
+    private Money totalAmount;
     private int transactionCount;
     private double percentage;
 
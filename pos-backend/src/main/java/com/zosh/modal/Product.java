@@ -35,8 +35,9 @@ public class Product {
     @Column(nullable = false)
     private Double mrp; // Maximum Retail Price
 
-    @Column(nullable = false)
-    private Double sellingPrice; // Actual sale price
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "selling_price_minor", nullable = false))
+    private Money sellingPrice; // Actual sale price
 
     private String brand;
 
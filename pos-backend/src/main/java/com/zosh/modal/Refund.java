@@ -17,7 +17,9 @@ import java.time.LocalDateTime;
         @Index(name = "idx_refund_branch", columnList = "branch_id"),
         @Index(name = "idx_refund_cashier", columnList = "cashier_id"),
         @Index(name = "idx_refund_shift_report", columnList = "shift_report_id"),
-        @Index(name = "idx_refund_created_at", columnList = "createdAt")
+        @Index(name = "idx_refund_created_at", columnList = "createdAt"),
+        @Index(name = "idx_refund_branch_created", columnList = "branch_id, createdAt, id"),
+        @Index(name = "idx_refund_cashier_created", columnList = "cashier_id, createdAt, id")
     }
 )
 @Getter
@@ -26,7 +28,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class Refund {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refund_seq")
+    @SequenceGenerator(name = "refund_seq", sequenceName = "refunds_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -35,7 +38,9 @@ public class Refund {
 
     private String reason;
 
-    private Double amount;
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "amount_minor"))
+    private Money amount;
 
     @ManyToOne
     @JoinColumn(name = "shift_report_id")
@@ -15,7 +15,8 @@ import java.util.List;
         @Index(name = "idx_shift_report_cashier", columnList = "cashier_id"),
         @Index(name = "idx_shift_report_branch", columnList = "branch_id"),
         @Index(name = "idx_shift_report_start", columnList = "shiftStart"),
-        @Index(name = "idx_shift_report_end", columnList = "shiftEnd")
+        @Index(name = "idx_shift_report_end", columnList = "shiftEnd"),
+        @Index(name = "idx_shift_report_branch_start", columnList = "branch_id, shiftStart, id")
     }
 )
 @Getter
@@ -25,15 +26,24 @@ import java.util.List;
 public class ShiftReport {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shift_report_seq")
+    @SequenceGenerator(name = "shift_report_seq", sequenceName = "shift_reports_seq", allocationSize = 50)
     private Long id;
 
     private LocalDateTime shiftStart;
     private LocalDateTime shiftEnd;
 
-    private Double totalSales;
-    private Double totalRefunds;
-    private Double netSales;
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "total_sales_minor"))
+    private Money totalSales;
+
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "total_refunds_minor"))
+    private Money totalRefunds;
+
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "net_sales_minor"))
+    private Money netSales;
     private int totalOrders;
 
     @ManyToOne
@@ -44,9 +54,12 @@ public class ShiftReport {
     @JoinColumn(name = "branch_id")
     private Branch branch;
 
-//    @OneToMany(mappedBy = "shiftReport", cascade = CascadeType.ALL)
-//    @ElementCollection
-    @Transient
+    // Stored when the shift closes, so later reads never recompute it from orders
+    @ElementCollection
+    @CollectionTable(
+        name = "shift_report_payment_summaries",
+        joinColumns = @JoinColumn(name = "shift_report_id")
+    )
     private List<PaymentSummary> paymentSummaries;
 
     @ManyToMany
@@ -65,6 +78,7 @@ public class ShiftReport {
     )
     private List<Order> recentOrders;
 
-    @OneToMany(mappedBy = "shiftReport", cascade = CascadeType.ALL)
+    // Refunds outlive their shift report; deleting a report only unlinks them
+    @OneToMany(mappedBy = "shiftReport")
     private List<Refund> refunds;
 }
@@ -0,0 +1,33 @@
+package com.zosh.modal;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized store admin dashboard: every KPI section serialized into one
+ * row keyed by the store admin, so a dashboard read is a single primary-key
+ * lookup. The version only moves when the payload changes and doubles as the
+ * ETag clients revalidate with.
+ */
+@Entity
+@Table(name = "store_kpi_snapshot")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoreKpiSnapshot {
+
+    @Id
+    private Long storeAdminId;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    private LocalDateTime updatedAt;
+}
@@ -1,12 +1,16 @@
 package com.zosh.payload.StoreAnalysis;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class BranchPerformanceDTO {
     private List<BranchSalesDTO> branchSales;
     private Integer newBranchesThisMonth;
@@ -1,12 +1,16 @@
 package com.zosh.payload.StoreAnalysis;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class CategorySalesDTO {
     private String categoryName;
     private Double totalSales;
@@ -1,13 +1,17 @@
 package com.zosh.payload.StoreAnalysis;
 
 import com.zosh.domain.PaymentType;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class PaymentInsightDTO {
     private PaymentType paymentMethod; // Cash, UPI, Card, Wallet
     private Double totalAmount;
@@ -0,0 +1,25 @@
+package com.zosh.payload.StoreAnalysis;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StoreKpiSnapshotDTO {
+    // Not part of the stored payload, so an unchanged dashboard serializes identically
+    @JsonIgnore
+    private Long version;
+
+    private StoreOverviewDTO overview;
+    private List<CategorySalesDTO> salesByCategory;
+    private List<BranchSalesDTO> salesByBranch;
+    private List<PaymentInsightDTO> paymentMethods;
+    private BranchPerformanceDTO branchPerformance;
+}
@@ -1,13 +1,17 @@
 package com.zosh.payload.StoreAnalysis;
 
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class StoreOverviewDTO {
     private Integer totalBranches;
     private Double totalSales;
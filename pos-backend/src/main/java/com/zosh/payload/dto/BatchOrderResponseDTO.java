@@ -0,0 +1,20 @@
+package com.zosh.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOrderResponseDTO {
+
+    private int createdCount;
+    private int duplicateCount;
+    private int failedCount;
+    private List<BatchOrderResultDTO> results;
+}
@@ -0,0 +1,19 @@
+package com.zosh.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOrderResultDTO {
+
+    private int index;          // position of the order in the submitted batch
+    private boolean created;
+    private boolean duplicate;  // already stored by an earlier sync; orderId is the stored order
+    private Long orderId;
+    private String error;
+}
@@ -0,0 +1,22 @@
+package com.zosh.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartDTO {
+
+    private Long cashierId;
+    private List<CartItemDTO> items;
+    private int itemCount;
+    private Double totalAmount;
+    private LocalDateTime updatedAt;
+}
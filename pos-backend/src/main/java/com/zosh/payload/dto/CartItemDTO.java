@@ -0,0 +1,20 @@
+package com.zosh.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartItemDTO {
+
+    private Long productId;
+    private String productName;
+    private String sku;
+    private Double unitPrice;
+    private Integer quantity;
+    private Double lineTotal;
+}
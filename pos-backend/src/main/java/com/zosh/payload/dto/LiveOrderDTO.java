@@ -0,0 +1,22 @@
+package com.zosh.payload.dto;
+
+import com.zosh.domain.PaymentType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveOrderDTO {
+    private Long id;
+    private Long branchId;
+    private Long cashierId;
+    private Double totalAmount;
+    private PaymentType paymentType;
+    private LocalDateTime createdAt;
+}
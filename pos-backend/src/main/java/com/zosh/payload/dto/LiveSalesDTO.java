@@ -0,0 +1,29 @@
+package com.zosh.payload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Running totals for the current business day, pushed to live dashboards.
+ * For a store the totals cover each branch's own current day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveSalesDTO {
+    private Long branchId;
+    private Long storeId;
+    private LocalDate businessDate;
+    private Double totalSales;
+    private Integer totalOrders;
+    private Double totalRefunds;
+    private Integer totalRefundCount;
+    private Double netSales;
+    private List<LiveOrderDTO> recentOrders;
+}
@@ -15,7 +15,8 @@ public class OrderItemDTO {
         private Long productId;
         private Integer quantity;
         private ProductDTO product;
-        private Double price;
+        private Double price; // unit price
+        private Double lineTotal;
 
 
 }
@@ -0,0 +1,46 @@
+package com.zosh.payload.dto;
+
+import com.zosh.modal.PaymentSummary;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One row of shift history: the stored totals and payment summaries of a shift,
+ * without its orders, products or refunds. Full detail comes from ShiftReportDTO.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShiftSummaryDTO {
+    private Long id;
+    private LocalDateTime shiftStart;
+    private LocalDateTime shiftEnd;
+    private Long cashierId;
+    private String cashierName;
+    private Long branchId;
+    private Double totalSales;
+    private Double totalRefunds;
+    private Double netSales;
+    private int totalOrders;
+    private List<PaymentSummary> paymentSummaries = new ArrayList<>();
+
+    // Projection constructor; payment summaries are attached per page afterwards
+    public ShiftSummaryDTO(Long id,
+                           LocalDateTime shiftStart,
+                           LocalDateTime shiftEnd,
+                           Long cashierId,
+                           String cashierName,
+                           Long branchId,
+                           Double totalSales,
+                           Double totalRefunds,
+                           Double netSales,
+                           Integer totalOrders) {
+        this(id, shiftStart, shiftEnd, cashierId, cashierName, branchId,
+                totalSales, totalRefunds, netSales, totalOrders, new ArrayList<>());
+    }
+}
@@ -0,0 +1,13 @@
+package com.zosh.payload.request;
+
+import com.zosh.domain.PaymentType;
+import com.zosh.modal.Customer;
+import lombok.Data;
+
+@Data
+public class CartCheckoutRequest {
+
+    private PaymentType paymentType;
+
+    private Customer customer;
+}
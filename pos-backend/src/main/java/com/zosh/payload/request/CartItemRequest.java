@@ -0,0 +1,11 @@
+package com.zosh.payload.request;
+
+import lombok.Data;
+
+@Data
+public class CartItemRequest {
+
+    private Long productId;
+
+    private Integer quantity;
+}
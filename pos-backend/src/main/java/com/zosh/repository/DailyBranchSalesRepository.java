@@ -0,0 +1,57 @@
+package com.zosh.repository;
+
+import com.zosh.domain.PaymentType;
+import com.zosh.modal.DailyBranchSales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyBranchSalesRepository extends JpaRepository<DailyBranchSales, Long> {
+
+    // Adds deltas to an existing rollup row; 0 means the row does not exist yet
+    @Modifying
+    @Query("""
+        UPDATE DailyBranchSales d
+        SET d.salesMinor = d.salesMinor + :salesMinor,
+            d.quantity = d.quantity + :quantity,
+            d.orderCount = d.orderCount + :orderCount,
+            d.refundMinor = d.refundMinor + :refundMinor,
+            d.refundCount = d.refundCount + :refundCount
+        WHERE d.branch.id = :branchId
+        AND d.salesDate = :salesDate
+        AND d.paymentType = :paymentType
+        AND d.categoryId = :categoryId
+    """)
+    int increment(@Param("branchId") Long branchId,
+                  @Param("salesDate") LocalDate salesDate,
+                  @Param("paymentType") PaymentType paymentType,
+                  @Param("categoryId") Long categoryId,
+                  @Param("salesMinor") long salesMinor,
+                  @Param("quantity") long quantity,
+                  @Param("orderCount") int orderCount,
+                  @Param("refundMinor") long refundMinor,
+                  @Param("refundCount") int refundCount);
+
+    @Modifying
+    @Query("DELETE FROM DailyBranchSales d WHERE d.branch.id = :branchId AND d.salesDate = :salesDate")
+    int deleteByBranchAndDate(@Param("branchId") Long branchId,
+                              @Param("salesDate") LocalDate salesDate);
+
+    boolean existsByBranchIdAndSalesDate(Long branchId, LocalDate salesDate);
+
+    // Sales per day over a closed range of branch days
+    @Query("""
+        SELECT d.salesDate, SUM(d.salesMinor)
+        FROM DailyBranchSales d
+        WHERE d.branch.id = :branchId
+        AND d.salesDate BETWEEN :from AND :to
+        GROUP BY d.salesDate
+    """)
+    List<Object[]> sumSalesByDay(@Param("branchId") Long branchId,
+                                 @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to);
+}
@@ -0,0 +1,51 @@
+package com.zosh.repository;
+
+import com.zosh.domain.IdempotencyStatus;
+import com.zosh.modal.IdempotencyRecord;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+
+    // Stores the response of a reserved key
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE IdempotencyRecord r
+            SET r.status = :status, r.responseBody = :responseBody
+            WHERE r.scope = :scope AND r.idempotencyKey = :key
+    """)
+    int complete(@Param("scope") String scope,
+                 @Param("key") String key,
+                 @Param("status") IdempotencyStatus status,
+                 @Param("responseBody") String responseBody);
+
+    // Gives a reserved key back after its request failed, so it can be retried
+    @Modifying
+    @Transactional
+    @Query("""
+            DELETE FROM IdempotencyRecord r
+            WHERE r.scope = :scope AND r.idempotencyKey = :key
+            AND r.status = com.zosh.domain.IdempotencyStatus.PENDING
+    """)
+    int release(@Param("scope") String scope, @Param("key") String key);
+
+    // Removes one expired or abandoned row; 0 when another instance got there first
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.createdAt = :createdAt")
+    int deleteStale(@Param("id") Long id, @Param("createdAt") LocalDateTime createdAt);
+
+    // Delete records whose replay window has passed
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
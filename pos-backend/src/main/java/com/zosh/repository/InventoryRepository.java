@@ -4,9 +4,11 @@ import com.zosh.modal.Branch;
 import com.zosh.modal.Inventory;
 import com.zosh.modal.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,4 +40,43 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     """)
     int countLowStockItems(@Param("branchId") Long branchId, @Param("threshold") Integer threshold);
 
+    // Low-stock item count of every branch that has any, for the daily snapshot
+    @Query("""
+        SELECT i.branch.id, COUNT(i)
+        FROM Inventory i
+        WHERE i.quantity <= :threshold
+        GROUP BY i.branch.id
+    """)
+    List<Object[]> countLowStockItemsByBranch(@Param("threshold") Integer threshold);
+
+    // Conditional decrement: succeeds (returns 1) only when enough stock is left,
+    // so concurrent checkouts never oversell and never need a read-modify-write.
+    @Modifying
+    @Query("""
+        UPDATE Inventory i
+        SET i.quantity = i.quantity - :quantity,
+            i.lastUpdated = :now
+        WHERE i.branch.id = :branchId
+        AND i.product.id = :productId
+        AND i.quantity >= :quantity
+    """)
+    int decrementStock(@Param("branchId") Long branchId,
+                       @Param("productId") Long productId,
+                       @Param("quantity") Integer quantity,
+                       @Param("now") LocalDateTime now);
+
+    // For sales that already happened (offline sync): take what is there, never below zero
+    @Modifying
+    @Query("""
+        UPDATE Inventory i
+        SET i.quantity = CASE WHEN i.quantity >= :quantity THEN i.quantity - :quantity ELSE 0 END,
+            i.lastUpdated = :now
+        WHERE i.branch.id = :branchId
+        AND i.product.id = :productId
+    """)
+    int decrementStockClamped(@Param("branchId") Long branchId,
+                              @Param("productId") Long productId,
+                              @Param("quantity") Integer quantity,
+                              @Param("now") LocalDateTime now);
+
 }
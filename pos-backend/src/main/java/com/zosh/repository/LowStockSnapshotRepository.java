@@ -0,0 +1,28 @@
+package com.zosh.repository;
+
+import com.zosh.modal.LowStockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface LowStockSnapshotRepository extends JpaRepository<LowStockSnapshot, Long> {
+
+    Optional<LowStockSnapshot> findByBranchIdAndSnapshotDate(Long branchId, LocalDate snapshotDate);
+
+    // Overwrite the day's count; 0 means no snapshot exists for that day yet
+    @Modifying
+    @Query("""
+        UPDATE LowStockSnapshot s
+        SET s.lowStockCount = :lowStockCount, s.recordedAt = :recordedAt
+        WHERE s.branch.id = :branchId AND s.snapshotDate = :snapshotDate
+    """)
+    int updateCount(@Param("branchId") Long branchId,
+                    @Param("snapshotDate") LocalDate snapshotDate,
+                    @Param("lowStockCount") int lowStockCount,
+                    @Param("recordedAt") LocalDateTime recordedAt);
+}
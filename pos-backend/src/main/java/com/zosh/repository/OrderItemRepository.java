@@ -5,12 +5,15 @@ import com.zosh.payload.StoreAnalysis.BranchSalesDTO;
 import com.zosh.payload.StoreAnalysis.CategorySalesDTO;
 import com.zosh.payload.StoreAnalysis.PaymentInsightDTO;
 import com.zosh.payload.StoreAnalysis.TimeSeriesPointDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,15 +30,86 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     """)
     List<Object[]> getTopProductsByQuantity(@Param("branchId") Long branchId);
 
+    // Quantity sold per product in 15-minute buckets over [start, end), to seed windowed top sellers;
+    // every real zone offset is a multiple of 15 minutes, so each bucket maps to one branch day
     @Query("""
-        SELECT c.name, SUM(oi.quantity * oi.price), SUM(oi.quantity)
+        SELECT CAST(o.createdAt AS DATE),
+               EXTRACT(HOUR FROM o.createdAt),
+               FLOOR(EXTRACT(MINUTE FROM o.createdAt) / 15),
+               p.id, p.name, SUM(oi.quantity)
+        FROM OrderItem oi
+        JOIN oi.product p
+        JOIN oi.order o
+        WHERE o.branch.id = :branchId
+        AND o.createdAt >= :start AND o.createdAt < :end
+        GROUP BY CAST(o.createdAt AS DATE),
+                 EXTRACT(HOUR FROM o.createdAt),
+                 FLOOR(EXTRACT(MINUTE FROM o.createdAt) / 15),
+                 p.id, p.name
+    """)
+    List<Object[]> sumQuantityByProductAndQuarterHour(@Param("branchId") Long branchId,
+                                                      @Param("start") LocalDateTime start,
+                                                      @Param("end") LocalDateTime end);
+
+    // Quantity per product a cashier sold since a shift started, to rebuild its top sellers
+    @Query("""
+        SELECT oi.product.id, SUM(oi.quantity)
+        FROM OrderItem oi
+        WHERE oi.order.cashier.id = :cashierId
+        AND oi.order.createdAt >= :start
+        GROUP BY oi.product.id
+    """)
+    List<Object[]> sumQuantityByProductForCashierSince(@Param("cashierId") Long cashierId,
+                                                       @Param("start") LocalDateTime start);
+
+    // Best sellers of one cashier's shift; the page caps the rows in SQL
+    @Query("""
+        SELECT oi.product.id, SUM(oi.quantity)
+        FROM OrderItem oi
+        WHERE oi.order.cashier.id = :cashierId
+        AND oi.order.createdAt BETWEEN :start AND :end
+        GROUP BY oi.product.id
+        ORDER BY SUM(oi.quantity) DESC
+    """)
+    List<Object[]> findTopProductsByCashierBetween(@Param("cashierId") Long cashierId,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("end") LocalDateTime end,
+                                                   Pageable pageable);
+
+    // Exact quantities of a few candidate products, to verify an approximate top-sellers ranking
+    @Query("""
+        SELECT oi.product.id, SUM(oi.quantity)
+        FROM OrderItem oi
+        WHERE oi.order.branch.id = :branchId
+        AND oi.product.id IN :productIds
+        GROUP BY oi.product.id
+    """)
+    List<Object[]> sumQuantityForProducts(@Param("branchId") Long branchId,
+                                          @Param("productIds") Collection<Long> productIds);
+
+    @Query("""
+        SELECT oi.product.id, SUM(oi.quantity)
+        FROM OrderItem oi
+        WHERE oi.order.branch.id = :branchId
+        AND oi.product.id IN :productIds
+        AND oi.order.createdAt >= :start AND oi.order.createdAt < :end
+        GROUP BY oi.product.id
+    """)
+    List<Object[]> sumQuantityForProductsBetween(@Param("branchId") Long branchId,
+                                                 @Param("productIds") Collection<Long> productIds,
+                                                 @Param("start") LocalDateTime start,
+                                                 @Param("end") LocalDateTime end);
+
+    @Query("""
+        SELECT c.name, SUM(oi.lineTotal.minorUnits), SUM(oi.quantity)
         FROM OrderItem oi
         JOIN oi.product p
         JOIN p.category c
         JOIN oi.order o
-        WHERE o.branch.id = :branchId AND o.createdAt BETWEEN :start AND :end
+        WHERE o.branch.id = :branchId
+        AND o.createdAt >= :start AND o.createdAt < :end
         GROUP BY c.name
-        ORDER BY SUM(oi.quantity * oi.price) DESC
+        ORDER BY SUM(oi.lineTotal.minorUnits) DESC
     """)
     List<Object[]> getCategoryWiseSales(
             @Param("branchId") Long branchId,
@@ -43,7 +117,43 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
             @Param("end") LocalDateTime end
     );
 
+    // ---- unitPrice / lineTotal backfill ----
+
+    boolean existsByLineTotalIsNull();
 
+    // Rows still carrying only the legacy price_minor column, with their order's
+    // total and the sum of its legacy prices so each order's semantics can be told apart
+    @Query(value = """
+        SELECT oi.id, o.total_amount_minor,
+               (SELECT SUM(i2.price_minor) FROM order_items i2 WHERE i2.order_id = oi.order_id)
+        FROM order_items oi
+        JOIN orders o ON o.id = oi.order_id
+        WHERE oi.line_total_minor IS NULL
+        AND oi.price_minor IS NOT NULL
+        AND oi.id > :afterId
+        ORDER BY oi.id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Object[]> findLegacyPricedItems(@Param("afterId") long afterId,
+                                         @Param("limit") int limit);
 
+    // Legacy price held the line total (orders placed through the API)
+    @Modifying
+    @Query(value = """
+        UPDATE order_items
+        SET line_total_minor = price_minor,
+            unit_price_minor = price_minor / COALESCE(NULLIF(quantity, 0), 1)
+        WHERE id IN (:ids)
+    """, nativeQuery = true)
+    int backfillFromLineTotals(@Param("ids") Collection<Long> ids);
 
+    // Legacy price held the unit price (seeded orders)
+    @Modifying
+    @Query(value = """
+        UPDATE order_items
+        SET unit_price_minor = price_minor,
+            line_total_minor = price_minor * quantity
+        WHERE id IN (:ids)
+    """, nativeQuery = true)
+    int backfillFromUnitPrices(@Param("ids") Collection<Long> ids);
 }
@@ -4,120 +4,227 @@ import com.zosh.modal.Order;
 import com.zosh.modal.User;
 import com.zosh.payload.StoreAnalysis.BranchSalesDTO;
 import com.zosh.payload.StoreAnalysis.PaymentInsightDTO;
-import com.zosh.payload.StoreAnalysis.TimeSeriesPointDTO;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
+    // Read paths that end in OrderMapper.toDto load orders, items and products in one
+    // query; "Order.summary" skips the items collection so the row limit stays in SQL,
+    // and the remaining associations are batch fetched (default_batch_fetch_size).
+    @EntityGraph("Order.detail")
     List<Order> findByCustomerId(Long customerId);
     List<Order> findByBranchId(Long branchId);
+    @EntityGraph("Order.detail")
     List<Order> findByCashierId(Long cashierId);
+    @EntityGraph("Order.detail")
     List<Order> findByBranchIdAndCreatedAtBetween(Long branchId,
                                                   LocalDateTime start,
                                                   LocalDateTime end);
+    @EntityGraph("Order.detail")
     List<Order> findByCashierAndCreatedAtBetween(User cashier,
                                                  LocalDateTime start,
                                                  LocalDateTime end);
+    @EntityGraph("Order.summary")
     List<Order> findTop5ByBranchIdOrderByCreatedAtDesc(Long branchId);
+    @EntityGraph("Order.summary")
+    List<Order> findTop5ByCashierIdAndCreatedAtBetweenOrderByCreatedAtDesc(Long cashierId,
+                                                                          LocalDateTime start,
+                                                                          LocalDateTime end);
+    @EntityGraph("Order.detail")
+    List<Order> findByIdIn(Collection<Long> ids);
+
+    // Orders already stored for these till-generated ids, as (clientOrderId, id) rows
+    @Query("SELECT o.clientOrderId, o.id FROM Order o WHERE o.clientOrderId IN :clientOrderIds")
+    List<Object[]> findIdsByClientOrderIdIn(@Param("clientOrderIds") Collection<String> clientOrderIds);
+
+    // Which of these orders the current snapshot can see
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Sales and order count per payment type for one cashier's shift
+    @Query("""
+        SELECT o.paymentType, COALESCE(SUM(o.totalAmount.minorUnits), 0), COUNT(o)
+        FROM Order o
+        WHERE o.cashier.id = :cashierId
+        AND o.createdAt BETWEEN :start AND :end
+        GROUP BY o.paymentType
+    """)
+    List<Object[]> sumSalesByPaymentTypeForCashier(@Param("cashierId") Long cashierId,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("end") LocalDateTime end);
+
+    // One light row per order a cashier took since a shift started, to rebuild its running totals
+    @Query("""
+        SELECT o.id, o.totalAmount.minorUnits, o.paymentType, o.createdAt
+        FROM Order o
+        WHERE o.cashier.id = :cashierId
+        AND o.createdAt >= :start
+    """)
+    List<Object[]> findOrderTotalsByCashierSince(@Param("cashierId") Long cashierId,
+                                                 @Param("start") LocalDateTime start);
+
+    // One light row per order of a branch day, [start, end), to rebuild its live totals
+    @Query("""
+        SELECT o.id, o.totalAmount.minorUnits
+        FROM Order o
+        WHERE o.branch.id = :branchId
+        AND o.createdAt >= :start AND o.createdAt < :end
+    """)
+    List<Object[]> findOrderTotalsByBranchBetween(@Param("branchId") Long branchId,
+                                                  @Param("start") LocalDateTime start,
+                                                  @Param("end") LocalDateTime end);
+
+    // Half-open [start, end) range, used to rebuild one branch day
+    @EntityGraph("Order.detail")
+    List<Order> findByBranchIdAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(Long branchId,
+                                                                              LocalDateTime start,
+                                                                              LocalDateTime end);
+
+    @Query("SELECT MIN(o.createdAt) FROM Order o WHERE o.branch.id = :branchId")
+    Optional<LocalDateTime> findFirstOrderTime(@Param("branchId") Long branchId);
 
     @Query(""" 
-            SELECT SUM(o.totalAmount) 
+            SELECT SUM(o.totalAmount.minorUnits) 
             FROM Order o 
             WHERE o.branch.id = :branchId  
             AND o.createdAt BETWEEN :start AND :end
            """)
-    Optional<BigDecimal> getTotalSalesBetween(@Param("branchId") Long branchId,
+    Optional<Long> getTotalSalesBetween(@Param("branchId") Long branchId,
                                               @Param("start") LocalDateTime start,
                                               @Param("end") LocalDateTime end);
 
+    // Daily sales in one round-trip, bucketed on the server-local calendar day
     @Query("""
-        SELECT u.id, u.fullName, SUM(o.totalAmount) AS totalRevenue
+        SELECT CAST(o.createdAt AS DATE), SUM(o.totalAmount.minorUnits)
         FROM Order o
-        JOIN o.cashier u
         WHERE o.branch.id = :branchId
-        GROUP BY u.id, u.fullName
-        ORDER BY totalRevenue DESC
+        AND o.createdAt >= :start AND o.createdAt < :end
+        GROUP BY CAST(o.createdAt AS DATE)
     """)
-    List<Object[]> getTopCashiersByRevenue(@Param("branchId") Long branchId);
+    List<Object[]> sumSalesByDay(@Param("branchId") Long branchId,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end);
 
+    // Same, in 15-minute buckets, for branches whose zone differs from the server's;
+    // every real zone offset is a multiple of 15 minutes, so each bucket maps to one branch day
     @Query("""
-        SELECT COUNT(o)
+        SELECT CAST(o.createdAt AS DATE),
+               EXTRACT(HOUR FROM o.createdAt),
+               FLOOR(EXTRACT(MINUTE FROM o.createdAt) / 15),
+               SUM(o.totalAmount.minorUnits)
         FROM Order o
         WHERE o.branch.id = :branchId
-        AND CAST(o.createdAt AS DATE) = :date
+        AND o.createdAt >= :start AND o.createdAt < :end
+        GROUP BY CAST(o.createdAt AS DATE),
+                 EXTRACT(HOUR FROM o.createdAt),
+                 FLOOR(EXTRACT(MINUTE FROM o.createdAt) / 15)
     """)
-    int countOrdersByBranchAndDate(@Param("branchId") Long branchId,
-                                   @Param("date") LocalDate date);
+    List<Object[]> sumSalesByQuarterHour(@Param("branchId") Long branchId,
+                                         @Param("start") LocalDateTime start,
+                                         @Param("end") LocalDateTime end);
 
     @Query("""
-        SELECT COUNT(DISTINCT o.cashier.id)
+        SELECT u.id, u.fullName, SUM(o.totalAmount.minorUnits) AS totalRevenue
         FROM Order o
+        JOIN o.cashier u
         WHERE o.branch.id = :branchId
-        AND CAST(o.createdAt AS DATE) = :date
+        GROUP BY u.id, u.fullName
+        ORDER BY totalRevenue DESC
     """)
-    int countDistinctCashiersByBranchAndDate(@Param("branchId") Long branchId,
-                                             @Param("date") LocalDate date);
+    List<Object[]> getTopCashiersByRevenue(@Param("branchId") Long branchId);
 
+    // Today's and yesterday's sales, order count and distinct cashiers in one pass over
+    // [yesterdayStart, tomorrowStart), a range idx_order_branch_created can seek
     @Query("""
-    SELECT o.paymentType, SUM(o.totalAmount), COUNT(o)
+        SELECT COALESCE(SUM(CASE WHEN o.createdAt >= :todayStart THEN o.totalAmount.minorUnits ELSE 0 END), 0),
+               COALESCE(SUM(CASE WHEN o.createdAt < :todayStart THEN o.totalAmount.minorUnits ELSE 0 END), 0),
+               COALESCE(SUM(CASE WHEN o.createdAt >= :todayStart THEN 1 ELSE 0 END), 0),
+               COALESCE(SUM(CASE WHEN o.createdAt < :todayStart THEN 1 ELSE 0 END), 0),
+               COUNT(DISTINCT CASE WHEN o.createdAt >= :todayStart THEN o.cashier.id END),
+               COUNT(DISTINCT CASE WHEN o.createdAt < :todayStart THEN o.cashier.id END)
+        FROM Order o
+        WHERE o.branch.id = :branchId
+        AND o.createdAt >= :yesterdayStart AND o.createdAt < :tomorrowStart
+    """)
+    List<Object[]> getTodayAndYesterdayTotals(@Param("branchId") Long branchId,
+                                              @Param("yesterdayStart") LocalDateTime yesterdayStart,
+                                              @Param("todayStart") LocalDateTime todayStart,
+                                              @Param("tomorrowStart") LocalDateTime tomorrowStart);
+
+    @Query("""
+    SELECT o.paymentType, SUM(o.totalAmount.minorUnits), COUNT(o)
     FROM Order o
     WHERE o.branch.id = :branchId
-    AND CAST(o.createdAt AS DATE) = :date
+    AND o.createdAt >= :start AND o.createdAt < :end
     GROUP BY o.paymentType
 """)
     List<Object[]> getPaymentBreakdownByMethod(
             @Param("branchId") Long branchId,
-            @Param("date") LocalDate date
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
     );
 
     ////////////////////
 
 
-        @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.branch.store.storeAdmin.id = :storeAdminId")
-        Optional<Double> sumTotalSalesByStoreAdmin(@Param("storeAdminId") Long storeAdminId);
+        @Query("SELECT SUM(o.totalAmount.minorUnits) FROM Order o WHERE o.branch.store.storeAdmin.id = :storeAdminId")
+        Optional<Long> sumTotalSalesByStoreAdmin(@Param("storeAdminId") Long storeAdminId);
 
         @Query("SELECT COUNT(o) FROM Order o WHERE o.branch.store.storeAdmin.id = :storeAdminId")
         int countByStoreAdminId(@Param("storeAdminId") Long storeAdminId);
 //
 
+    // Sales per calendar month, aggregated in the database: one row per month with orders
     @Query("""
-    SELECT o FROM Order o 
-    WHERE o.branch.store.storeAdmin.id = :storeAdminId 
-    AND o.createdAt BETWEEN :start AND :end
+    SELECT EXTRACT(YEAR FROM o.createdAt), EXTRACT(MONTH FROM o.createdAt), SUM(o.totalAmount.minorUnits)
+    FROM Order o
+    WHERE o.branch.store.storeAdmin.id = :storeAdminId
+    AND o.createdAt >= :start AND o.createdAt < :end
+    GROUP BY EXTRACT(YEAR FROM o.createdAt), EXTRACT(MONTH FROM o.createdAt)
 """)
-    List<Order> findAllByStoreAdminAndCreatedAtBetween(@Param("storeAdminId") Long storeAdminId,
-                                                       @Param("start") LocalDateTime start,
-                                                       @Param("end") LocalDateTime end);
+    List<Object[]> sumSalesByMonth(@Param("storeAdminId") Long storeAdminId,
+                                   @Param("start") LocalDateTime start,
+                                   @Param("end") LocalDateTime end);
+
 
 
+    // Latest order time per branch of the store, for the no-sales-today alert
+    @Query("""
+    SELECT o.branch.id, MAX(o.createdAt)
+    FROM Order o
+    WHERE o.branch.store.storeAdmin.id = :storeAdminId
+     AND o.createdAt >= :since
+    GROUP BY o.branch.id
+""")
+    List<Object[]> findLastOrderTimeByBranch(@Param("storeAdminId") Long storeAdminId,
+                                             @Param("since") LocalDateTime since);
 
+    // Sales per calendar day across the store, aggregated in the database: one row per day with orders
     @Query("""
-    SELECT new com.zosh.payload.StoreAnalysis.TimeSeriesPointDTO(
-        o.createdAt,
-        SUM(o.totalAmount)
-    )
+    SELECT CAST(o.createdAt AS DATE), SUM(o.totalAmount.minorUnits)
     FROM Order o
     WHERE o.branch.store.storeAdmin.id = :storeAdminId
-     AND o.createdAt BETWEEN :start AND :end
-    GROUP BY o.createdAt
-    ORDER BY o.createdAt
+     AND o.createdAt >= :start AND o.createdAt < :end
+    GROUP BY CAST(o.createdAt AS DATE)
 """)
-    List<TimeSeriesPointDTO> getDailySales(@Param("storeAdminId") Long storeAdminId,
-                                           @Param("start") LocalDateTime start,
-                                           @Param("end") LocalDateTime end);
+    List<Object[]> getDailySales(@Param("storeAdminId") Long storeAdminId,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end);
 
 
     @Query("""
         SELECT new com.zosh.payload.StoreAnalysis.PaymentInsightDTO(
             o.paymentType,
-            SUM(o.totalAmount)
+            SUM(o.totalAmount.minorUnits) / 100.0
         )
         FROM Order o
         WHERE o.branch.store.storeAdmin.id = :storeAdminId
@@ -128,7 +235,7 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
         @Query("""
         SELECT new com.zosh.payload.StoreAnalysis.BranchSalesDTO(
             o.branch.name,
-            SUM(o.totalAmount)
+            SUM(o.totalAmount.minorUnits) / 100.0
         )
         FROM Order o
         WHERE o.branch.store.storeAdmin.id = :storeAdminId
@@ -0,0 +1,51 @@
+package com.zosh.repository;
+
+import com.zosh.domain.OrderStatus;
+import com.zosh.domain.PaymentType;
+import com.zosh.modal.Order;
+import com.zosh.util.KeysetCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Optional filters for order listings, each one a no-op when its value is null,
+ * so callers can combine them into a single dynamic query.
+ */
+public class OrderSpecifications {
+
+    public static Specification<Order> branchId(Long branchId) {
+        return (root, query, cb) -> branchId == null ? null
+                : cb.equal(root.get("branch").get("id"), branchId);
+    }
+
+    public static Specification<Order> customerId(Long customerId) {
+        return (root, query, cb) -> customerId == null ? null
+                : cb.equal(root.get("customer").get("id"), customerId);
+    }
+
+    public static Specification<Order> cashierId(Long cashierId) {
+        return (root, query, cb) -> cashierId == null ? null
+                : cb.equal(root.get("cashier").get("id"), cashierId);
+    }
+
+    public static Specification<Order> paymentType(PaymentType paymentType) {
+        return (root, query, cb) -> paymentType == null ? null
+                : cb.equal(root.get("paymentType"), paymentType);
+    }
+
+    public static Specification<Order> status(OrderStatus status) {
+        return (root, query, cb) -> status == null ? null
+                : cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Rows strictly older than the cursor in (createdAt DESC, id DESC) order.
+     */
+    public static Specification<Order> before(KeysetCursor cursor) {
+        return (root, query, cb) -> cursor == null ? null
+                : cb.or(
+                        cb.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                        cb.and(
+                                cb.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                                cb.lessThan(root.get("id"), cursor.getId())));
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -35,7 +36,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("""
         SELECT new com.zosh.payload.StoreAnalysis.CategorySalesDTO(
             p.category.name,
-            SUM(oi.quantity * p.sellingPrice)
+            SUM(oi.lineTotal.minorUnits) / 100.0
         )
         FROM OrderItem oi
         JOIN oi.product p
@@ -52,7 +53,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                 p.sku,
                 p.description,
                 p.mrp,
-                p.sellingPrice,
+                p.sellingPrice.minorUnits / 100.0,
                 p.brand,
                 p.category.id,
                 p.category.name,
@@ -65,7 +66,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
         JOIN Inventory i ON i.product.id = p.id
         WHERE p.store.storeAdmin.id = :storeAdminId 
         AND i.quantity <= :threshold
-        GROUP BY p.id, p.name, p.sku, p.description, p.mrp, p.sellingPrice, 
+        GROUP BY p.id, p.name, p.sku, p.description, p.mrp, p.sellingPrice.minorUnits, 
                  p.brand, p.category.id, p.category.name, p.store.id, 
                  p.image, p.createdAt, p.updatedAt
     """)
@@ -73,6 +74,38 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
         @Param("storeAdminId") Long storeAdminId,
         @Param("threshold") Integer threshold
     );
+
+    // Same, limited to the given products, to re-check only what an order or stock change touched
+    @Query("""
+        SELECT new com.zosh.payload.dto.ProductDTO(
+                p.id,
+                p.name,
+                p.sku,
+                p.description,
+                p.mrp,
+                p.sellingPrice.minorUnits / 100.0,
+                p.brand,
+                p.category.id,
+                p.category.name,
+                p.store.id,
+                p.image,
+                p.createdAt,
+                p.updatedAt
+            )
+        FROM Product p
+        JOIN Inventory i ON i.product.id = p.id
+        WHERE p.store.storeAdmin.id = :storeAdminId
+        AND p.id IN :productIds
+        AND i.quantity <= :threshold
+        GROUP BY p.id, p.name, p.sku, p.description, p.mrp, p.sellingPrice.minorUnits,
+                 p.brand, p.category.id, p.category.name, p.store.id,
+                 p.image, p.createdAt, p.updatedAt
+    """)
+    List<ProductDTO> findLowStockProductsIn(
+        @Param("storeAdminId") Long storeAdminId,
+        @Param("threshold") Integer threshold,
+        @Param("productIds") Collection<Long> productIds
+    );
     
     // ✅ NEW: Find products with no inventory at all
     @Query("""
@@ -82,7 +115,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                 p.sku,
                 p.description,
                 p.mrp,
-                p.sellingPrice,
+                p.sellingPrice.minorUnits / 100.0,
                 p.brand,
                 p.category.id,
                 p.category.name,
@@ -2,28 +2,76 @@ package com.zosh.repository;
 
 import com.zosh.modal.Order;
 import com.zosh.modal.Refund;
+import com.zosh.modal.ShiftReport;
 import com.zosh.modal.User;
 import com.zosh.payload.dto.RefundDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
-public interface RefundRepository extends JpaRepository<Refund, Long> {
+public interface RefundRepository extends JpaRepository<Refund, Long>, RefundRepositoryCustom {
 
     List<Refund> findByCashierAndCreatedAtBetween(User cashier,
                                                  LocalDateTime start,
                                                  LocalDateTime end);
 
-    List<Refund> findByCashierId(Long cashierId);
-
     List<Refund> findByShiftReportId(Long shiftReportId);
 
-    List<Refund> findByCashierIdAndCreatedAtBetween(Long cashierId, LocalDateTime from, LocalDateTime to);
+    List<Refund> findByBranchIdAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(Long branchId,
+                                                                               LocalDateTime start,
+                                                                               LocalDateTime end);
+
+    // Refund ids and amounts of one branch day, [start, end)
+    @Query("""
+            SELECT r.id, r.amount.minorUnits
+            FROM Refund r
+            WHERE r.branch.id = :branchId
+            AND r.createdAt >= :start AND r.createdAt < :end
+    """)
+    List<Object[]> findRefundAmountsByBranchBetween(@Param("branchId") Long branchId,
+                                                    @Param("start") LocalDateTime start,
+                                                    @Param("end") LocalDateTime end);
+
+    // Refund ids and amounts a cashier issued since a shift started
+    @Query("""
+            SELECT r.id, r.amount.minorUnits
+            FROM Refund r
+            WHERE r.cashier.id = :cashierId
+            AND r.createdAt >= :start
+    """)
+    List<Object[]> findRefundAmountsByCashierSince(@Param("cashierId") Long cashierId,
+                                                   @Param("start") LocalDateTime start);
+
+    @Query("""
+            SELECT COALESCE(SUM(r.amount.minorUnits), 0)
+            FROM Refund r
+            WHERE r.cashier.id = :cashierId
+            AND r.createdAt BETWEEN :start AND :end
+    """)
+    long sumRefundsByCashierBetween(@Param("cashierId") Long cashierId,
+                                    @Param("start") LocalDateTime start,
+                                    @Param("end") LocalDateTime end);
+
+    // Attaches a closing shift's refunds to its report in one statement
+    @Modifying
+    @Query("""
+            UPDATE Refund r SET r.shiftReport = :shiftReport
+            WHERE r.cashier.id = :cashierId
+            AND r.createdAt BETWEEN :start AND :end
+    """)
+    int linkToShiftReport(@Param("shiftReport") ShiftReport shiftReport,
+                          @Param("cashierId") Long cashierId,
+                          @Param("start") LocalDateTime start,
+                          @Param("end") LocalDateTime end);
 
-    List<Refund> findByBranchId(Long branchId);
+    // Detaches refunds from a report that is about to be deleted
+    @Modifying
+    @Query("UPDATE Refund r SET r.shiftReport = null WHERE r.shiftReport.id = :shiftReportId")
+    int unlinkFromShiftReport(@Param("shiftReportId") Long shiftReportId);
 
 //    store analysis
     @Query("SELECT COUNT(r) FROM Refund r WHERE r.order.branch.store.storeAdmin.id = :storeAdminId")
@@ -34,20 +82,19 @@ public interface RefundRepository extends JpaRepository<Refund, Long> {
                   r.id,
                   r.order.id,
                   r.reason,
-                  r.amount,
-                  r.cashier.fullName,
+                  r.amount.minorUnits / 100.0,
+                  c.fullName,
                   r.shiftReport.id,
                   r.branch.id,
                   r.createdAt
               )
             FROM Refund r
+            LEFT JOIN r.cashier c
             WHERE r.branch.store.storeAdmin.id = :storeAdminId
-            GROUP BY FUNCTION('DATE', r.createdAt),\s
-                         r.id, r.order.id, r.reason, r.amount,\s
-                         r.cashier.fullName, r.shiftReport.id,\s
-                         r.branch.id, r.createdAt
-            HAVING SUM(r.amount) > 5000
+            AND r.createdAt >= :since
+            ORDER BY r.createdAt
     """)
-    List<RefundDTO> findRefundSpikes(@Param("storeAdminId") Long storeAdminId);
+    List<RefundDTO> findRecentByStoreAdmin(@Param("storeAdminId") Long storeAdminId,
+                                           @Param("since") LocalDateTime since);
 
 }
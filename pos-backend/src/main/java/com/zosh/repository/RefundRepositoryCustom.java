@@ -0,0 +1,27 @@
+package com.zosh.repository;
+
+import com.zosh.modal.Refund;
+import com.zosh.payload.dto.RefundDTO;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Refund reads that select only the listed columns for a dynamic set of filters.
+ */
+public interface RefundRepositoryCustom {
+
+    /**
+     * Refund listing as slim rows, newest first, in (createdAt DESC, id DESC) keyset
+     * order. A positive maxRows caps the rows in SQL; 0 returns every match.
+     */
+    List<RefundDTO> findSummaries(Specification<Refund> spec, int maxRows);
+
+    /**
+     * Refunds for the CSV export, oldest first, read through a server-side cursor, as
+     * (id, orderId, branchId, shiftReportId, cashierName, paymentType, amountMinor,
+     * reason, createdAt) rows. Must be consumed inside a transaction and closed by the caller.
+     */
+    Stream<Object[]> streamForExport(Specification<Refund> spec);
+}
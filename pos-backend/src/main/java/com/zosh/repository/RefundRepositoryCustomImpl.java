@@ -0,0 +1,81 @@
+package com.zosh.repository;
+
+import com.zosh.modal.Money;
+import com.zosh.modal.Refund;
+import com.zosh.modal.User;
+import com.zosh.payload.dto.RefundDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+class RefundRepositoryCustomImpl implements RefundRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<RefundDTO> findSummaries(Specification<Refund> spec, int maxRows) {
+        TypedQuery<Object[]> query = entityManager.createQuery(rows(spec, false));
+        if (maxRows > 0) {
+            query.setMaxResults(maxRows);
+        }
+        return query.getResultList().stream()
+                .map(row -> new RefundDTO(
+                        (Long) row[0],
+                        (Long) row[1],
+                        (String) row[7],
+                        row[6] != null ? Money.toMajor((Long) row[6]) : null,
+                        (String) row[4],
+                        (Long) row[3],
+                        (Long) row[2],
+                        (LocalDateTime) row[8]))
+                .toList();
+    }
+
+    @Override
+    public Stream<Object[]> streamForExport(Specification<Refund> spec) {
+        return entityManager.createQuery(rows(spec, true))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .getResultStream();
+    }
+
+    // The columns both reads need, filtered by the set filters only, in keyset order
+    private CriteriaQuery<Object[]> rows(Specification<Refund> spec, boolean oldestFirst) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Refund> refund = query.from(Refund.class);
+        Join<Refund, User> cashier = refund.join("cashier", JoinType.LEFT);
+
+        query.multiselect(
+                refund.get("id"),
+                refund.get("order").get("id"),
+                refund.get("branch").get("id"),
+                refund.get("shiftReport").get("id"),
+                cashier.get("fullName"),
+                refund.get("paymentType"),
+                refund.get("amount").get("minorUnits"),
+                refund.get("reason"),
+                refund.get("createdAt"));
+
+        Predicate filters = spec.toPredicate(refund, query, cb);
+        if (filters != null) {
+            query.where(filters);
+        }
+        query.orderBy(oldestFirst
+                ? List.of(cb.asc(refund.get("createdAt")), cb.asc(refund.get("id")))
+                : List.of(cb.desc(refund.get("createdAt")), cb.desc(refund.get("id"))));
+        return query;
+    }
+}
@@ -0,0 +1,53 @@
+package com.zosh.repository;
+
+import com.zosh.modal.Refund;
+import com.zosh.util.KeysetCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for refund listings and exports, each one a no-op when its
+ * value is null, so only the filters a caller set reach the SQL.
+ */
+public class RefundSpecifications {
+
+    public static Specification<Refund> storeId(Long storeId) {
+        return (root, query, cb) -> storeId == null ? null
+                : cb.equal(root.get("branch").get("store").get("id"), storeId);
+    }
+
+    public static Specification<Refund> branchId(Long branchId) {
+        return (root, query, cb) -> branchId == null ? null
+                : cb.equal(root.get("branch").get("id"), branchId);
+    }
+
+    public static Specification<Refund> cashierId(Long cashierId) {
+        return (root, query, cb) -> cashierId == null ? null
+                : cb.equal(root.get("cashier").get("id"), cashierId);
+    }
+
+    // Inclusive lower bound
+    public static Specification<Refund> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> from == null ? null
+                : cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    // Exclusive upper bound
+    public static Specification<Refund> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> to == null ? null
+                : cb.lessThan(root.get("createdAt"), to);
+    }
+
+    /**
+     * Rows strictly older than the cursor in (createdAt DESC, id DESC) order.
+     */
+    public static Specification<Refund> before(KeysetCursor cursor) {
+        return (root, query, cb) -> cursor == null ? null
+                : cb.or(
+                        cb.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                        cb.and(
+                                cb.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                                cb.lessThan(root.get("id"), cursor.getId())));
+    }
+}
@@ -5,9 +5,14 @@ package com.zosh.repository;
 import com.zosh.modal.ShiftReport;
 import com.zosh.modal.User;
 import com.zosh.modal.Branch;
+import com.zosh.payload.dto.ShiftSummaryDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +28,52 @@ public interface ShiftReportRepository extends JpaRepository<ShiftReport, Long>
      */
     List<ShiftReport> findByBranch(Branch branch);
 
+    /**
+     * Shift history as slim rows, newest first, in (shiftStart DESC, id DESC) keyset order.
+     * Every filter is optional; the page caps the rows in SQL.
+     */
+    @Query("""
+        SELECT new com.zosh.payload.dto.ShiftSummaryDTO(
+                s.id,
+                s.shiftStart,
+                s.shiftEnd,
+                c.id,
+                c.fullName,
+                s.branch.id,
+                s.totalSales.minorUnits / 100.0,
+                s.totalRefunds.minorUnits / 100.0,
+                s.netSales.minorUnits / 100.0,
+                s.totalOrders
+        )
+        FROM ShiftReport s
+        LEFT JOIN s.cashier c
+        WHERE (:branchId IS NULL OR s.branch.id = :branchId)
+        AND (:from IS NULL OR s.shiftStart >= :from)
+        AND (:to IS NULL OR s.shiftStart < :to)
+        AND (:cursorStart IS NULL
+             OR s.shiftStart < :cursorStart
+             OR (s.shiftStart = :cursorStart AND s.id < :cursorId))
+        ORDER BY s.shiftStart DESC, s.id DESC
+    """)
+    List<ShiftSummaryDTO> findSummaries(@Param("branchId") Long branchId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+
+    /**
+     * Stored payment summaries of a page of shifts, as
+     * (shift id, type, amount minor, transaction count, percentage) rows.
+     */
+    @Query("""
+        SELECT s.id, p.type, p.totalAmount.minorUnits, p.transactionCount, p.percentage
+        FROM ShiftReport s
+        JOIN s.paymentSummaries p
+        WHERE s.id IN :ids
+    """)
+    List<Object[]> findPaymentSummaries(@Param("ids") Collection<Long> ids);
+
     /**
      * Get latest open shift for a cashier (where shiftEnd is null).
      */
@@ -0,0 +1,14 @@
+package com.zosh.repository;
+
+import com.zosh.modal.StoreKpiSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface StoreKpiSnapshotRepository extends JpaRepository<StoreKpiSnapshot, Long> {
+
+    // Stores whose dashboard has been opened at least once
+    @Query("SELECT s.storeAdminId FROM StoreKpiSnapshot s")
+    List<Long> findAllStoreAdminIds();
+}
@@ -1,5 +1,6 @@
 package com.zosh.service;
 
+import com.zosh.domain.SalesWindow;
 import com.zosh.modal.PaymentSummary;
 import com.zosh.payload.dto.*;
 
@@ -8,7 +9,7 @@ import java.util.List;
 
 public interface BranchAnalyticsService {
     List<DailySalesDTO> getDailySalesChart(Long branchId, int days);
-    List<ProductPerformanceDTO> getTopProductsByQuantityWithPercentage(Long branchId);
+    List<ProductPerformanceDTO> getTopProductsByQuantityWithPercentage(Long branchId, SalesWindow window);
     List<CashierPerformanceDTO> getTopCashierPerformanceByOrders(Long branchId);
     List<CategorySalesDTO> getCategoryWiseSalesBreakdown(Long branchId,
                                                          LocalDate date);
@@ -0,0 +1,38 @@
+package com.zosh.service;
+
+import com.zosh.exception.UserException;
+import com.zosh.payload.dto.CartDTO;
+import com.zosh.payload.dto.OrderDTO;
+import com.zosh.payload.request.CartCheckoutRequest;
+
+/**
+ * Server-side basket of the logged-in cashier, kept in memory between scans.
+ */
+public interface CartService {
+
+    CartDTO getCart() throws UserException;
+
+    /**
+     * Adds quantity units of the product (one scan); repeated scans bump the line.
+     */
+    CartDTO addItem(Long productId, int quantity) throws UserException;
+
+    /**
+     * Sets the line to exactly quantity units; zero or less removes it.
+     */
+    CartDTO updateQuantity(Long productId, int quantity) throws UserException;
+
+    CartDTO removeItem(Long productId) throws UserException;
+
+    void clearCart() throws UserException;
+
+    /**
+     * Turns the cart into an order using the prices captured at scan time, then empties it.
+     */
+    OrderDTO checkout(CartCheckoutRequest request) throws UserException;
+
+    /**
+     * Drops carts nobody touched within the idle timeout.
+     */
+    void evictIdleCarts();
+}
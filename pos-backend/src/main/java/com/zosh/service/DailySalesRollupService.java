@@ -0,0 +1,46 @@
+package com.zosh.service;
+
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+
+import java.time.LocalDate;
+
+public interface DailySalesRollupService {
+
+    /**
+     * Adds a committed order to its branch day in daily_branch_sales. This and
+     * the other apply methods queue the write and return; it runs off the
+     * caller's thread in its own transaction.
+     */
+    void applyOrder(OrderPlacedEvent event);
+
+    /**
+     * Takes a deleted order back out of the branch day it was placed on.
+     */
+    void applyOrderDeletion(OrderDeletedEvent event);
+
+    /**
+     * Adds a committed refund to the branch day it was issued on, split across
+     * the refunded order's categories in proportion to their line totals.
+     */
+    void applyRefund(RefundIssuedEvent event);
+
+    /**
+     * Takes a deleted refund back out of the branch day it was issued on.
+     */
+    void applyRefundDeletion(RefundDeletedEvent event);
+
+    /**
+     * Recomputes the branch days [from, to] from orders and refunds, one day per
+     * transaction. Today is left to the live updates, so {@code to} is capped at
+     * yesterday. Returns the number of days rebuilt.
+     */
+    int rebuild(Long branchId, LocalDate from, LocalDate to);
+
+    /**
+     * Rebuilds history for every branch whose first trading day has no rollup yet.
+     */
+    void backfillMissingHistory();
+}
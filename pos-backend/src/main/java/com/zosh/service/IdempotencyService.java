@@ -0,0 +1,31 @@
+package com.zosh.service;
+
+public interface IdempotencyService {
+
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * Runs the action once per (scope, current user, key) across all instances and
+     * returns the stored response for every replay inside the TTL. A blank key runs
+     * the action as-is. Reusing a key with a different request body is rejected
+     * with 422. Failed actions are not remembered, so the client can retry them.
+     * The action runs in a transaction that also stores its response, so it must
+     * not commit work of its own in separate transactions. The action may throw up to
+     * two checked exception types; name them as type arguments when they differ.
+     */
+    <T, E1 extends Exception, E2 extends Exception> T execute(String key,
+                                                              String scope,
+                                                              Object request,
+                                                              Class<T> responseType,
+                                                              IdempotentAction<T, E1, E2> action) throws E1, E2;
+
+    /**
+     * Drops expired responses from memory and from the fallback table.
+     */
+    void purgeExpired();
+
+    @FunctionalInterface
+    interface IdempotentAction<T, E1 extends Exception, E2 extends Exception> {
+        T run() throws E1, E2;
+    }
+}
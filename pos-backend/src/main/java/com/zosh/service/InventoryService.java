@@ -6,8 +6,13 @@ import com.zosh.payload.dto.InventoryDTO;
 
 import java.nio.file.AccessDeniedException;
 import java.util.List;
+import java.util.Map;
 
 public interface InventoryService {
+
+    // An item at or below this quantity counts as low stock
+    int LOW_STOCK_THRESHOLD = 5;
+
     InventoryDTO createInventory(InventoryDTO dto) throws AccessDeniedException, UserException;
     InventoryDTO updateInventory(Long id, InventoryDTO dto) throws AccessDeniedException, UserException;
     void deleteInventory(Long id) throws AccessDeniedException, UserException;
@@ -21,5 +26,24 @@ public interface InventoryService {
     
     List<InventoryDTO> getInventoryByBranch(Long branchId);
 
+    /**
+     * Atomically takes the given quantities (productId -> quantity) out of a branch's stock.
+     * Throws if any product is short or has no inventory row at the branch; call it
+     * inside the order transaction so earlier decrements roll back with it.
+     */
+    void decrementStock(Long branchId, Map<Long, Integer> quantities) throws UserException;
+
+    /**
+     * Records stock that has already left the shelf (e.g. offline sales being synced).
+     * Never fails for shortage; quantities bottom out at zero.
+     */
+    void decrementStockClamped(Long branchId, Map<Long, Integer> quantities);
+
+    /**
+     * Stores each branch's current low-stock count as the snapshot for its
+     * current day, overwriting an earlier snapshot of the same day.
+     */
+    void recordLowStockSnapshots();
+
 }
 
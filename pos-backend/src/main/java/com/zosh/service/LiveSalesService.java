@@ -0,0 +1,46 @@
+package com.zosh.service;
+
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+import com.zosh.exception.AccessDeniedException;
+import com.zosh.exception.UserException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface LiveSalesService {
+
+    // Orders kept per branch for the ticker, as many as the recent orders endpoint returns
+    int RECENT_ORDERS = 5;
+
+    /**
+     * Opens an SSE stream of the branch's running totals for its current day.
+     * Only platform admins, the branch's own staff and its store's admins may watch it.
+     */
+    SseEmitter subscribeBranch(Long branchId) throws UserException, AccessDeniedException;
+
+    /**
+     * Opens an SSE stream of the store's running totals across all its branches.
+     * Only platform admins and the store's own admins and managers may watch it.
+     */
+    SseEmitter subscribeStore(Long storeId) throws UserException, AccessDeniedException;
+
+    void onOrderPlaced(OrderPlacedEvent event);
+
+    void onOrderDeleted(OrderDeletedEvent event);
+
+    void onRefundIssued(RefundIssuedEvent event);
+
+    void onRefundDeleted(RefundDeletedEvent event);
+
+    /**
+     * Sends the latest totals to every stream whose totals changed since its last send.
+     */
+    void pushChanges();
+
+    /**
+     * Reloads watched branches from the database, picking up other instances'
+     * sales and new branches, and forgets branches nobody watches.
+     */
+    void reconcile();
+}
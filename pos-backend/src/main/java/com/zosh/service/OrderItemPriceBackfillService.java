@@ -0,0 +1,10 @@
+package com.zosh.service;
+
+public interface OrderItemPriceBackfillService {
+
+    /**
+     * Fills unitPrice and lineTotal for order items written before those columns
+     * existed, in chunks of one short transaction each. Returns the rows updated.
+     */
+    int backfill();
+}
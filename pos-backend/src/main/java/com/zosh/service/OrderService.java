@@ -4,19 +4,39 @@ package com.zosh.service;
 import com.zosh.domain.OrderStatus;
 import com.zosh.domain.PaymentType;
 import com.zosh.exception.UserException;
+import com.zosh.modal.Product;
+import com.zosh.payload.dto.BatchOrderResponseDTO;
 import com.zosh.payload.dto.OrderDTO;
+import com.zosh.payload.response.CursorPage;
 
 import java.util.List;
+import java.util.Map;
 
 public interface OrderService {
     OrderDTO createOrder(OrderDTO dto) throws UserException;
+
+    /**
+     * Checkout path for server-side carts: the products (keyed by id) were already
+     * loaded and priced at scan time, so they are used as-is instead of fetched again.
+     */
+    OrderDTO createOrder(OrderDTO dto, Map<Long, Product> products) throws UserException;
+
+    /**
+     * Bulk insert of orders queued by a till while it was offline. Orders keep their
+     * client createdAt; each one is validated on its own and reported back by index.
+     * Every order carries the till's clientOrderId, and ids already stored are reported
+     * as duplicates instead of being created again, so a re-sent batch is safe.
+     */
+    BatchOrderResponseDTO createOrdersBatch(List<OrderDTO> orders) throws UserException;
     OrderDTO getOrderById(Long id);
 
-    List<OrderDTO> getOrdersByBranch(Long branchId,
-                                     Long customerId,
-                                     Long cashierId,
-                                     PaymentType paymentType,
-                                     OrderStatus status);
+    CursorPage<OrderDTO> getOrdersByBranch(Long branchId,
+                                           Long customerId,
+                                           Long cashierId,
+                                           PaymentType paymentType,
+                                           OrderStatus status,
+                                           String cursor,
+                                           int limit);
     List<OrderDTO> getOrdersByCashier(Long cashierId);
     void deleteOrder(Long id);
     List<OrderDTO> getTodayOrdersByBranch(Long branchId);
@@ -4,7 +4,10 @@ import com.zosh.exception.ResourceNotFoundException;
 import com.zosh.exception.UserException;
 import com.zosh.modal.Refund;
 import com.zosh.payload.dto.RefundDTO;
+import com.zosh.payload.response.CursorPage;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,14 +19,16 @@ public interface RefundService {
     Refund createRefund(RefundDTO refundDTO) throws UserException, ResourceNotFoundException;
 
     /**
-     * 📋 Get all refunds (admin use).
+     * 📋 Get one page of refunds, newest first. Branch, cashier and the
+     * [from, to) creation range are optional filters; results are limited to
+     * the caller's store unless the caller is a platform admin.
      */
-    List<Refund> getAllRefunds();
-
-    /**
-     * 👤 Get all refunds processed by a specific cashier.
-     */
-    List<Refund> getRefundsByCashier(Long cashierId);
+    CursorPage<RefundDTO> getRefunds(Long branchId,
+                                     Long cashierId,
+                                     LocalDateTime from,
+                                     LocalDateTime to,
+                                     String cursor,
+                                     int limit) throws UserException;
 
     /**
      * 🧾 Get refunds for a specific shift.
@@ -33,15 +38,20 @@ public interface RefundService {
     /**
      * 📆 Get refunds by cashier in a date range.
      */
-    List<Refund> getRefundsByCashierAndDateRange(Long cashierId,
-                                                 LocalDateTime from,
-                                                 LocalDateTime to
+    List<RefundDTO> getRefundsByCashierAndDateRange(Long cashierId,
+                                                    LocalDateTime from,
+                                                    LocalDateTime to
     );
 
     /**
-     * 🏬 Get all refunds processed in a specific branch.
+     * 🧮 Write matching refunds as CSV, row by row, without loading them all.
+     * Limited to the caller's store like {@link #getRefunds}.
      */
-    List<Refund> getRefundsByBranch(Long branchId);
+    void exportRefundsCsv(Long branchId,
+                          Long cashierId,
+                          LocalDateTime from,
+                          LocalDateTime to,
+                          Writer writer) throws IOException, UserException;
 
     /**
      * 🔍 Get refund by ID.
@@ -1,9 +1,13 @@
 package com.zosh.service;
 
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
 import com.zosh.exception.UserException;
 import com.zosh.modal.ShiftReport;
-
-import com.zosh.modal.ShiftReport;
+import com.zosh.payload.dto.ShiftSummaryDTO;
+import com.zosh.payload.response.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -31,9 +35,14 @@ import java.util.List;
         ShiftReport getShiftReportById(Long id);
 
         /**
-         * Get all shift reports.
+         * Get one page of shift history as slim summaries, newest first. A null
+         * branch lists every branch; from/to bound the shift start as [from, to).
          */
-        List<ShiftReport> getAllShiftReports();
+        CursorPage<ShiftSummaryDTO> getShiftSummaries(Long branchId,
+                                                      LocalDateTime from,
+                                                      LocalDateTime to,
+                                                      String cursor,
+                                                      int limit);
 
         /**
          * Get shift reports for a specific cashier.
@@ -41,14 +50,30 @@ import java.util.List;
         List<ShiftReport> getShiftReportsByCashier(Long cashierId);
 
         /**
-         * Get current shift progress without ending the shift.
+         * Get current shift progress without ending the shift, read from the
+         * shift's running totals rather than from its orders.
          */
         ShiftReport getCurrentShiftProgress(Long cashierId) throws UserException;
 
         /**
-         * Get shift reports for a specific branch.
+         * Add a committed order to its cashier's open shift totals.
+         */
+        void onOrderPlaced(OrderPlacedEvent event);
+
+        /**
+         * Take a deleted order back out of its cashier's open shift totals.
+         */
+        void onOrderDeleted(OrderDeletedEvent event);
+
+        /**
+         * Add a committed refund to its cashier's open shift totals.
+         */
+        void onRefundIssued(RefundIssuedEvent event);
+
+        /**
+         * Take a deleted refund back out of its cashier's open shift totals.
          */
-        List<ShiftReport> getShiftReportsByBranch(Long branchId);
+        void onRefundDeleted(RefundDeletedEvent event);
 
         /**
          * Get a cashier's shift report for a specific date.
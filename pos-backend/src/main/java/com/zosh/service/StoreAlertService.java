@@ -0,0 +1,46 @@
+package com.zosh.service;
+
+import com.zosh.event.InventoryChangedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+import com.zosh.payload.StoreAnalysis.StoreAlertDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface StoreAlertService {
+
+    // A branch whose refunds for its current day exceed this is flagged
+    long REFUND_SPIKE_MINOR = 500_000;
+
+    // Cashiers who have not logged in for this many days are flagged
+    int INACTIVE_CASHIER_DAYS = 7;
+
+    /**
+     * Returns the store's current alert state, loading it on first use.
+     */
+    StoreAlertDTO getAlerts(Long storeAdminId);
+
+    /**
+     * Opens an SSE stream that receives the alert state now and whenever it changes.
+     */
+    SseEmitter subscribe(Long storeAdminId);
+
+    void onOrderPlaced(OrderPlacedEvent event);
+
+    void onRefundIssued(RefundIssuedEvent event);
+
+    void onRefundDeleted(RefundDeletedEvent event);
+
+    void onInventoryChanged(InventoryChangedEvent event);
+
+    /**
+     * Pushes alerts that changed without an event, e.g. when a branch's day rolls over.
+     */
+    void publishChanges();
+
+    /**
+     * Reloads every tracked store from the database, picking up new branches,
+     * cashier logins and other instances' sales, and forgets stores nobody watches.
+     */
+    void reconcile();
+}
@@ -21,6 +21,9 @@ import java.util.List;
         // 🗓️ Daily sales trend for the store (line chart)
         List<TimeSeriesPointDTO> getDailySalesGraph(Long storeAdminId);
 
+        // 🔄 Drops the cached daily graph once a new order for the store commits
+        void invalidateDailySales(Long storeAdminId);
+
         // 📚 Sales grouped by product category (bar/pie chart)
         List<CategorySalesDTO> getSalesByCategory(Long storeAdminId);
 
@@ -0,0 +1,47 @@
+package com.zosh.service;
+
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+import com.zosh.payload.StoreAnalysis.StoreKpiSnapshotDTO;
+
+public interface StoreKpiSnapshotService {
+
+    /**
+     * Returns the store's materialized dashboard, building it on first use.
+     */
+    StoreKpiSnapshotDTO getSnapshot(Long storeAdminId);
+
+    /**
+     * Queues a committed order's sales for its store's snapshot.
+     */
+    void applyOrder(OrderPlacedEvent event);
+
+    /**
+     * Queues a deleted order's sales to be taken back out of its store's snapshot.
+     */
+    void applyOrderDeletion(OrderDeletedEvent event);
+
+    /**
+     * Queues a committed refund for its store's snapshot.
+     */
+    void applyRefund(RefundIssuedEvent event);
+
+    /**
+     * Queues a deleted refund to be taken back out of its store's snapshot.
+     */
+    void applyRefundDeletion(RefundDeletedEvent event);
+
+    /**
+     * Adds the queued deltas to the snapshots that already exist. Stores without
+     * a snapshot are skipped; theirs is built in full on first read.
+     */
+    void applyPending();
+
+    /**
+     * Recomputes every existing snapshot, picking up changes that publish no
+     * event (new employees, products, branches) and other instances' orders.
+     */
+    void refreshAll();
+}
@@ -0,0 +1,29 @@
+package com.zosh.service;
+
+import com.zosh.domain.SalesWindow;
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.payload.dto.ProductPerformanceDTO;
+
+import java.util.List;
+
+public interface TopProductsService {
+
+    /**
+     * Best sellers of the branch by quantity in the window, with each one's share
+     * of all quantity sold in it. Answered from memory; counts are re-verified
+     * against the database only once a sketch has started evicting products.
+     */
+    List<ProductPerformanceDTO> getTopProducts(Long branchId, SalesWindow window, int limit);
+
+    void onOrderPlaced(OrderPlacedEvent event);
+
+    void onOrderDeleted(OrderDeletedEvent event);
+
+    /**
+     * Reloads the windowed counts of watched branches, picking up other
+     * instances' sales. Branches nobody has read for an hour keep only their
+     * all-time counts.
+     */
+    void reconcile();
+}
@@ -1,22 +1,35 @@
 package com.zosh.service.impl;
 
 import com.zosh.domain.PaymentType;
+import com.zosh.domain.SalesWindow;
+import com.zosh.modal.Branch;
+import com.zosh.modal.LowStockSnapshot;
+import com.zosh.modal.Money;
 import com.zosh.modal.PaymentSummary;
 import com.zosh.payload.dto.*;
 import com.zosh.repository.BranchRepository;
+import com.zosh.repository.DailyBranchSalesRepository;
 import com.zosh.repository.InventoryRepository;
+import com.zosh.repository.LowStockSnapshotRepository;
 import com.zosh.repository.OrderItemRepository;
 import com.zosh.repository.OrderRepository;
 import com.zosh.service.BranchAnalyticsService;
+import com.zosh.service.InventoryService;
+import com.zosh.service.TopProductsService;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 
@@ -24,56 +37,84 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BranchAnalyticsServiceImpl implements BranchAnalyticsService{
 
+    // Charts longer than this read closed days from daily_branch_sales
+    private static final int ROLLUP_MIN_DAYS = 31;
+
+    private static final int TOP_PRODUCTS = 5;
+
     private final OrderRepository orderRepository;
+    private final BranchRepository branchRepository;
+    private final DailyBranchSalesRepository dailyBranchSalesRepository;
     private final OrderItemRepository orderItemRepository;
     private final InventoryRepository inventoryRepository;
+    private final LowStockSnapshotRepository lowStockSnapshotRepository;
+    private final TopProductsService topProductsService;
+
+    // Dashboards poll every few seconds; each branch's overview is reused for this long
+    @Value("${app.analytics.overview-ttl-seconds:10}")
+    private long overviewTtlSeconds;
+
+    private final Map<Long, CachedOverview> overviewCache = new ConcurrentHashMap<>();
 
     @Override
     public List<DailySalesDTO> getDailySalesChart(Long branchId, int days) {
-        LocalDate today = LocalDate.now();
+        Branch branch = branchRepository.findById(branchId)
+                .orElseThrow(() -> new EntityNotFoundException("Branch not found"));
+
+        // Days are the branch's calendar days; createdAt is stored in server-local time
+        LocalDate today = LocalDate.now(branch.zoneId());
         LocalDate startDate = today.minusDays(days - 1); // includes today
+        LocalDateTime end = branch.startOfBusinessDay(today.plusDays(1));
+
+        Map<LocalDate, Long> salesByDay = new HashMap<>();
+        if (days > ROLLUP_MIN_DAYS) {
+            // Closed days come from the daily rollup; only today is aggregated from orders
+            for (Object[] row : dailyBranchSalesRepository.sumSalesByDay(branchId, startDate, today.minusDays(1))) {
+                salesByDay.put((LocalDate) row[0], ((Number) row[1]).longValue());
+            }
+            sumOrdersByDay(branch, branch.startOfBusinessDay(today), end, salesByDay);
+        } else {
+            sumOrdersByDay(branch, branch.startOfBusinessDay(startDate), end, salesByDay);
+        }
 
+        // Gap-fill so days without orders still show as zero
         List<DailySalesDTO> salesChart = new ArrayList<>();
-
         for (int i = 0; i < days; i++) {
             LocalDate currentDate = startDate.plusDays(i);
-            LocalDateTime start = currentDate.atStartOfDay();
-            LocalDateTime end = currentDate.atTime(LocalTime.MAX);
-
-            BigDecimal total = orderRepository
-                    .getTotalSalesBetween(branchId, start, end)
-                    .orElse(BigDecimal.ZERO);
-
             salesChart.add(DailySalesDTO.builder()
                     .date(currentDate)
-                    .totalSales(total)
+                    .totalSales(BigDecimal.valueOf(salesByDay.getOrDefault(currentDate, 0L), 2))
                     .build());
         }
 
         return salesChart;
     }
 
-    @Override
-    public List<ProductPerformanceDTO> getTopProductsByQuantityWithPercentage(Long branchId) {
-        List<Object[]> rawData = orderItemRepository.getTopProductsByQuantity(branchId);
+    private void sumOrdersByDay(Branch branch,
+                                LocalDateTime start,
+                                LocalDateTime end,
+                                Map<LocalDate, Long> salesByDay) {
+        ZoneId serverZone = ZoneId.systemDefault();
+        if (branch.zoneId().getRules().equals(serverZone.getRules())) {
+            for (Object[] row : orderRepository.sumSalesByDay(branch.getId(), start, end)) {
+                salesByDay.merge(toLocalDate(row[0]), ((Number) row[1]).longValue(), Long::sum);
+            }
+        } else {
+            for (Object[] row : orderRepository.sumSalesByQuarterHour(branch.getId(), start, end)) {
+                LocalDate branchDay = branch.businessDate(toLocalDate(row[0])
+                        .atTime(((Number) row[1]).intValue(), ((Number) row[2]).intValue() * 15));
+                salesByDay.merge(branchDay, ((Number) row[3]).longValue(), Long::sum);
+            }
+        }
+    }
 
-        long totalQuantity = rawData.stream()
-                .mapToLong(obj -> (Long) obj[2])
-                .sum();
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) value;
+    }
 
-        return rawData.stream()
-                .limit(5)
-                .map(obj -> {
-                    String name = (String) obj[1];
-                    Long quantity = (Long) obj[2];
-                    double percentage = totalQuantity == 0 ? 0 :
-                            ((double) quantity / totalQuantity) * 100;
-                    return ProductPerformanceDTO.builder()
-                            .productName(name)
-                            .quantitySold(quantity)
-                            .percentage(Math.round(percentage * 10.0) / 10.0) // rounded to 1 decimal
-                            .build();
-                }).collect(Collectors.toList());
+    @Override
+    public List<ProductPerformanceDTO> getTopProductsByQuantityWithPercentage(Long branchId, SalesWindow window) {
+        return topProductsService.getTopProducts(branchId, window, TOP_PRODUCTS);
     }
 
     @Override
@@ -86,21 +127,22 @@ public class BranchAnalyticsServiceImpl implements BranchAnalyticsService{
                 .map(obj -> CashierPerformanceDTO.builder()
                         .cashierId((Long) obj[0])
                         .cashierName((String) obj[1])
-                        .totalRevenue((Double) obj[2])
+                        .totalRevenue(Money.toMajor((Long) obj[2]))
                         .build()
                 ).collect(Collectors.toList());
     }
 
     @Override
     public List<CategorySalesDTO> getCategoryWiseSalesBreakdown(Long branchId, LocalDate date) {
-        LocalDateTime start = date.atStartOfDay();
-        LocalDateTime end = date.atTime(LocalTime.MAX);
+        Branch branch = branchRepository.findById(branchId)
+                .orElseThrow(() -> new EntityNotFoundException("Branch not found"));
 
-        List<Object[]> rawData = orderItemRepository.getCategoryWiseSales(branchId, start, end);
+        List<Object[]> rawData = orderItemRepository.getCategoryWiseSales(
+                branchId, branch.startOfBusinessDay(date), branch.startOfBusinessDay(date.plusDays(1)));
 
         return rawData.stream().map(obj -> CategorySalesDTO.builder()
                 .categoryName((String) obj[0])
-                .totalSales((Double) obj[1])
+                .totalSales(Money.toMajor((Long) obj[1]))
                 .quantitySold((Long) obj[2])
                 .build()
         ).collect(Collectors.toList());
@@ -108,21 +150,25 @@ public class BranchAnalyticsServiceImpl implements BranchAnalyticsService{
 
     @Override
     public List<PaymentSummary> getPaymentMethodBreakdown(Long branchId, LocalDate date) {
-        List<Object[]> rawData = orderRepository.getPaymentBreakdownByMethod(branchId, date);
+        Branch branch = branchRepository.findById(branchId)
+                .orElseThrow(() -> new EntityNotFoundException("Branch not found"));
 
-        double total = rawData.stream()
-                .mapToDouble(obj -> (Double) obj[1])
+        List<Object[]> rawData = orderRepository.getPaymentBreakdownByMethod(
+                branchId, branch.startOfBusinessDay(date), branch.startOfBusinessDay(date.plusDays(1)));
+
+        long total = rawData.stream()
+                .mapToLong(obj -> (Long) obj[1])
                 .sum();
 
         return rawData.stream().map(obj -> {
             PaymentType type = (PaymentType) obj[0];
-            double amount = (Double) obj[1];
+            long amount = (Long) obj[1];
             int count = ((Long) obj[2]).intValue();
 
-            double percentage = total == 0 ? 0 : (amount / total) * 100;
+            double percentage = total == 0 ? 0 : (amount * 100.0) / total;
 
             return new PaymentSummary(type,
-                    amount,
+                    Money.ofMinor(amount),
                     count, Math.round(percentage * 10.0) / 10.0);
         }).collect(Collectors.toList());
     }
@@ -130,37 +176,53 @@ public class BranchAnalyticsServiceImpl implements BranchAnalyticsService{
 
     @Override
     public BranchDashboardOverviewDTO getBranchOverview(Long branchId) {
-        LocalDate today = LocalDate.now();
-        LocalDate yesterday = today.minusDays(1);
+        long now = System.currentTimeMillis();
+        CachedOverview cached = overviewCache.get(branchId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.overview;
+        }
 
-        // ---- Total Sales ----
-        BigDecimal todaySales = orderRepository.getTotalSalesBetween(
-                branchId, today.atStartOfDay(), today.atTime(LocalTime.MAX)
-        ).orElse(BigDecimal.ZERO);
+        BranchDashboardOverviewDTO overview = loadBranchOverview(branchId);
+        overviewCache.put(branchId, new CachedOverview(overview, now + overviewTtlSeconds * 1000));
+        return overview;
+    }
+
+    private BranchDashboardOverviewDTO loadBranchOverview(Long branchId) {
+        Branch branch = branchRepository.findById(branchId)
+                .orElseThrow(() -> new EntityNotFoundException("Branch not found"));
+
+        LocalDate today = LocalDate.now(branch.zoneId());
+        LocalDate yesterday = today.minusDays(1);
 
-        BigDecimal yesterdaySales = orderRepository.getTotalSalesBetween(
-                branchId, yesterday.atStartOfDay(), yesterday.atTime(LocalTime.MAX)
-        ).orElse(BigDecimal.ZERO);
+        // ---- Sales, Orders, Active Cashiers: one query for both days ----
+        Object[] totals = orderRepository.getTodayAndYesterdayTotals(
+                branchId,
+                branch.startOfBusinessDay(yesterday),
+                branch.startOfBusinessDay(today),
+                branch.startOfBusinessDay(today.plusDays(1))
+        ).get(0);
 
+        long todaySales = ((Number) totals[0]).longValue();
+        long yesterdaySales = ((Number) totals[1]).longValue();
         double salesGrowth = calculateGrowth(todaySales, yesterdaySales);
 
-        // ---- Orders ----
-        int todayOrders = orderRepository.countOrdersByBranchAndDate(branchId, today);
-        int yesterdayOrders = orderRepository.countOrdersByBranchAndDate(branchId, yesterday);
+        int todayOrders = ((Number) totals[2]).intValue();
+        int yesterdayOrders = ((Number) totals[3]).intValue();
         double orderGrowth = calculateGrowth(todayOrders, yesterdayOrders);
 
-        // ---- Active Cashiers ----
-        int todayCashiers = orderRepository.countDistinctCashiersByBranchAndDate(branchId, today);
-        int yesterdayCashiers = orderRepository.countDistinctCashiersByBranchAndDate(branchId, yesterday);
+        int todayCashiers = ((Number) totals[4]).intValue();
+        int yesterdayCashiers = ((Number) totals[5]).intValue();
         double cashierGrowth = calculateGrowth(todayCashiers, yesterdayCashiers);
 
         // ---- Low Stock ----
-        int todayLowStock = inventoryRepository.countLowStockItems(branchId, 5);  // ✅ FIXED: Added threshold
-        int yesterdayLowStock = 12; // You may store yesterday's value in DB or Redis if needed.
+        int todayLowStock = inventoryRepository.countLowStockItems(branchId, InventoryService.LOW_STOCK_THRESHOLD);
+        int yesterdayLowStock = lowStockSnapshotRepository.findByBranchIdAndSnapshotDate(branchId, yesterday)
+                .map(LowStockSnapshot::getLowStockCount)
+                .orElse(0); // no snapshot yet: growth reads as 0
         double lowStockGrowth = calculateGrowth(todayLowStock, yesterdayLowStock);
 
         return BranchDashboardOverviewDTO.builder()
-                .totalSales(todaySales)
+                .totalSales(BigDecimal.valueOf(todaySales, 2))
                 .salesGrowth(salesGrowth)
                 .ordersToday(todayOrders)
                 .orderGrowth(orderGrowth)
@@ -176,4 +238,7 @@ public class BranchAnalyticsServiceImpl implements BranchAnalyticsService{
         return ((today.doubleValue() - yesterday.doubleValue()) / yesterday.doubleValue()) * 100;
     }
 
+    private record CachedOverview(BranchDashboardOverviewDTO overview, long expiresAt) {
+    }
+
 }
@@ -92,6 +92,7 @@ public class BranchServiceImpl implements BranchService {
         existing.setEmail(branchDto.getEmail());
         existing.setPhone(branchDto.getPhone());
         existing.setCloseTime(branchDto.getCloseTime());
+        existing.setTimeZone(branchDto.getTimeZone());
         existing.setOpenTime(branchDto.getOpenTime());
         existing.setWorkingDays(branchDto.getWorkingDays());
 
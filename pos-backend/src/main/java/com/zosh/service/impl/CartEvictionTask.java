@@ -0,0 +1,31 @@
+package com.zosh.service.impl;
+
+import com.zosh.service.CartService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task to drop carts abandoned at the till
+ *
+ * Runs every minute so memory stays bounded by the number of active cashiers
+ */
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+public class CartEvictionTask {
+
+    private final CartService cartService;
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleCarts() {
+        try {
+            cartService.evictIdleCarts();
+        } catch (Exception e) {
+            log.error("Error evicting idle carts", e);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.zosh.service.impl;
+
+import com.zosh.exception.UserException;
+import com.zosh.modal.Money;
+import com.zosh.modal.Product;
+import com.zosh.modal.User;
+import com.zosh.payload.dto.CartDTO;
+import com.zosh.payload.dto.CartItemDTO;
+import com.zosh.payload.dto.OrderDTO;
+import com.zosh.payload.dto.OrderItemDTO;
+import com.zosh.payload.request.CartCheckoutRequest;
+import com.zosh.repository.ProductRepository;
+import com.zosh.service.CartService;
+import com.zosh.service.OrderService;
+import com.zosh.service.UserService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one in-memory cart per cashier. The first scan of a product loads it once;
+ * later scans, quantity changes and the running total are pure memory operations,
+ * and checkout reuses the products captured in the cart instead of re-pricing.
+ */
+@Service
+@Slf4j
+public class CartServiceImpl implements CartService {
+
+    private final ProductRepository productRepository;
+    private final OrderService orderService;
+    private final UserService userService;
+    private final Duration idleTimeout;
+    private final int maxCarts;
+
+    private final Map<Long, Cart> carts = new ConcurrentHashMap<>();
+
+    public CartServiceImpl(ProductRepository productRepository,
+                           OrderService orderService,
+                           UserService userService,
+                           @Value("${app.carts.idle-minutes:30}") long idleMinutes,
+                           @Value("${app.carts.max-carts:1000}") int maxCarts) {
+        this.productRepository = productRepository;
+        this.orderService = orderService;
+        this.userService = userService;
+        this.idleTimeout = Duration.ofMinutes(idleMinutes);
+        this.maxCarts = maxCarts;
+    }
+
+    @Override
+    public CartDTO getCart() throws UserException {
+        User cashier = userService.getCurrentUser();
+        Cart cart = carts.get(cashier.getId());
+        return cart != null ? cart.toDto() : Cart.empty(cashier.getId());
+    }
+
+    @Override
+    public CartDTO addItem(Long productId, int quantity) throws UserException {
+        if (quantity <= 0) {
+            throw new UserException("Quantity must be positive");
+        }
+        User cashier = userService.getCurrentUser();
+        Cart cart = cartFor(cashier.getId());
+
+        synchronized (cart) {
+            if (!cart.contains(productId)) {
+                cart.addLine(loadProduct(productId, cashier));
+            }
+            cart.changeQuantity(productId, quantity);
+            return cart.toDto();
+        }
+    }
+
+    @Override
+    public CartDTO updateQuantity(Long productId, int quantity) throws UserException {
+        User cashier = userService.getCurrentUser();
+        Cart cart = cartFor(cashier.getId());
+
+        synchronized (cart) {
+            if (quantity <= 0) {
+                cart.removeLine(productId);
+                return cart.toDto();
+            }
+            if (!cart.contains(productId)) {
+                cart.addLine(loadProduct(productId, cashier));
+            }
+            cart.changeQuantity(productId, quantity - cart.quantityOf(productId));
+            return cart.toDto();
+        }
+    }
+
+    @Override
+    public CartDTO removeItem(Long productId) throws UserException {
+        User cashier = userService.getCurrentUser();
+        Cart cart = carts.get(cashier.getId());
+        if (cart == null) {
+            return Cart.empty(cashier.getId());
+        }
+
+        synchronized (cart) {
+            cart.removeLine(productId);
+            return cart.toDto();
+        }
+    }
+
+    @Override
+    public void clearCart() throws UserException {
+        carts.remove(userService.getCurrentUser().getId());
+    }
+
+    @Override
+    public OrderDTO checkout(CartCheckoutRequest request) throws UserException {
+        User cashier = userService.getCurrentUser();
+        Cart cart = carts.get(cashier.getId());
+        if (cart == null) {
+            throw new UserException("Cart is empty");
+        }
+
+        synchronized (cart) {
+            if (cart.lines.isEmpty()) {
+                throw new UserException("Cart is empty");
+            }
+
+            Map<Long, Product> products = new LinkedHashMap<>();
+            List<OrderItemDTO> items = cart.lines.values().stream()
+                    .map(line -> {
+                        products.put(line.product.getId(), line.product);
+                        return OrderItemDTO.builder()
+                                .productId(line.product.getId())
+                                .quantity(line.quantity)
+                                .build();
+                    })
+                    .toList();
+
+            OrderDTO order = orderService.createOrder(OrderDTO.builder()
+                    .customer(request.getCustomer())
+                    .paymentType(request.getPaymentType())
+                    .items(items)
+                    .build(), products);
+
+            // Only a successful checkout empties the cart; a stock failure leaves it for correction
+            carts.remove(cashier.getId(), cart);
+            return order;
+        }
+    }
+
+    @Override
+    public void evictIdleCarts() {
+        long cutoff = System.currentTimeMillis() - idleTimeout.toMillis();
+        int before = carts.size();
+        carts.values().removeIf(cart -> cart.lastAccess < cutoff);
+        int evicted = before - carts.size();
+        if (evicted > 0) {
+            log.info("Evicted {} idle carts", evicted);
+        }
+    }
+
+    private Cart cartFor(Long cashierId) throws UserException {
+        Cart cart = carts.get(cashierId);
+        if (cart != null) {
+            return cart;
+        }
+        if (carts.size() >= maxCarts) {
+            evictIdleCarts();
+            if (carts.size() >= maxCarts) {
+                throw new UserException("Too many open carts, try again shortly");
+            }
+        }
+        return carts.computeIfAbsent(cashierId, Cart::new);
+    }
+
+    private Product loadProduct(Long productId, User cashier) throws UserException {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
+
+        Long storeId = cashier.getBranch() != null && cashier.getBranch().getStore() != null
+                ? cashier.getBranch().getStore().getId() : null;
+        if (product.getStore() == null || !product.getStore().getId().equals(storeId)) {
+            throw new UserException("Product does not belong to this store: " + productId);
+        }
+        return product;
+    }
+
+    private static final class Cart {
+        private final Long cashierId;
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+        private long totalMinor;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Cart(Long cashierId) {
+            this.cashierId = cashierId;
+        }
+
+        private boolean contains(Long productId) {
+            return lines.containsKey(productId);
+        }
+
+        private int quantityOf(Long productId) {
+            Line line = lines.get(productId);
+            return line != null ? line.quantity : 0;
+        }
+
+        private void addLine(Product product) {
+            lines.put(product.getId(), new Line(product));
+        }
+
+        // Adjusts the running total by the delta only, never re-summing the basket
+        private void changeQuantity(Long productId, int delta) {
+            Line line = lines.get(productId);
+            line.quantity += delta;
+            totalMinor += line.product.getSellingPrice().getMinorUnits() * delta;
+            lastAccess = System.currentTimeMillis();
+        }
+
+        private void removeLine(Long productId) {
+            Line line = lines.remove(productId);
+            if (line != null) {
+                totalMinor -= line.product.getSellingPrice().getMinorUnits() * line.quantity;
+            }
+            lastAccess = System.currentTimeMillis();
+        }
+
+        private CartDTO toDto() {
+            List<CartItemDTO> items = lines.values().stream()
+                    .map(line -> CartItemDTO.builder()
+                            .productId(line.product.getId())
+                            .productName(line.product.getName())
+                            .sku(line.product.getSku())
+                            .unitPrice(line.product.getSellingPrice().toMajor())
+                            .quantity(line.quantity)
+                            .lineTotal(Money.toMajor(line.product.getSellingPrice().getMinorUnits() * line.quantity))
+                            .build())
+                    .toList();
+
+            return CartDTO.builder()
+                    .cashierId(cashierId)
+                    .items(items)
+                    .itemCount(items.stream().mapToInt(CartItemDTO::getQuantity).sum())
+                    .totalAmount(Money.toMajor(totalMinor))
+                    .updatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(lastAccess), ZoneId.systemDefault()))
+                    .build();
+        }
+
+        private static CartDTO empty(Long cashierId) {
+            return new Cart(cashierId).toDto();
+        }
+    }
+
+    private static final class Line {
+        private final Product product;
+        private int quantity;
+
+        private Line(Product product) {
+            this.product = product;
+        }
+    }
+}
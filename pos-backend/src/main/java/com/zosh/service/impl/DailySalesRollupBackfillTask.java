@@ -0,0 +1,32 @@
+package com.zosh.service.impl;
+
+import com.zosh.service.DailySalesRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task to roll up order history the live updates never saw
+ *
+ * Runs shortly after boot and then daily; a branch whose first trading day is
+ * already rolled up costs one MIN and one EXISTS query
+ */
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+public class DailySalesRollupBackfillTask {
+
+    private final DailySalesRollupService rollupService;
+
+    @Scheduled(initialDelay = 120_000, fixedDelay = 86_400_000)
+    public void backfillDailySales() {
+        try {
+            rollupService.backfillMissingHistory();
+        } catch (Exception e) {
+            log.error("Error backfilling daily sales rollup", e);
+        }
+    }
+}
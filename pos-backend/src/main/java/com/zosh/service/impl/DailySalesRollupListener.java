@@ -0,0 +1,70 @@
+package com.zosh.service.impl;
+
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+import com.zosh.service.DailySalesRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Feeds committed orders and refunds, and deletions of either, into the daily
+ * sales rollup.
+ *
+ * A failure here never affects the sale itself; the rollup for that day can be
+ * repaired with the rebuild endpoint. The rollup service only queues the write,
+ * so the request thread returns without taking a second connection
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DailySalesRollupListener {
+
+    private final DailySalesRollupService rollupService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        try {
+            rollupService.applyOrder(event);
+        } catch (Exception e) {
+            log.error("Error rolling up order {} for branch {} on {}",
+                    event.orderId(), event.branchId(), event.businessDate(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        OrderPlacedEvent order = event.order();
+        try {
+            rollupService.applyOrderDeletion(event);
+        } catch (Exception e) {
+            log.error("Error removing deleted order {} from rollup for branch {} on {}",
+                    order.orderId(), order.branchId(), order.businessDate(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRefundIssued(RefundIssuedEvent event) {
+        try {
+            rollupService.applyRefund(event);
+        } catch (Exception e) {
+            log.error("Error rolling up refund {} for branch {} on {}",
+                    event.refundId(), event.branchId(), event.businessDate(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRefundDeleted(RefundDeletedEvent event) {
+        RefundIssuedEvent refund = event.refund();
+        try {
+            rollupService.applyRefundDeletion(event);
+        } catch (Exception e) {
+            log.error("Error removing deleted refund {} from rollup for branch {} on {}",
+                    refund.refundId(), refund.branchId(), refund.businessDate(), e);
+        }
+    }
+}
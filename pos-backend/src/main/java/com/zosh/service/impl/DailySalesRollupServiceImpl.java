@@ -0,0 +1,278 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.PaymentType;
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+import com.zosh.modal.Branch;
+import com.zosh.modal.DailyBranchSales;
+import com.zosh.modal.Order;
+import com.zosh.modal.Refund;
+import com.zosh.repository.BranchRepository;
+import com.zosh.repository.DailyBranchSalesRepository;
+import com.zosh.repository.OrderRepository;
+import com.zosh.repository.RefundRepository;
+import com.zosh.service.DailySalesRollupService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps daily_branch_sales in step with orders and refunds.
+ *
+ * Live updates run after the order/refund commit in their own transaction, as
+ * an UPDATE ... SET x = x + delta, inserting the row on first use. Two requests
+ * racing to insert the same row make one fail on the unique key; it retries and
+ * lands in the UPDATE. Rows are touched in category order to avoid deadlocks.
+ *
+ * The writes run on a small bounded pool rather than on the request thread,
+ * whose connection is still bound after commit; a checkout therefore never
+ * holds a second pooled connection for its rollup. A full queue makes the
+ * caller write it itself, which slows the burst down instead of losing sales.
+ */
+@Service
+@Slf4j
+public class DailySalesRollupServiceImpl implements DailySalesRollupService {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final DailyBranchSalesRepository rollupRepository;
+    private final BranchRepository branchRepository;
+    private final OrderRepository orderRepository;
+    private final RefundRepository refundRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate requiresNew;
+    private final ExecutorService writeExecutor;
+
+    public DailySalesRollupServiceImpl(DailyBranchSalesRepository rollupRepository,
+                                       BranchRepository branchRepository,
+                                       OrderRepository orderRepository,
+                                       RefundRepository refundRepository,
+                                       EntityManager entityManager,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${app.rollup.write-threads:2}") int writeThreads,
+                                       @Value("${app.rollup.write-queue-capacity:10000}") int writeQueueCapacity) {
+        this.rollupRepository = rollupRepository;
+        this.branchRepository = branchRepository;
+        this.orderRepository = orderRepository;
+        this.refundRepository = refundRepository;
+        this.entityManager = entityManager;
+        // After-commit listeners still see the finished transaction; writes need a new one
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writeExecutor = new ThreadPoolExecutor(writeThreads, writeThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(writeQueueCapacity),
+                new CustomizableThreadFactory("sales-rollup-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stopWriteExecutor() {
+        writeExecutor.shutdown();
+    }
+
+    @Override
+    public void applyOrder(OrderPlacedEvent event) {
+        Map<Long, Delta> deltas = new TreeMap<>();
+        addOrder(deltas, event, 1);
+        write(event.branchId(), event.businessDate(), event.paymentType(), deltas);
+    }
+
+    @Override
+    public void applyOrderDeletion(OrderDeletedEvent event) {
+        OrderPlacedEvent order = event.order();
+        Map<Long, Delta> deltas = new TreeMap<>();
+        addOrder(deltas, order, -1);
+        write(order.branchId(), order.businessDate(), order.paymentType(), deltas);
+    }
+
+    @Override
+    public void applyRefund(RefundIssuedEvent event) {
+        Map<Long, Delta> deltas = new TreeMap<>();
+        addRefund(deltas, event, 1);
+        write(event.branchId(), event.businessDate(), event.paymentType(), deltas);
+    }
+
+    @Override
+    public void applyRefundDeletion(RefundDeletedEvent event) {
+        RefundIssuedEvent refund = event.refund();
+        Map<Long, Delta> deltas = new TreeMap<>();
+        addRefund(deltas, refund, -1);
+        write(refund.branchId(), refund.businessDate(), refund.paymentType(), deltas);
+    }
+
+    @Override
+    public int rebuild(Long branchId, LocalDate from, LocalDate to) {
+        Branch branch = branchRepository.findById(branchId)
+                .orElseThrow(() -> new EntityNotFoundException("Branch not found"));
+
+        LocalDate yesterday = LocalDate.now(branch.zoneId()).minusDays(1);
+        LocalDate last = to.isAfter(yesterday) ? yesterday : to;
+
+        int days = 0;
+        for (LocalDate day = from; !day.isAfter(last); day = day.plusDays(1)) {
+            LocalDate current = day;
+            requiresNew.executeWithoutResult(status -> rebuildDay(branch, current));
+            days++;
+        }
+
+        if (days > 0) {
+            log.info("Rebuilt {} days of daily sales for branch {} ({} to {})", days, branchId, from, last);
+        }
+        return days;
+    }
+
+    @Override
+    public void backfillMissingHistory() {
+        for (Branch branch : branchRepository.findAll()) {
+            Optional<LocalDateTime> firstOrder = orderRepository.findFirstOrderTime(branch.getId());
+            if (firstOrder.isEmpty()) {
+                continue;
+            }
+            LocalDate firstDay = branch.businessDate(firstOrder.get());
+            if (!rollupRepository.existsByBranchIdAndSalesDate(branch.getId(), firstDay)) {
+                rebuild(branch.getId(), firstDay, LocalDate.now(branch.zoneId()));
+            }
+        }
+    }
+
+    private void rebuildDay(Branch branch, LocalDate day) {
+        LocalDateTime start = branch.startOfBusinessDay(day);
+        LocalDateTime end = branch.startOfBusinessDay(day.plusDays(1));
+
+        Map<PaymentType, Map<Long, Delta>> byPaymentType = new EnumMap<>(PaymentType.class);
+        for (Order order : orderRepository
+                .findByBranchIdAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(branch.getId(), start, end)) {
+            OrderPlacedEvent event = OrderPlacedEvent.of(order);
+            addOrder(byPaymentType.computeIfAbsent(event.paymentType(), k -> new TreeMap<>()), event, 1);
+        }
+        for (Refund refund : refundRepository
+                .findByBranchIdAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(branch.getId(), start, end)) {
+            RefundIssuedEvent event = RefundIssuedEvent.of(refund);
+            addRefund(byPaymentType.computeIfAbsent(event.paymentType(), k -> new TreeMap<>()), event, 1);
+        }
+
+        rollupRepository.deleteByBranchAndDate(branch.getId(), day);
+
+        List<DailyBranchSales> rows = new ArrayList<>();
+        byPaymentType.forEach((paymentType, deltas) -> deltas.forEach((categoryId, delta) ->
+                rows.add(delta.toRow(entityManager.getReference(Branch.class, branch.getId()),
+                        day, paymentType, categoryId))));
+        rollupRepository.saveAll(rows);
+    }
+
+    private void write(Long branchId, LocalDate date, PaymentType paymentType, Map<Long, Delta> deltas) {
+        writeExecutor.execute(() -> {
+            try {
+                upsertAll(branchId, date, paymentType, deltas);
+            } catch (Exception e) {
+                log.error("Error rolling up sales for branch {} on {}; rebuild the day to repair it",
+                        branchId, date, e);
+            }
+        });
+    }
+
+    private void upsertAll(Long branchId, LocalDate date, PaymentType paymentType, Map<Long, Delta> deltas) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                requiresNew.executeWithoutResult(status -> deltas.forEach((categoryId, delta) ->
+                        upsert(branchId, date, paymentType, categoryId, delta)));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent write inserted the row first; the retry increments it instead
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void upsert(Long branchId, LocalDate date, PaymentType paymentType, Long categoryId, Delta delta) {
+        int updated = rollupRepository.increment(branchId, date, paymentType, categoryId,
+                delta.salesMinor, delta.quantity, delta.orderCount, delta.refundMinor, delta.refundCount);
+        if (updated == 0) {
+            rollupRepository.saveAndFlush(delta.toRow(
+                    entityManager.getReference(Branch.class, branchId), date, paymentType, categoryId));
+        }
+    }
+
+    // A sign of -1 takes a deleted order back out
+    private static void addOrder(Map<Long, Delta> deltas, OrderPlacedEvent event, int sign) {
+        for (OrderPlacedEvent.Line line : event.lines()) {
+            Delta delta = deltas.computeIfAbsent(line.categoryId(), k -> new Delta());
+            delta.salesMinor += sign * line.lineTotalMinor();
+            delta.quantity += sign * line.quantity();
+        }
+        deltas.computeIfAbsent(firstCategory(event.lines()), k -> new Delta()).orderCount += sign;
+    }
+
+    // A sign of -1 takes a deleted refund back out
+    private static void addRefund(Map<Long, Delta> deltas, RefundIssuedEvent event, int sign) {
+        List<OrderPlacedEvent.Line> lines = event.orderLines();
+        long orderTotal = lines.stream().mapToLong(OrderPlacedEvent.Line::lineTotalMinor).sum();
+
+        if (orderTotal == 0) {
+            deltas.computeIfAbsent(OrderPlacedEvent.UNCATEGORIZED, k -> new Delta()).refundMinor += sign * event.amountMinor();
+        } else {
+            // Proportional split; the last line takes the rounding remainder so the parts add up exactly
+            long allocated = 0;
+            for (int i = 0; i < lines.size(); i++) {
+                OrderPlacedEvent.Line line = lines.get(i);
+                long share = i == lines.size() - 1
+                        ? event.amountMinor() - allocated
+                        : event.amountMinor() * line.lineTotalMinor() / orderTotal;
+                allocated += share;
+                deltas.computeIfAbsent(line.categoryId(), k -> new Delta()).refundMinor += sign * share;
+            }
+        }
+        deltas.computeIfAbsent(firstCategory(lines), k -> new Delta()).refundCount += sign;
+    }
+
+    private static Long firstCategory(List<OrderPlacedEvent.Line> lines) {
+        return lines.isEmpty() ? OrderPlacedEvent.UNCATEGORIZED : lines.get(0).categoryId();
+    }
+
+    private static final class Delta {
+        private long salesMinor;
+        private long quantity;
+        private int orderCount;
+        private long refundMinor;
+        private int refundCount;
+
+        private DailyBranchSales toRow(Branch branch, LocalDate date, PaymentType paymentType, Long categoryId) {
+            return DailyBranchSales.builder()
+                    .branch(branch)
+                    .salesDate(date)
+                    .paymentType(paymentType)
+                    .categoryId(categoryId)
+                    .salesMinor(salesMinor)
+                    .quantity(quantity)
+                    .orderCount(orderCount)
+                    .refundMinor(refundMinor)
+                    .refundCount(refundCount)
+                    .build();
+        }
+    }
+}
@@ -477,7 +477,7 @@ public class DataInitializationComponent implements CommandLineRunner {
                 .sku(generateSKU(store.getBrand(), i))
                 .description(pd.description)
                 .mrp(pd.mrp)
-                .sellingPrice(pd.sellingPrice)
+                .sellingPrice(Money.ofMajor(pd.sellingPrice))
                 .brand(pd.brand)
                 .category(category)
                 .store(store)
@@ -665,7 +665,7 @@ public class DataInitializationComponent implements CommandLineRunner {
             // Create 1-8 items per order (weighted towards smaller orders)
             int itemCount = random.nextDouble() < 0.6 ? random.nextInt(3) + 1 : random.nextInt(6) + 3;
             List<OrderItem> orderItems = new ArrayList<>();
-            double totalAmount = 0.0;
+            long totalAmount = 0;
             
             // Select unique products for the order
             Set<Product> selectedProducts = new HashSet<>();
@@ -680,20 +680,21 @@ public class DataInitializationComponent implements CommandLineRunner {
             for (Product product : selectedProducts) {
                 // Most orders have 1-2 items of each product, occasionally more
                 int quantity = random.nextDouble() < 0.8 ? random.nextInt(2) + 1 : random.nextInt(4) + 1;
-                double price = product.getSellingPrice();
-                double itemTotal = price * quantity;
+                long price = product.getSellingPrice().getMinorUnits();
+                long itemTotal = price * quantity;
                 totalAmount += itemTotal;
                 
                 OrderItem orderItem = OrderItem.builder()
                     .product(product)
                     .quantity(quantity)
-                    .price(price)
+                    .unitPrice(Money.ofMinor(price))
+                    .lineTotal(Money.ofMinor(itemTotal))
                     .order(order)
                     .build();
                 orderItems.add(orderItem);
             }
             
-            order.setTotalAmount(totalAmount);
+            order.setTotalAmount(Money.ofMinor(totalAmount));
             order.setItems(orderItems);
             
             Order savedOrder = orderRepository.save(order);
@@ -707,15 +708,15 @@ public class DataInitializationComponent implements CommandLineRunner {
     private void createShiftReport(Branch branch, User cashier, List<Order> orders, 
                                   LocalDateTime shiftStart, LocalDateTime shiftEnd) {
         
-        double totalSales = orders.stream()
-            .mapToDouble(Order::getTotalAmount)
+        long totalSales = orders.stream()
+            .mapToLong(order -> order.getTotalAmount().getMinorUnits())
             .sum();
         
         // Create 0-2 refunds per shift (realistic refund rate ~2-5% of orders)
         int maxRefunds = Math.max(1, orders.size() / 20); // Up to 5% of orders
         int refundCount = random.nextDouble() < 0.7 ? 0 : random.nextInt(maxRefunds + 1);
         List<Refund> refunds = new ArrayList<>();
-        double totalRefunds = 0.0;
+        long totalRefunds = 0;
         
         Set<Order> refundedOrders = new HashSet<>(); // Track to avoid duplicate refunds
         
@@ -731,14 +732,14 @@ public class DataInitializationComponent implements CommandLineRunner {
             refundedOrders.add(order);
             
             // More realistic refund amounts: 80% full refund, 20% partial
-            double refundAmount = random.nextDouble() < 0.8 ? 
-                order.getTotalAmount() : 
-                order.getTotalAmount() * (random.nextDouble() * 0.5 + 0.3); // 30-80% partial
+            long refundAmount = random.nextDouble() < 0.8 ? 
+                order.getTotalAmount().getMinorUnits() : 
+                Math.round(order.getTotalAmount().getMinorUnits() * (random.nextDouble() * 0.5 + 0.3)); // 30-80% partial
             
             Refund refund = new Refund();
             refund.setOrder(order);
             refund.setReason(getRandomRefundReason());
-            refund.setAmount(refundAmount);
+            refund.setAmount(Money.ofMinor(refundAmount));
             refund.setCashier(cashier);
             refund.setBranch(branch);
             refund.setPaymentType(order.getPaymentType());
@@ -765,9 +766,9 @@ public class DataInitializationComponent implements CommandLineRunner {
         ShiftReport shiftReport = new ShiftReport();
         shiftReport.setShiftStart(shiftStart);
         shiftReport.setShiftEnd(shiftEnd);
-        shiftReport.setTotalSales(totalSales);
-        shiftReport.setTotalRefunds(totalRefunds);
-        shiftReport.setNetSales(totalSales - totalRefunds);
+        shiftReport.setTotalSales(Money.ofMinor(totalSales));
+        shiftReport.setTotalRefunds(Money.ofMinor(totalRefunds));
+        shiftReport.setNetSales(Money.ofMinor(totalSales - totalRefunds));
         shiftReport.setTotalOrders(orders.size());
         shiftReport.setCashier(cashier);
         shiftReport.setBranch(branch);
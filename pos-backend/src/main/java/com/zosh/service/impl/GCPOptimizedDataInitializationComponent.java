@@ -32,7 +32,6 @@ public class GCPOptimizedDataInitializationComponent implements CommandLineRunne
     private final InventoryRepository inventoryRepository;
     private final CustomerRepository customerRepository;
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
     private final ShiftReportRepository shiftReportRepository;
     private final RefundRepository refundRepository;
     private final SubscriptionRepository subscriptionRepository;
@@ -419,7 +418,7 @@ public class GCPOptimizedDataInitializationComponent implements CommandLineRunne
                 .sku(generateSKU(store.getBrand(), i))
                 .description(pd.description)
                 .mrp(pd.mrp)
-                .sellingPrice(pd.sellingPrice)
+                .sellingPrice(Money.ofMajor(pd.sellingPrice))
                 .brand(pd.brand)
                 .category(category)
                 .store(store)
@@ -512,6 +511,10 @@ public class GCPOptimizedDataInitializationComponent implements CommandLineRunne
         log.info("Creating GCP-optimized transaction data from {} to {} ({} days)", 
                 startDate, endDate, MAX_DAYS);
         
+        long insertStart = System.nanoTime();
+        int orderCount = 0;
+        int itemCount = 0;
+        
         for (Branch branch : branches) {
             List<User> cashiers = branchCashiers.get(branch);
             
@@ -559,6 +562,9 @@ public class GCPOptimizedDataInitializationComponent implements CommandLineRunne
                     List<Order> shiftOrders = createOptimizedShiftOrders(branch, cashier, products, 
                                                                customers, shiftStart, shiftEnd, totalMultiplier);
                     
+                    orderCount += shiftOrders.size();
+                    itemCount += shiftOrders.stream().mapToInt(o -> o.getItems().size()).sum();
+                    
                     // Create shift report
                     createOptimizedShiftReport(branch, cashier, shiftOrders, shiftStart, shiftEnd);
                 }
@@ -568,6 +574,8 @@ public class GCPOptimizedDataInitializationComponent implements CommandLineRunne
             }
         }
         
+        orderRepository.flush();
+        logInsertRate(orderCount, itemCount, insertStart);
         log.info("Created {} days of GCP-optimized transaction data", MAX_DAYS);
     }
 
@@ -607,7 +615,7 @@ public class GCPOptimizedDataInitializationComponent implements CommandLineRunne
             // Create 1-5 items per order
             int itemCount = random.nextDouble() < 0.7 ? random.nextInt(3) + 1 : random.nextInt(4) + 2;
             List<OrderItem> orderItems = new ArrayList<>();
-            double totalAmount = 0.0;
+            long totalAmount = 0;
             
             // Select unique products for the order
             Set<Product> selectedProducts = new HashSet<>();
@@ -619,41 +627,42 @@ public class GCPOptimizedDataInitializationComponent implements CommandLineRunne
             for (Product product : selectedProducts) {
                 // Most orders have 1-2 items of each product
                 int quantity = random.nextDouble() < 0.8 ? 1 : random.nextInt(2) + 1;
-                double price = product.getSellingPrice();
-                double itemTotal = price * quantity;
+                long price = product.getSellingPrice().getMinorUnits();
+                long itemTotal = price * quantity;
                 totalAmount += itemTotal;
                 
                 OrderItem orderItem = OrderItem.builder()
                     .product(product)
                     .quantity(quantity)
-                    .price(price)
+                    .unitPrice(Money.ofMinor(price))
+                    .lineTotal(Money.ofMinor(itemTotal))
                     .order(order)
                     .build();
                 orderItems.add(orderItem);
             }
             
-            order.setTotalAmount(totalAmount);
+            order.setTotalAmount(Money.ofMinor(totalAmount));
             order.setItems(orderItems);
             
-            Order savedOrder = orderRepository.save(order);
-            orderItemRepository.saveAll(orderItems);
-            orders.add(savedOrder);
+            orders.add(order);
         }
         
-        return orders;
+        // Items cascade from their order; saving the shift together lets the
+        // pooled id sequences hand out ids in memory and JDBC batch the INSERTs
+        return orderRepository.saveAll(orders);
     }
 
     private void createOptimizedShiftReport(Branch branch, User cashier, List<Order> orders, 
                                   LocalDateTime shiftStart, LocalDateTime shiftEnd) {
         
-        double totalSales = orders.stream()
-            .mapToDouble(Order::getTotalAmount)
+        long totalSales = orders.stream()
+            .mapToLong(order -> order.getTotalAmount().getMinorUnits())
             .sum();
         
         // Create 0-2 refunds per shift
         int refundCount = random.nextDouble() < 0.4 ? 0 : random.nextInt(3);
         List<Refund> refunds = new ArrayList<>();
-        double totalRefunds = 0.0;
+        long totalRefunds = 0;
         
         Set<Order> refundedOrders = new HashSet<>();
         
@@ -669,14 +678,14 @@ public class GCPOptimizedDataInitializationComponent implements CommandLineRunne
             refundedOrders.add(order);
             
             // 80% full refund, 20% partial
-            double refundAmount = random.nextDouble() < 0.8 ? 
-                order.getTotalAmount() : 
-                order.getTotalAmount() * (random.nextDouble() * 0.5 + 0.3);
+            long refundAmount = random.nextDouble() < 0.8 ? 
+                order.getTotalAmount().getMinorUnits() : 
+                Math.round(order.getTotalAmount().getMinorUnits() * (random.nextDouble() * 0.5 + 0.3));
             
             Refund refund = new Refund();
             refund.setOrder(order);
             refund.setReason(getRandomRefundReason());
-            refund.setAmount(refundAmount);
+            refund.setAmount(Money.ofMinor(refundAmount));
             refund.setCashier(cashier);
             refund.setBranch(branch);
             refund.setPaymentType(order.getPaymentType());
@@ -703,9 +712,9 @@ public class GCPOptimizedDataInitializationComponent implements CommandLineRunne
         ShiftReport shiftReport = new ShiftReport();
         shiftReport.setShiftStart(shiftStart);
         shiftReport.setShiftEnd(shiftEnd);
-        shiftReport.setTotalSales(totalSales);
-        shiftReport.setTotalRefunds(totalRefunds);
-        shiftReport.setNetSales(totalSales - totalRefunds);
+        shiftReport.setTotalSales(Money.ofMinor(totalSales));
+        shiftReport.setTotalRefunds(Money.ofMinor(totalRefunds));
+        shiftReport.setNetSales(Money.ofMinor(totalSales - totalRefunds));
         shiftReport.setTotalOrders(orders.size());
         shiftReport.setCashier(cashier);
         shiftReport.setBranch(branch);
@@ -777,6 +786,13 @@ public class GCPOptimizedDataInitializationComponent implements CommandLineRunne
         }
     }
 
+    private void logInsertRate(int orderCount, int itemCount, long startNanos) {
+        long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        int rows = orderCount + itemCount;
+        log.info("Inserted {} orders with {} items in {} ms ({} rows/s)",
+                orderCount, itemCount, elapsedMs, rows * 1000L / elapsedMs);
+    }
+
     // Helper class for product data
     private static class ProductData {
         String name;
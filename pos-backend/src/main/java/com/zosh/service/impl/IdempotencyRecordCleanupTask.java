@@ -0,0 +1,31 @@
+package com.zosh.service.impl;
+
+import com.zosh.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task to drop idempotency responses whose replay window has passed
+ *
+ * Runs every 15 minutes so neither the in-memory store nor the table grows unbounded
+ */
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyRecordCleanupTask {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(cron = "0 */15 * * * *")
+    public void cleanupExpiredRecords() {
+        try {
+            idempotencyService.purgeExpired();
+        } catch (Exception e) {
+            log.error("Error cleaning up expired idempotency records", e);
+        }
+    }
+}
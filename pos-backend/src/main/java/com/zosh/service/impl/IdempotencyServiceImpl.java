@@ -0,0 +1,323 @@
+package com.zosh.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zosh.domain.IdempotencyStatus;
+import com.zosh.exception.IdempotencyException;
+import com.zosh.modal.IdempotencyRecord;
+import com.zosh.repository.IdempotencyRecordRepository;
+import com.zosh.service.IdempotencyService;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Idempotency store: a bounded in-memory map answers replays hitting the same
+ * instance, and the idempotency_records table answers replays after a restart
+ * or on another instance.
+ *
+ * Concurrent requests with the same key race on a single putIfAbsent/replace;
+ * the winner runs the action and the others wait on its future instead of a lock.
+ * Across instances the winner first inserts a PENDING row; the unique
+ * (scope, key) constraint lets only one instance run the action, and the others
+ * poll that row until it holds the response.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Duration pendingWait;
+    private final Duration pendingTimeout;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository recordRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                                  @Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                                  @Value("${app.idempotency.pending-wait-seconds:10}") long pendingWaitSeconds,
+                                  @Value("${app.idempotency.pending-timeout-seconds:120}") long pendingTimeoutSeconds) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionManager = transactionManager;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.maxEntries = maxEntries;
+        this.pendingWait = Duration.ofSeconds(pendingWaitSeconds);
+        this.pendingTimeout = Duration.ofSeconds(pendingTimeoutSeconds);
+    }
+
+    @Override
+    public <T, E1 extends Exception, E2 extends Exception> T execute(String key,
+                                                                     String scope,
+                                                                     Object request,
+                                                                     Class<T> responseType,
+                                                                     IdempotentAction<T, E1, E2> action) throws E1, E2 {
+        if (key == null || key.isBlank()) {
+            return action.run();
+        }
+
+        String fullScope = scope + ":" + currentPrincipal();
+        String cacheKey = fullScope + ":" + key;
+        String requestHash = hash(request);
+
+        while (true) {
+            long now = System.currentTimeMillis();
+            Entry current = entries.get(cacheKey);
+
+            if (current != null && !current.isExpired(now)) {
+                checkSameRequest(current.requestHash, requestHash);
+                Optional<Object> replayed = await(current);
+                if (replayed.isPresent()) {
+                    return responseType.cast(replayed.get());
+                }
+                continue; // the original attempt failed, compete to run it again
+            }
+
+            Entry mine = new Entry(requestHash, now + ttl.toMillis());
+            boolean won = current == null
+                    ? entries.putIfAbsent(cacheKey, mine) == null
+                    : entries.replace(cacheKey, current, mine);
+
+            if (won) {
+                evictIfFull();
+                return runOwned(cacheKey, fullScope, key, requestHash, responseType, action, mine);
+            }
+        }
+    }
+
+    private <T, E1 extends Exception, E2 extends Exception> T runOwned(String cacheKey,
+                                                                       String scope,
+                                                                       String key,
+                                                                       String requestHash,
+                                                                       Class<T> responseType,
+                                                                       IdempotentAction<T, E1, E2> action,
+                                                                       Entry mine) throws E1, E2 {
+        T result;
+        try {
+            Optional<T> stored = reserve(scope, key, requestHash, responseType);
+            if (stored.isPresent()) {
+                result = stored.get();
+            } else {
+                result = runAndComplete(scope, key, action);
+            }
+        } catch (Exception e) {
+            entries.remove(cacheKey, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+
+        mine.result.complete(result);
+        return result;
+    }
+
+    /**
+     * Claims the key for this instance by inserting a PENDING row. Returns the
+     * stored response instead when another attempt already completed the key,
+     * after waiting for it while it is still running elsewhere.
+     */
+    private <T> Optional<T> reserve(String scope, String key, String requestHash, Class<T> responseType) {
+        long deadline = System.currentTimeMillis() + pendingWait.toMillis();
+
+        while (true) {
+            Optional<IdempotencyRecord> existing = recordRepository.findByScopeAndIdempotencyKey(scope, key);
+
+            if (existing.isEmpty()) {
+                try {
+                    recordRepository.saveAndFlush(IdempotencyRecord.builder()
+                            .scope(scope)
+                            .idempotencyKey(key)
+                            .requestHash(requestHash)
+                            .status(IdempotencyStatus.PENDING)
+                            .expiresAt(LocalDateTime.now().plus(ttl))
+                            .build());
+                    return Optional.empty();
+                } catch (DataIntegrityViolationException e) {
+                    // Another instance reserved the key first; wait for its response
+                    continue;
+                }
+            }
+
+            IdempotencyRecord record = existing.get();
+            LocalDateTime now = LocalDateTime.now();
+            if (record.getExpiresAt().isBefore(now)) {
+                recordRepository.deleteStale(record.getId(), record.getCreatedAt());
+                continue;
+            }
+
+            checkSameRequest(record.getRequestHash(), requestHash);
+
+            if (record.getStatus() != IdempotencyStatus.PENDING) {
+                return Optional.of(read(record, responseType));
+            }
+
+            // An attempt whose instance died never completes; let the key be claimed again
+            if (record.getCreatedAt() != null && record.getCreatedAt().plus(pendingTimeout).isBefore(now)) {
+                log.warn("Reclaiming idempotency key {} for {} left pending since {}", key, scope, record.getCreatedAt());
+                recordRepository.deleteStale(record.getId(), record.getCreatedAt());
+                continue;
+            }
+
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IdempotencyException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still being processed, retry shortly");
+            }
+            sleep();
+        }
+    }
+
+    private <T> T read(IdempotencyRecord record, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(record.getResponseBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for idempotency key is unreadable", e);
+        }
+    }
+
+    /**
+     * Runs the action and marks the key COMPLETED in the same transaction, so the
+     * action's writes and the stored response commit together. A crash in between
+     * can no longer leave a committed action behind a PENDING row that is reclaimed
+     * and run a second time. A failed action rolls back and gives the key back;
+     * release only deletes PENDING rows, so it is harmless after a commit that
+     * reached the database but reported an error.
+     */
+    private <T, E1 extends Exception, E2 extends Exception> T runAndComplete(String scope,
+                                                                             String key,
+                                                                             IdempotentAction<T, E1, E2> action) throws E1, E2 {
+        TransactionStatus transaction = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        try {
+            T result = action.run();
+            recordRepository.complete(scope, key, IdempotencyStatus.COMPLETED, serialize(result));
+            transactionManager.commit(transaction);
+            return result;
+        } catch (Exception e) {
+            if (!transaction.isCompleted()) {
+                transactionManager.rollback(transaction);
+            }
+            recordRepository.release(scope, key);
+            throw e;
+        }
+    }
+
+    private String serialize(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response for idempotency key", e);
+        }
+    }
+
+    private void checkSameRequest(String storedHash, String requestHash) {
+        // Rows written before request hashes were kept carry none
+        if (storedHash != null && !Objects.equals(storedHash, requestHash)) {
+            throw new IdempotencyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash request for idempotency key", e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyException(HttpStatus.CONFLICT, "Interrupted while waiting for idempotent request");
+        }
+    }
+
+    private Optional<Object> await(Entry entry) {
+        try {
+            return Optional.of(entry.result.join());
+        } catch (CompletionException | CancellationException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> e.getValue().isExpired(now));
+
+        int overflow = entries.size() - maxEntries;
+        if (overflow > 0) {
+            entries.entrySet().stream()
+                    .filter(e -> e.getValue().result.isDone())
+                    .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt))
+                    .limit(overflow)
+                    .forEach(e -> entries.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> e.getValue().isExpired(now));
+
+        int deleted = recordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Cleaned up {} expired idempotency records", deleted);
+        }
+    }
+
+    private String currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : "anonymous";
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final String requestHash;
+        private final long expiresAt;
+
+        private Entry(String requestHash, long expiresAt) {
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -1,23 +1,33 @@
 package com.zosh.service.impl;
 
 
+import com.zosh.event.InventoryChangedEvent;
 import com.zosh.exception.UserException;
 import com.zosh.mapper.InventoryMapper;
 import com.zosh.modal.Branch;
 import com.zosh.modal.Inventory;
+import com.zosh.modal.LowStockSnapshot;
 import com.zosh.modal.Product;
 import com.zosh.payload.dto.InventoryDTO;
 import com.zosh.repository.BranchRepository;
 import com.zosh.repository.InventoryRepository;
+import com.zosh.repository.LowStockSnapshotRepository;
 import com.zosh.repository.ProductRepository;
 import com.zosh.util.SecurityUtil;
 import com.zosh.service.InventoryService;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -28,6 +38,8 @@ public class InventoryServiceImpl implements InventoryService {
     private final BranchRepository branchRepository;
     private final ProductRepository productRepository;
     private final SecurityUtil securityUtil;
+    private final LowStockSnapshotRepository lowStockSnapshotRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public InventoryDTO createInventory(InventoryDTO dto) throws AccessDeniedException, UserException {
@@ -45,8 +57,9 @@ public class InventoryServiceImpl implements InventoryService {
             );
         }
 
-        Inventory inventory = InventoryMapper.toEntity(dto, branch, product);
-        return InventoryMapper.toDto(inventoryRepository.save(inventory));
+        Inventory inventory = inventoryRepository.save(InventoryMapper.toEntity(dto, branch, product));
+        eventPublisher.publishEvent(InventoryChangedEvent.of(inventory));
+        return InventoryMapper.toDto(inventory);
     }
 
     @Override
@@ -57,7 +70,9 @@ public class InventoryServiceImpl implements InventoryService {
 //        securityUtil.checkAuthority(inventory);
 
         inventory.setQuantity(dto.getQuantity());
-        return InventoryMapper.toDto(inventoryRepository.save(inventory));
+        Inventory saved = inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(InventoryChangedEvent.of(saved));
+        return InventoryMapper.toDto(saved);
     }
 
     @Override
@@ -68,6 +83,7 @@ public class InventoryServiceImpl implements InventoryService {
         securityUtil.checkAuthority(inventory);
 
         inventoryRepository.delete(inventory);
+        eventPublisher.publishEvent(InventoryChangedEvent.of(inventory));
     }
 
     @Override
@@ -104,5 +120,59 @@ public class InventoryServiceImpl implements InventoryService {
                     "Inventory not found for product " + productId + " in branch " + branchId
                 ));
     }
+
+    @Override
+    @Transactional(rollbackOn = UserException.class)
+    public void decrementStock(Long branchId, Map<Long, Integer> quantities) throws UserException {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Update rows in product id order so two baskets sharing SKUs always
+        // lock them in the same sequence and cannot deadlock each other.
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(quantities).entrySet()) {
+            int updated = inventoryRepository.decrementStock(
+                    branchId, entry.getKey(), entry.getValue(), now);
+            if (updated == 0) {
+                // Only on the failure path: tell a product the branch never stocked apart from a shortage
+                if (!inventoryRepository.existsByBranchIdAndProductId(branchId, entry.getKey())) {
+                    throw new UserException("Product " + entry.getKey() + " is not stocked at this branch");
+                }
+                throw new UserException("Insufficient stock for product " + entry.getKey());
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void decrementStockClamped(Long branchId, Map<Long, Integer> quantities) {
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(quantities).entrySet()) {
+            inventoryRepository.decrementStockClamped(branchId, entry.getKey(), entry.getValue(), now);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordLowStockSnapshots() {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : inventoryRepository.countLowStockItemsByBranch(LOW_STOCK_THRESHOLD)) {
+            counts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Branch branch : branchRepository.findAll()) {
+            LocalDate today = LocalDate.now(branch.zoneId());
+            int count = counts.getOrDefault(branch.getId(), 0);
+
+            if (lowStockSnapshotRepository.updateCount(branch.getId(), today, count, now) == 0) {
+                lowStockSnapshotRepository.save(LowStockSnapshot.builder()
+                        .branch(branch)
+                        .snapshotDate(today)
+                        .lowStockCount(count)
+                        .recordedAt(now)
+                        .build());
+            }
+        }
+    }
 }
 
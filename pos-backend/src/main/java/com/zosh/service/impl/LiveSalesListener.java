@@ -0,0 +1,62 @@
+package com.zosh.service.impl;
+
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+import com.zosh.service.LiveSalesService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Advances the live sales ticker with committed orders and refunds, and
+ * deletions of either.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LiveSalesListener {
+
+    private final LiveSalesService liveSalesService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        try {
+            liveSalesService.onOrderPlaced(event);
+        } catch (Exception e) {
+            log.error("Error applying order {} to live totals of branch {}", event.orderId(), event.branchId(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        try {
+            liveSalesService.onOrderDeleted(event);
+        } catch (Exception e) {
+            log.error("Error removing deleted order {} from live totals of branch {}",
+                    event.order().orderId(), event.order().branchId(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRefundIssued(RefundIssuedEvent event) {
+        try {
+            liveSalesService.onRefundIssued(event);
+        } catch (Exception e) {
+            log.error("Error applying refund {} to live totals of branch {}", event.refundId(), event.branchId(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRefundDeleted(RefundDeletedEvent event) {
+        try {
+            liveSalesService.onRefundDeleted(event);
+        } catch (Exception e) {
+            log.error("Error removing deleted refund {} from live totals of branch {}",
+                    event.refund().refundId(), event.refund().branchId(), e);
+        }
+    }
+}
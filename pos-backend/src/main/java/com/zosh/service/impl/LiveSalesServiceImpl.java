@@ -0,0 +1,606 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.UserRole;
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+import com.zosh.exception.AccessDeniedException;
+import com.zosh.exception.UserException;
+import com.zosh.modal.Branch;
+import com.zosh.modal.Money;
+import com.zosh.modal.Order;
+import com.zosh.modal.Store;
+import com.zosh.modal.User;
+import com.zosh.payload.dto.LiveOrderDTO;
+import com.zosh.payload.dto.LiveSalesDTO;
+import com.zosh.repository.BranchRepository;
+import com.zosh.repository.OrderRepository;
+import com.zosh.repository.RefundRepository;
+import com.zosh.repository.StoreRepository;
+import com.zosh.service.LiveSalesService;
+import com.zosh.service.UserService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live sales ticker. Each watched branch keeps its current day's running
+ * totals and latest orders in memory, loaded once and then advanced by
+ * committed orders and refunds, so live dashboards never query the database.
+ *
+ * Totals are kept per order and refund id, as the shift totals are. A branch
+ * is registered before it loads, and events arriving during a load are
+ * replayed on top of it under the branch's lock; the ids make an event the
+ * load already counted a no-op, so a reload neither drops nor doubles a sale.
+ *
+ * Streams are flagged on change and flushed by LiveSalesTask once a second.
+ * A subscriber still writing its previous update is skipped and gets the
+ * latest totals on a later flush, so a slow client only ever has one update
+ * in flight and never builds a backlog.
+ */
+@Service
+@Slf4j
+public class LiveSalesServiceImpl implements LiveSalesService {
+
+    private static final long SSE_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final BranchRepository branchRepository;
+    private final OrderRepository orderRepository;
+    private final RefundRepository refundRepository;
+    private final StoreRepository storeRepository;
+    private final UserService userService;
+    private final int maxSubscribers;
+    private final ExecutorService pushExecutor;
+
+    private final Map<Long, BranchTotals> branches = new ConcurrentHashMap<>();
+    private final Map<Long, Topic> branchTopics = new ConcurrentHashMap<>();
+    private final Map<Long, Topic> storeTopics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    public LiveSalesServiceImpl(BranchRepository branchRepository,
+                                OrderRepository orderRepository,
+                                RefundRepository refundRepository,
+                                StoreRepository storeRepository,
+                                UserService userService,
+                                @Value("${app.live.max-subscribers:500}") int maxSubscribers,
+                                @Value("${app.live.push-threads:4}") int pushThreads) {
+        this.branchRepository = branchRepository;
+        this.orderRepository = orderRepository;
+        this.refundRepository = refundRepository;
+        this.storeRepository = storeRepository;
+        this.userService = userService;
+        this.maxSubscribers = maxSubscribers;
+        this.pushExecutor = Executors.newFixedThreadPool(pushThreads, new CustomizableThreadFactory("live-sales-"));
+    }
+
+    @Override
+    public SseEmitter subscribeBranch(Long branchId) throws UserException, AccessDeniedException {
+        Branch branch = branchRepository.findById(branchId)
+                .orElseThrow(() -> new EntityNotFoundException("Branch not found"));
+        checkCanWatch(branch.getStore() != null ? branch.getStore().getId() : null, branchId);
+
+        reserveSlot();
+        try {
+            tracked(branch);
+            Topic topic = branchTopics.computeIfAbsent(branchId, id -> new Topic(null, List.of(id)));
+            return open(topic);
+        } catch (RuntimeException e) {
+            subscriberCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    @Override
+    public SseEmitter subscribeStore(Long storeId) throws UserException, AccessDeniedException {
+        checkCanWatch(storeId, null);
+
+        reserveSlot();
+        try {
+            List<Long> branchIds = trackStoreBranches(storeId);
+            Topic topic = storeTopics.computeIfAbsent(storeId, id -> new Topic(id, branchIds));
+            return open(topic);
+        } catch (RuntimeException e) {
+            subscriberCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    @Override
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        BranchTotals totals = branches.get(event.branchId());
+        if (totals != null && totals.record(event)) {
+            markDirty(event.branchId(), event.storeId());
+        }
+    }
+
+    @Override
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        OrderPlacedEvent order = event.order();
+        BranchTotals totals = branches.get(order.branchId());
+        if (totals != null && totals.record(event)) {
+            markDirty(order.branchId(), order.storeId());
+        }
+    }
+
+    @Override
+    public void onRefundIssued(RefundIssuedEvent event) {
+        BranchTotals totals = branches.get(event.branchId());
+        if (totals != null && totals.record(event)) {
+            markDirty(event.branchId(), event.storeId());
+        }
+    }
+
+    @Override
+    public void onRefundDeleted(RefundDeletedEvent event) {
+        RefundIssuedEvent refund = event.refund();
+        BranchTotals totals = branches.get(refund.branchId());
+        if (totals != null && totals.record(event)) {
+            markDirty(refund.branchId(), refund.storeId());
+        }
+    }
+
+    @Override
+    public void pushChanges() {
+        for (BranchTotals totals : branches.values()) {
+            if (totals.rollOver()) {
+                markDirty(totals.branchId, totals.storeId);
+            }
+        }
+        flush(branchTopics);
+        flush(storeTopics);
+    }
+
+    @Override
+    public void reconcile() {
+        branchTopics.values().removeIf(topic -> topic.subscribers.isEmpty());
+        storeTopics.values().removeIf(topic -> topic.subscribers.isEmpty());
+
+        Set<Long> watched = new HashSet<>();
+        for (Topic topic : storeTopics.values()) {
+            try {
+                topic.branchIds = trackStoreBranches(topic.storeId);
+                topic.dirty = true;
+            } catch (Exception e) {
+                log.error("Error reloading live branches of store {}", topic.storeId, e);
+            }
+            watched.addAll(topic.branchIds);
+        }
+        branchTopics.values().forEach(topic -> watched.addAll(topic.branchIds));
+        branches.keySet().retainAll(watched);
+
+        for (BranchTotals totals : branches.values()) {
+            try {
+                branchRepository.findById(totals.branchId).ifPresent(branch -> reload(totals, branch));
+                markDirty(totals.branchId, totals.storeId);
+            } catch (Exception e) {
+                log.error("Error reloading live totals of branch {}", totals.branchId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stopPushExecutor() {
+        pushExecutor.shutdownNow();
+    }
+
+    // Platform admins watch anything; branch staff only their own branch; store
+    // admins and managers any branch of their store and the store as a whole
+    private void checkCanWatch(Long storeId, Long branchId) throws UserException, AccessDeniedException {
+        User user = userService.getCurrentUser();
+        if (user.getRole() == UserRole.ROLE_ADMIN) {
+            return;
+        }
+        if (user.getBranch() != null) {
+            if (branchId != null && branchId.equals(user.getBranch().getId())) {
+                return;
+            }
+        } else if (storeId != null && storeId.equals(ownStoreId(user))) {
+            return;
+        }
+        throw new AccessDeniedException("You are not authorized to watch this "
+                + (branchId != null ? "branch" : "store"));
+    }
+
+    private Long ownStoreId(User user) {
+        if (user.getStore() != null) {
+            return user.getStore().getId();
+        }
+        Store owned = storeRepository.findByStoreAdminId(user.getId());
+        return owned != null ? owned.getId() : null;
+    }
+
+    private void reserveSlot() throws UserException {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new UserException("Too many live dashboards open, try again shortly");
+        }
+    }
+
+    private SseEmitter open(Topic topic) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter, new AtomicBoolean());
+        emitter.onCompletion(() -> drop(topic, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> drop(topic, subscriber));
+
+        topic.subscribers.add(subscriber);
+        push(topic, subscriber, toDto(topic));
+        return emitter;
+    }
+
+    private void drop(Topic topic, Subscriber subscriber) {
+        if (topic.subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private void markDirty(Long branchId, Long storeId) {
+        Topic branchTopic = branchTopics.get(branchId);
+        if (branchTopic != null) {
+            branchTopic.dirty = true;
+        }
+        Topic storeTopic = storeId != null ? storeTopics.get(storeId) : null;
+        if (storeTopic != null) {
+            storeTopic.dirty = true;
+        }
+    }
+
+    private void flush(Map<Long, Topic> topics) {
+        for (Topic topic : topics.values()) {
+            if (!topic.dirty || topic.subscribers.isEmpty()) {
+                continue;
+            }
+            topic.dirty = false;
+            LiveSalesDTO current = toDto(topic);
+            topic.subscribers.forEach(subscriber -> push(topic, subscriber, current));
+        }
+    }
+
+    private void push(Topic topic, Subscriber subscriber, LiveSalesDTO current) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            // Still writing the previous update; the next flush sends the then-latest totals
+            topic.dirty = true;
+            return;
+        }
+        try {
+            pushExecutor.execute(() -> {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().name("sales").data(current));
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away
+                    drop(topic, subscriber);
+                } finally {
+                    subscriber.sending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private List<Long> trackStoreBranches(Long storeId) {
+        List<Long> branchIds = new ArrayList<>();
+        for (Branch branch : branchRepository.findByStoreId(storeId)) {
+            tracked(branch);
+            branchIds.add(branch.getId());
+        }
+        return List.copyOf(branchIds);
+    }
+
+    private BranchTotals tracked(Branch branch) {
+        BranchTotals totals = branches.get(branch.getId());
+        if (totals == null) {
+            // Registered before loading so orders committed during the load are kept for replay
+            BranchTotals created = new BranchTotals(branch.getId(),
+                    branch.getStore() != null ? branch.getStore().getId() : null, branch.zoneId());
+            totals = branches.putIfAbsent(branch.getId(), created);
+            if (totals == null) {
+                totals = created;
+                try {
+                    reload(created, branch);
+                } catch (RuntimeException e) {
+                    branches.remove(branch.getId(), created);
+                    created.ready.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        totals.ready.join();
+        return totals;
+    }
+
+    // The branch's current day from the database: one id/amount row per order and refund
+    private void reload(BranchTotals totals, Branch branch) {
+        totals.beginLoad();
+        LocalDate today = LocalDate.now(branch.zoneId());
+        List<Object[]> orders;
+        List<Object[]> refunds;
+        List<LiveOrderDTO> recent;
+        try {
+            LocalDateTime start = branch.startOfBusinessDay(today);
+            LocalDateTime end = branch.startOfBusinessDay(today.plusDays(1));
+
+            orders = orderRepository.findOrderTotalsByBranchBetween(branch.getId(), start, end);
+            refunds = refundRepository.findRefundAmountsByBranchBetween(branch.getId(), start, end);
+            recent = orderRepository.findTop5ByBranchIdOrderByCreatedAtDesc(branch.getId()).stream()
+                    .filter(order -> !order.getCreatedAt().isBefore(start))
+                    .map(LiveSalesServiceImpl::toLiveOrder)
+                    .toList();
+        } catch (RuntimeException e) {
+            totals.abortLoad();
+            throw e;
+        }
+        totals.finishLoad(today, orders, refunds, recent);
+    }
+
+    private LiveSalesDTO toDto(Topic topic) {
+        if (topic.storeId == null) {
+            BranchTotals totals = branches.get(topic.branchIds.get(0));
+            return totals != null ? totals.toDto() : LiveSalesDTO.builder().branchId(topic.branchIds.get(0)).build();
+        }
+
+        long salesMinor = 0;
+        long refundMinor = 0;
+        int orderCount = 0;
+        int refundCount = 0;
+        List<LiveOrderDTO> recent = new ArrayList<>();
+        for (Long branchId : topic.branchIds) {
+            BranchTotals totals = branches.get(branchId);
+            if (totals == null) {
+                continue;
+            }
+            synchronized (totals) {
+                totals.rollOver();
+                salesMinor += totals.salesMinor;
+                refundMinor += totals.refundMinor;
+                orderCount += totals.orderCount;
+                refundCount += totals.refundCount;
+                recent.addAll(totals.recent);
+            }
+        }
+        recent.sort(Comparator.comparing(LiveOrderDTO::getCreatedAt).reversed());
+
+        return LiveSalesDTO.builder()
+                .storeId(topic.storeId)
+                .totalSales(Money.toMajor(salesMinor))
+                .totalOrders(orderCount)
+                .totalRefunds(Money.toMajor(refundMinor))
+                .totalRefundCount(refundCount)
+                .netSales(Money.toMajor(salesMinor - refundMinor))
+                .recentOrders(recent.subList(0, Math.min(RECENT_ORDERS, recent.size())))
+                .build();
+    }
+
+    private static LiveOrderDTO toLiveOrder(Order order) {
+        return LiveOrderDTO.builder()
+                .id(order.getId())
+                .branchId(order.getBranch().getId())
+                .cashierId(order.getCashier() != null ? order.getCashier().getId() : null)
+                .totalAmount(Money.toMajor(order.getTotalAmount()))
+                .paymentType(OrderPlacedEvent.paymentTypeOf(order))
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+
+    private static final class Topic {
+        private final Long storeId; // null for a single-branch stream
+        private volatile List<Long> branchIds;
+        private volatile boolean dirty;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+        private Topic(Long storeId, List<Long> branchIds) {
+            this.storeId = storeId;
+            this.branchIds = branchIds;
+        }
+    }
+
+    private record Subscriber(SseEmitter emitter, AtomicBoolean sending) {
+    }
+
+    private static final class BranchTotals {
+        private final Long branchId;
+        private final Long storeId;
+        private final ZoneId zone;
+        private LocalDate businessDate;
+        private long salesMinor;
+        private int orderCount;
+        private long refundMinor;
+        private int refundCount;
+        private final Deque<LiveOrderDTO> recent = new ArrayDeque<>();
+        // Orders and refunds already counted today, so a replayed event is never counted twice
+        private final Set<Long> orderIds = new HashSet<>();
+        private final Set<Long> refundIds = new HashSet<>();
+        // Completed once the first load has been applied
+        private final CompletableFuture<Void> ready = new CompletableFuture<>();
+        // Loads in flight, and the events to replay once each of them lands
+        private int loading;
+        private final List<Object> replay = new ArrayList<>();
+
+        private BranchTotals(Long branchId, Long storeId, ZoneId zone) {
+            this.branchId = branchId;
+            this.storeId = storeId;
+            this.zone = zone;
+            this.businessDate = LocalDate.now(zone);
+        }
+
+        private synchronized void beginLoad() {
+            loading++;
+        }
+
+        private synchronized void finishLoad(LocalDate day, List<Object[]> orders, List<Object[]> refunds,
+                                             List<LiveOrderDTO> recentOrders) {
+            reset(day);
+            for (Object[] row : orders) {
+                orderIds.add((Long) row[0]);
+                salesMinor += ((Number) row[1]).longValue();
+            }
+            for (Object[] row : refunds) {
+                refundIds.add((Long) row[0]);
+                refundMinor += ((Number) row[1]).longValue();
+            }
+            orderCount = orderIds.size();
+            refundCount = refundIds.size();
+            recent.addAll(recentOrders);
+
+            // The load may have missed any of these; the ids skip the ones it already counted
+            for (Object event : replay) {
+                apply(event);
+            }
+            endLoad();
+            ready.complete(null);
+        }
+
+        private synchronized void abortLoad() {
+            endLoad();
+        }
+
+        private void endLoad() {
+            if (--loading == 0) {
+                replay.clear();
+            }
+        }
+
+        // Applies an order or refund event, or a deletion of either; true if the totals changed
+        private synchronized boolean record(Object event) {
+            if (loading > 0) {
+                replay.add(event);
+            }
+            return apply(event);
+        }
+
+        private boolean apply(Object event) {
+            if (event instanceof OrderPlacedEvent order) {
+                return applyOrder(order);
+            }
+            if (event instanceof OrderDeletedEvent deleted) {
+                return removeOrder(deleted.order());
+            }
+            if (event instanceof RefundDeletedEvent deleted) {
+                return removeRefund(deleted.refund());
+            }
+            return event instanceof RefundIssuedEvent refund && applyRefund(refund);
+        }
+
+        private boolean applyOrder(OrderPlacedEvent event) {
+            if (!startDay(event.businessDate()) || !orderIds.add(event.orderId())) {
+                return false;
+            }
+            salesMinor += event.totalMinor();
+            orderCount++;
+            recent.addFirst(LiveOrderDTO.builder()
+                    .id(event.orderId())
+                    .branchId(event.branchId())
+                    .cashierId(event.cashierId())
+                    .totalAmount(Money.toMajor(event.totalMinor()))
+                    .paymentType(event.paymentType())
+                    .createdAt(event.createdAt())
+                    .build());
+            while (recent.size() > RECENT_ORDERS) {
+                recent.removeLast();
+            }
+            return true;
+        }
+
+        // Only an order counted today is taken back; the recent list refills on the next reload
+        private boolean removeOrder(OrderPlacedEvent event) {
+            if (!event.businessDate().equals(businessDate) || !orderIds.remove(event.orderId())) {
+                return false;
+            }
+            salesMinor -= event.totalMinor();
+            orderCount--;
+            recent.removeIf(order -> order.getId().equals(event.orderId()));
+            return true;
+        }
+
+        private boolean applyRefund(RefundIssuedEvent event) {
+            if (!startDay(event.businessDate()) || !refundIds.add(event.refundId())) {
+                return false;
+            }
+            refundMinor += event.amountMinor();
+            refundCount++;
+            return true;
+        }
+
+        private boolean removeRefund(RefundIssuedEvent event) {
+            if (!event.businessDate().equals(businessDate) || !refundIds.remove(event.refundId())) {
+                return false;
+            }
+            refundMinor -= event.amountMinor();
+            refundCount--;
+            return true;
+        }
+
+        // Moves to the branch's new day once it starts; true if the totals were reset
+        private synchronized boolean rollOver() {
+            LocalDate today = LocalDate.now(zone);
+            if (today.isAfter(businessDate)) {
+                reset(today);
+                return true;
+            }
+            return false;
+        }
+
+        // False for an event belonging to a day that is already closed
+        private boolean startDay(LocalDate day) {
+            if (day.isBefore(businessDate)) {
+                return false;
+            }
+            if (day.isAfter(businessDate)) {
+                reset(day);
+            }
+            return true;
+        }
+
+        private void reset(LocalDate day) {
+            businessDate = day;
+            salesMinor = 0;
+            orderCount = 0;
+            refundMinor = 0;
+            refundCount = 0;
+            recent.clear();
+            orderIds.clear();
+            refundIds.clear();
+        }
+
+        private synchronized LiveSalesDTO toDto() {
+            rollOver();
+            return LiveSalesDTO.builder()
+                    .branchId(branchId)
+                    .storeId(storeId)
+                    .businessDate(businessDate)
+                    .totalSales(Money.toMajor(salesMinor))
+                    .totalOrders(orderCount)
+                    .totalRefunds(Money.toMajor(refundMinor))
+                    .totalRefundCount(refundCount)
+                    .netSales(Money.toMajor(salesMinor - refundMinor))
+                    .recentOrders(List.copyOf(recent))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.zosh.service.impl;
+
+import com.zosh.service.LiveSalesService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task to drive the live sales streams
+ *
+ * Flushes changed totals to subscribers every second and reloads watched
+ * branches from the database every 15 minutes
+ */
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+public class LiveSalesTask {
+
+    private final LiveSalesService liveSalesService;
+
+    @Scheduled(fixedDelay = 1_000)
+    public void pushChanges() {
+        try {
+            liveSalesService.pushChanges();
+        } catch (Exception e) {
+            log.error("Error pushing live sales", e);
+        }
+    }
+
+    @Scheduled(initialDelay = 900_000, fixedDelay = 900_000)
+    public void reconcile() {
+        try {
+            liveSalesService.reconcile();
+        } catch (Exception e) {
+            log.error("Error reconciling live sales", e);
+        }
+    }
+}
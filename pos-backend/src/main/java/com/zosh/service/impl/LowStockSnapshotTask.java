@@ -0,0 +1,32 @@
+package com.zosh.service.impl;
+
+import com.zosh.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task to snapshot each branch's low-stock count
+ *
+ * Runs hourly and overwrites the current day's value, so the row a day ends
+ * with is at most an hour older than closing stock
+ */
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+public class LowStockSnapshotTask {
+
+    private final InventoryService inventoryService;
+
+    @Scheduled(initialDelay = 60_000, fixedDelay = 3_600_000)
+    public void recordLowStockSnapshots() {
+        try {
+            inventoryService.recordLowStockSnapshots();
+        } catch (Exception e) {
+            log.error("Error recording low-stock snapshots", e);
+        }
+    }
+}
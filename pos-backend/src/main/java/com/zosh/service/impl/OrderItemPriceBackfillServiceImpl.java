@@ -0,0 +1,74 @@
+package com.zosh.service.impl;
+
+import com.zosh.repository.OrderItemRepository;
+import com.zosh.service.OrderItemPriceBackfillService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The legacy price column meant a line total for orders placed through the API
+ * and a unit price for seeded orders. An order whose legacy prices add up to its
+ * total stored line totals; any other order stored unit prices.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderItemPriceBackfillServiceImpl implements OrderItemPriceBackfillService {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final OrderItemRepository orderItemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public int backfill() {
+        // Cheap check first, so a fully migrated (or fresh) schema never touches price_minor
+        if (!orderItemRepository.existsByLineTotalIsNull()) {
+            return 0;
+        }
+
+        long afterId = 0;
+        int updated = 0;
+
+        while (true) {
+            List<Object[]> rows = orderItemRepository.findLegacyPricedItems(afterId, CHUNK_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            List<Long> lineTotalIds = new ArrayList<>();
+            List<Long> unitPriceIds = new ArrayList<>();
+            for (Object[] row : rows) {
+                long id = ((Number) row[0]).longValue();
+                Number orderTotal = (Number) row[1];
+                Number legacySum = (Number) row[2];
+
+                if (orderTotal != null && legacySum != null && orderTotal.longValue() == legacySum.longValue()) {
+                    lineTotalIds.add(id);
+                } else {
+                    unitPriceIds.add(id);
+                }
+                afterId = id;
+            }
+
+            Integer chunk = transactionTemplate.execute(status ->
+                    (lineTotalIds.isEmpty() ? 0 : orderItemRepository.backfillFromLineTotals(lineTotalIds))
+                            + (unitPriceIds.isEmpty() ? 0 : orderItemRepository.backfillFromUnitPrices(unitPriceIds)));
+            updated += chunk != null ? chunk : 0;
+
+            if (rows.size() < CHUNK_SIZE) {
+                break;
+            }
+        }
+
+        if (updated > 0) {
+            log.info("Backfilled unit price and line total for {} order items", updated);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,32 @@
+package com.zosh.service.impl;
+
+import com.zosh.service.OrderItemPriceBackfillService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task to backfill unitPrice/lineTotal on legacy order items
+ *
+ * Starts shortly after boot and re-checks hourly; once nothing is left it is a
+ * single EXISTS query
+ */
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+public class OrderItemPriceBackfillTask {
+
+    private final OrderItemPriceBackfillService backfillService;
+
+    @Scheduled(initialDelay = 60_000, fixedDelay = 3_600_000)
+    public void backfillLinePrices() {
+        try {
+            backfillService.backfill();
+        } catch (Exception e) {
+            log.error("Error backfilling order item prices", e);
+        }
+    }
+}
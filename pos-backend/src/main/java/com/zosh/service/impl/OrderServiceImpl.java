@@ -3,21 +3,41 @@ package com.zosh.service.impl;
 
 import com.zosh.domain.OrderStatus;
 import com.zosh.domain.PaymentType;
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
 import com.zosh.exception.UserException;
 import com.zosh.mapper.OrderMapper;
 import com.zosh.modal.*;
+import com.zosh.payload.dto.BatchOrderResponseDTO;
+import com.zosh.payload.dto.BatchOrderResultDTO;
 import com.zosh.payload.dto.OrderDTO;
+import com.zosh.payload.dto.OrderItemDTO;
+import com.zosh.payload.response.CursorPage;
 import com.zosh.repository.*;
 
+import com.zosh.service.InventoryService;
 import com.zosh.service.OrderService;
 import com.zosh.service.UserService;
+import com.zosh.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,8 +48,16 @@ public class OrderServiceImpl implements OrderService {
     private final ProductRepository productRepository;
     private final BranchRepository branchRepository;
     private final UserService userService;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_BATCH_ORDERS = 5000;
+    private static final int BATCH_CHUNK_SIZE = 500;
 
     @Override
+    @Transactional(rollbackOn = UserException.class)
     public OrderDTO createOrder(OrderDTO dto) throws UserException {
         User cashier = userService.getCurrentUser();
 
@@ -39,31 +67,277 @@ public class OrderServiceImpl implements OrderService {
             throw new UserException("cashier's branch is null");
         }
 
+        Map<Long, Product> products = loadProducts(dto.getItems(), branch);
+        return placeOrder(dto, cashier, branch, products);
+    }
+
+    @Override
+    @Transactional(rollbackOn = UserException.class)
+    public OrderDTO createOrder(OrderDTO dto, Map<Long, Product> products) throws UserException {
+        User cashier = userService.getCurrentUser();
+
+        Branch branch = cashier.getBranch();
+        if (branch == null) {
+            throw new UserException("cashier's branch is null");
+        }
+
+        return placeOrder(dto, cashier, branch, products);
+    }
+
+    private OrderDTO placeOrder(OrderDTO dto,
+                                User cashier,
+                                Branch branch,
+                                Map<Long, Product> products) throws UserException {
+        inventoryService.decrementStock(branch.getId(), sumQuantities(dto.getItems()));
+
+        Order order = buildOrder(dto, cashier, branch, products, null);
+
+        Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderPlacedEvent.of(savedOrder));
+        return OrderMapper.toDto(savedOrder);
+    }
+
+    @Override
+    public BatchOrderResponseDTO createOrdersBatch(List<OrderDTO> dtos) throws UserException {
+        if (dtos.size() > MAX_BATCH_ORDERS) {
+            throw new UserException("A batch may contain at most " + MAX_BATCH_ORDERS + " orders");
+        }
+
+        User cashier = userService.getCurrentUser();
+        Branch branch = cashier.getBranch();
+        if (branch == null) {
+            throw new UserException("cashier's branch is null");
+        }
+        Long storeId = branch.getStore() != null ? branch.getStore().getId() : null;
+
+        // One product fetch for the whole batch
+        Set<Long> productIds = dtos.stream()
+                .filter(dto -> dto.getItems() != null)
+                .flatMap(dto -> dto.getItems().stream())
+                .map(OrderItemDTO::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        BatchOrderResultDTO[] results = new BatchOrderResultDTO[dtos.size()];
+        List<Integer> valid = new ArrayList<>();
+        Map<String, Integer> firstIndexByClientId = new HashMap<>();
+        List<Integer> repeats = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            String error = validateBatchOrder(dtos.get(i), products, storeId, now);
+            if (error != null) {
+                results[i] = BatchOrderResultDTO.builder().index(i).created(false).error(error).build();
+            } else if (firstIndexByClientId.putIfAbsent(dtos.get(i).getClientOrderId(), i) != null) {
+                repeats.add(i);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        Long cashierId = cashier.getId();
+        Long branchId = branch.getId();
+
+        // Each chunk commits on its own so one bad chunk cannot undo the rest
+        for (int from = 0; from < valid.size(); from += BATCH_CHUNK_SIZE) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + BATCH_CHUNK_SIZE, valid.size()));
+            try {
+                List<BatchOrderResultDTO> chunkResults = transactionTemplate.execute(status ->
+                        saveBatchChunk(dtos, chunk, cashierId, branchId));
+                chunkResults.forEach(result -> results[result.getIndex()] = result);
+            } catch (RuntimeException e) {
+                for (int index : chunk) {
+                    results[index] = BatchOrderResultDTO.builder()
+                            .index(index).created(false).error(e.getMessage()).build();
+                }
+            }
+        }
+
+        // A till that sent the same order twice in one batch gets the first copy's outcome
+        for (int index : repeats) {
+            BatchOrderResultDTO first = results[firstIndexByClientId.get(dtos.get(index).getClientOrderId())];
+            results[index] = first.getOrderId() != null
+                    ? BatchOrderResultDTO.builder().index(index).duplicate(true).orderId(first.getOrderId()).build()
+                    : BatchOrderResultDTO.builder().index(index).created(false).error(first.getError()).build();
+        }
+
+        List<BatchOrderResultDTO> resultList = List.of(results);
+        int createdCount = (int) resultList.stream().filter(BatchOrderResultDTO::isCreated).count();
+        int duplicateCount = (int) resultList.stream().filter(BatchOrderResultDTO::isDuplicate).count();
+        return BatchOrderResponseDTO.builder()
+                .createdCount(createdCount)
+                .duplicateCount(duplicateCount)
+                .failedCount(resultList.size() - createdCount - duplicateCount)
+                .results(resultList)
+                .build();
+    }
+
+    /**
+     * Stores one chunk of a sync batch inside its own transaction. Orders whose
+     * clientOrderId is already stored are reported as duplicates, not created again.
+     * Cashier, branch and products are looked up again per chunk and the persistence
+     * context is cleared before commit, so every chunk works on managed entities
+     * and the context does not grow across chunks.
+     */
+    private List<BatchOrderResultDTO> saveBatchChunk(List<OrderDTO> dtos,
+                                                     List<Integer> chunk,
+                                                     Long cashierId,
+                                                     Long branchId) {
+        Map<String, Long> stored = new HashMap<>();
+        orderRepository.findIdsByClientOrderIdIn(chunk.stream().map(index -> dtos.get(index).getClientOrderId()).toList())
+                .forEach(row -> stored.put((String) row[0], (Long) row[1]));
+
+        User cashier = entityManager.getReference(User.class, cashierId);
+        Branch branch = entityManager.getReference(Branch.class, branchId);
+        Set<Long> productIds = chunk.stream()
+                .flatMap(index -> dtos.get(index).getItems().stream())
+                .map(OrderItemDTO::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<BatchOrderResultDTO> chunkResults = new ArrayList<>(chunk.size());
+        List<Integer> createdIndexes = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        Map<Long, Integer> soldQuantities = new HashMap<>();
+        for (int index : chunk) {
+            OrderDTO dto = dtos.get(index);
+            Long storedId = stored.get(dto.getClientOrderId());
+            if (storedId != null) {
+                chunkResults.add(BatchOrderResultDTO.builder().index(index).duplicate(true).orderId(storedId).build());
+                continue;
+            }
+            Order order = buildOrder(dto, cashier, branch, products, dto.getCreatedAt());
+            order.setClientOrderId(dto.getClientOrderId());
+            orders.add(order);
+            createdIndexes.add(index);
+            dto.getItems().forEach(item ->
+                    soldQuantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+        }
+
+        List<Order> persisted = orderRepository.saveAll(orders);
+        persisted.forEach(order -> eventPublisher.publishEvent(OrderPlacedEvent.of(order)));
+        if (!soldQuantities.isEmpty()) {
+            inventoryService.decrementStockClamped(branchId, soldQuantities);
+        }
+        orderRepository.flush();
+        for (int j = 0; j < persisted.size(); j++) {
+            chunkResults.add(BatchOrderResultDTO.builder()
+                    .index(createdIndexes.get(j)).created(true).orderId(persisted.get(j).getId()).build());
+        }
+        entityManager.clear();
+        return chunkResults;
+    }
+
+    private String validateBatchOrder(OrderDTO dto,
+                                      Map<Long, Product> products,
+                                      Long storeId,
+                                      LocalDateTime now) {
+        if (dto.getClientOrderId() == null || dto.getClientOrderId().isBlank()) {
+            return "clientOrderId is required";
+        }
+        if (dto.getClientOrderId().length() > 64) {
+            return "clientOrderId is longer than 64 characters";
+        }
+        if (dto.getItems() == null || dto.getItems().isEmpty()) {
+            return "Order has no items";
+        }
+        if (dto.getCreatedAt() != null && dto.getCreatedAt().isAfter(now)) {
+            return "createdAt is in the future";
+        }
+        for (OrderItemDTO item : dto.getItems()) {
+            Product product = products.get(item.getProductId());
+            if (product == null) {
+                return "Product not found: " + item.getProductId();
+            }
+            if (product.getStore() == null || !product.getStore().getId().equals(storeId)) {
+                return "Product does not belong to this store: " + item.getProductId();
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                return "Invalid quantity for product " + item.getProductId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds an order and its lines priced from the already loaded products.
+     * A null createdAt means "now" (stamped on persist).
+     */
+    private Order buildOrder(OrderDTO dto,
+                             User cashier,
+                             Branch branch,
+                             Map<Long, Product> products,
+                             LocalDateTime createdAt) {
         Order order = Order.builder()
                 .branch(branch)
                 .cashier(cashier)
                 .customer(dto.getCustomer())
                 .paymentType(dto.getPaymentType())
+                .createdAt(createdAt)
                 .build();
 
         List<OrderItem> orderItems = dto.getItems().stream().map(itemDto -> {
-            Product product = productRepository.findById(itemDto.getProductId())
-                    .orElseThrow(() -> new EntityNotFoundException("Product not found"));
+            Product product = products.get(itemDto.getProductId());
 
             return OrderItem.builder()
                     .product(product)
                     .quantity(itemDto.getQuantity())
-                    .price(product.getSellingPrice() * itemDto.getQuantity())
+                    .unitPrice(product.getSellingPrice())
+                    .lineTotal(product.getSellingPrice().times(itemDto.getQuantity()))
                     .order(order)
 
                     .build();
         }).toList();
 
-        double total = orderItems.stream().mapToDouble(OrderItem::getPrice).sum();
-        order.setTotalAmount(total);
+        long totalMinor = orderItems.stream().mapToLong(item -> item.getLineTotal().getMinorUnits()).sum();
+        order.setTotalAmount(Money.ofMinor(totalMinor));
         order.setItems(orderItems);
+        return order;
+    }
+
+    /**
+     * Resolves every product of the basket with a single bulk fetch and rejects
+     * missing or cross-store products in one pass.
+     */
+    private Map<Long, Product> loadProducts(List<OrderItemDTO> items, Branch branch) throws UserException {
+        Set<Long> productIds = items.stream()
+                .map(OrderItemDTO::getProductId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<Long> missing = productIds.stream()
+                .filter(id -> !products.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new EntityNotFoundException("Products not found: " + missing);
+        }
+
+        Long storeId = branch.getStore() != null ? branch.getStore().getId() : null;
+        List<Long> foreign = products.values().stream()
+                .filter(p -> p.getStore() == null || !p.getStore().getId().equals(storeId))
+                .map(Product::getId)
+                .toList();
+        if (!foreign.isEmpty()) {
+            throw new UserException("Products do not belong to this store: " + foreign);
+        }
+
+        return products;
+    }
 
-        return OrderMapper.toDto(orderRepository.save(order));
+    private Map<Long, Integer> sumQuantities(List<OrderItemDTO> items) throws UserException {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (OrderItemDTO item : items) {
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new UserException("Invalid quantity for product " + item.getProductId());
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
     }
 
     @Override
@@ -76,41 +350,50 @@ public class OrderServiceImpl implements OrderService {
 
 
     @Override
-    public List<OrderDTO> getOrdersByBranch(Long branchId,
-                                            Long customerId,
-                                            Long cashierId,
-                                            PaymentType paymentType,
-                                            OrderStatus status) {
-        return orderRepository.findByBranchId(branchId).stream()
-
-                // ✅ Filter by Customer ID (if provided)
-                .filter(order -> customerId == null ||
-                        (order.getCustomer() != null &&
-                                order.getCustomer().getId().equals(customerId)))
-
-                // ✅ Filter by Cashier ID (if provided)
-                .filter(order -> cashierId==null ||
-                        (order.getCashier() != null &&
-                                order.getCashier().getId().equals(cashierId)))
-
-                // ✅ Filter by Payment Type (if provided)
-                .filter(order -> paymentType == null ||
-                        order.getPaymentType() == paymentType)
-
-                // ✅ Filter by Status (if provided)
-//                .filter(order -> status() == null ||
-//                        order.getStatus() == status)
-
-                // ✅ Map to DTO
-                .map(OrderMapper::toDto)
-
-                // ✅ Sort by createdAt (latest first)
-                .sorted((o1, o2) -> o2.getCreatedAt().compareTo(o1.getCreatedAt()))
+    public CursorPage<OrderDTO> getOrdersByBranch(Long branchId,
+                                                  Long customerId,
+                                                  Long cashierId,
+                                                  PaymentType paymentType,
+                                                  OrderStatus status,
+                                                  String cursor,
+                                                  int limit) {
+        Specification<Order> spec = Specification.allOf(
+                OrderSpecifications.branchId(branchId),
+                OrderSpecifications.customerId(customerId),
+                OrderSpecifications.cashierId(cashierId),
+                OrderSpecifications.paymentType(paymentType),
+                OrderSpecifications.status(status),
+                OrderSpecifications.before(KeysetCursor.decode(cursor))
+        );
+
+        // Fetch one extra row to learn whether another page exists. The page query
+        // leaves out the items collection so its LIMIT still runs in SQL
+        List<Order> rows = orderRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                .project("branch", "cashier", "customer")
+                .limit(limit + 1)
+                .all());
+
+        boolean hasMore = rows.size() > limit;
+        List<Order> page = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
 
-                .collect(Collectors.toList());
-//        return orderRepository.findByBranchId(branchId).stream()
-//                .map(OrderMapper::toDto)
-//                .collect(Collectors.toList());
+        // Items, products and categories of just this page, in one more query
+        Map<Long, Order> detailed = page.isEmpty() ? Map.of() : orderRepository
+                .findByIdIn(page.stream().map(Order::getId).toList()).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity(), (a, b) -> a));
+
+        return new CursorPage<>(
+                page.stream()
+                        .map(order -> OrderMapper.toDto(detailed.getOrDefault(order.getId(), order)))
+                        .collect(Collectors.toList()),
+                nextCursor,
+                hasMore);
     }
 
     @Override
@@ -121,11 +404,13 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional
     public void deleteOrder(Long id) {
-        if (!orderRepository.existsById(id)) {
-            throw new EntityNotFoundException("Order not found");
-        }
-        orderRepository.deleteById(id);
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Order not found"));
+        // Snapshot taken before the delete; listeners subtract it once the delete commits
+        eventPublisher.publishEvent(OrderDeletedEvent.of(order));
+        orderRepository.delete(order);
     }
 
     @Override
@@ -5,6 +5,7 @@ import com.zosh.domain.UserRole;
 import com.zosh.exception.AccessDeniedException;
 import com.zosh.mapper.ProductMapper;
 import com.zosh.modal.Category;
+import com.zosh.modal.Money;
 import com.zosh.modal.Product;
 import com.zosh.modal.Store;
 import com.zosh.modal.User;
@@ -66,7 +67,7 @@ public class ProductServiceImpl implements ProductService {
         existing.setSku(dto.getSku());
         existing.setDescription(dto.getDescription());
         existing.setMrp(dto.getMrp());
-        existing.setSellingPrice(dto.getSellingPrice());
+        existing.setSellingPrice(Money.ofMajor(dto.getSellingPrice()));
         existing.setBrand(dto.getBrand());
         existing.setImage(dto.getImage());
         existing.setCategory(category);
@@ -1,27 +1,42 @@
 package com.zosh.service.impl;
 
 import com.zosh.domain.OrderStatus;
+import com.zosh.domain.UserRole;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
 import com.zosh.exception.ResourceNotFoundException;
 import com.zosh.exception.UserException;
 import com.zosh.mapper.RefundMapper;
 import com.zosh.modal.Branch;
+import com.zosh.modal.Money;
 import com.zosh.modal.Order;
 import com.zosh.modal.Refund;
+import com.zosh.modal.Store;
 import com.zosh.modal.User;
 import com.zosh.payload.dto.RefundDTO;
+import com.zosh.payload.response.CursorPage;
 import com.zosh.repository.BranchRepository;
 import com.zosh.repository.OrderRepository;
 import com.zosh.repository.RefundRepository;
+import com.zosh.repository.RefundSpecifications;
+import com.zosh.repository.StoreRepository;
 import com.zosh.service.RefundService;
 import com.zosh.service.UserService;
+import com.zosh.util.KeysetCursor;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +46,11 @@ public class RefundServiceImpl implements RefundService {
     private final OrderRepository orderRepository;
     private final UserService userService;
     private final BranchRepository branchRepository;
+    private final StoreRepository storeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final String CSV_HEADER =
+            "id,orderId,branchId,shiftReportId,cashierName,paymentType,amount,reason,createdAt\n";
 
     @Override
     @Transactional
@@ -49,6 +69,7 @@ public class RefundServiceImpl implements RefundService {
         refund.setCashier(currentCashier);
         refund.setReason(refundDTO.getReason());
         refund.setAmount(order.getTotalAmount());
+        refund.setPaymentType(order.getPaymentType());
         // ✅ REMOVED: createdAt is now auto-set by @PrePersist
         refund.setBranch(branch);
 
@@ -56,17 +77,33 @@ public class RefundServiceImpl implements RefundService {
         Refund savedRefund=refundRepository.save(refund);
         order.setStatus(OrderStatus.REFUNDED);
         orderRepository.save(order);
+        eventPublisher.publishEvent(RefundIssuedEvent.of(savedRefund));
         return savedRefund;
     }
 
     @Override
-    public List<Refund> getAllRefunds() {
-        return refundRepository.findAll();
-    }
+    public CursorPage<RefundDTO> getRefunds(Long branchId,
+                                            Long cashierId,
+                                            LocalDateTime from,
+                                            LocalDateTime to,
+                                            String cursor,
+                                            int limit) throws UserException {
+        Specification<Refund> spec = filters(callerStoreId(), branchId, cashierId, from, to)
+                .and(RefundSpecifications.before(KeysetCursor.decode(cursor)));
+
+        // Fetch one extra row to learn whether another page exists
+        List<RefundDTO> rows = refundRepository.findSummaries(spec, limit + 1);
+
+        boolean hasMore = rows.size() > limit;
+        List<RefundDTO> page = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            RefundDTO last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
 
-    @Override
-    public List<Refund> getRefundsByCashier(Long cashierId) {
-        return refundRepository.findByCashierId(cashierId);
+        return new CursorPage<>(page, nextCursor, hasMore);
     }
 
     @Override
@@ -75,14 +112,38 @@ public class RefundServiceImpl implements RefundService {
     }
 
     @Override
-    public List<Refund> getRefundsByCashierAndDateRange(Long cashierId, LocalDateTime from, LocalDateTime to) {
-        return refundRepository.findByCashierIdAndCreatedAtBetween(cashierId, from, to);
+    public List<RefundDTO> getRefundsByCashierAndDateRange(Long cashierId, LocalDateTime from, LocalDateTime to) {
+        // Inclusive upper bound, as the endpoint has always treated it
+        return refundRepository.findSummaries(filters(null, null, cashierId, from, to.plusNanos(1)), 0);
     }
 
     @Override
-    public List<Refund> getRefundsByBranch(Long branchId) {
-        List<Refund> refunds= refundRepository.findByBranchId(branchId);
-        return refunds;
+    @Transactional
+    public void exportRefundsCsv(Long branchId,
+                                 Long cashierId,
+                                 LocalDateTime from,
+                                 LocalDateTime to,
+                                 Writer writer) throws IOException, UserException {
+        Specification<Refund> spec = filters(callerStoreId(), branchId, cashierId, from, to);
+        writer.write(CSV_HEADER);
+        try (Stream<Object[]> rows = refundRepository.streamForExport(spec)) {
+            Iterator<Object[]> it = rows.iterator();
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                writer.write(String.join(",",
+                        csv(row[0]),
+                        csv(row[1]),
+                        csv(row[2]),
+                        csv(row[3]),
+                        csv(row[4]),
+                        csv(row[5]),
+                        row[6] != null ? Money.ofMinor(((Number) row[6]).longValue()).toString() : "",
+                        csv(row[7]),
+                        csv(row[8])));
+                writer.write("\n");
+            }
+        }
+        writer.flush();
     }
 
     @Override
@@ -92,11 +153,58 @@ public class RefundServiceImpl implements RefundService {
     }
 
     @Override
+    @Transactional
     public void deleteRefund(Long refundId) throws ResourceNotFoundException {
-        if (!refundRepository.existsById(refundId)) {
-            throw new ResourceNotFoundException("Refund not found");
+        Refund refund = refundRepository.findById(refundId)
+                .orElseThrow(() -> new ResourceNotFoundException("Refund not found"));
+        // Snapshot taken before the delete; listeners subtract it once the delete commits
+        eventPublisher.publishEvent(RefundDeletedEvent.of(refund));
+        refundRepository.delete(refund);
+    }
+
+    // Only the filters that are set; to is exclusive
+    private static Specification<Refund> filters(Long storeId,
+                                                 Long branchId,
+                                                 Long cashierId,
+                                                 LocalDateTime from,
+                                                 LocalDateTime to) {
+        return Specification.allOf(
+                RefundSpecifications.storeId(storeId),
+                RefundSpecifications.branchId(branchId),
+                RefundSpecifications.cashierId(cashierId),
+                RefundSpecifications.createdFrom(from),
+                RefundSpecifications.createdBefore(to));
+    }
+
+    // Store whose refunds the caller may read; null for platform admins, who see every store
+    private Long callerStoreId() throws UserException {
+        User user = userService.getCurrentUser();
+        if (user.getRole() == UserRole.ROLE_ADMIN) {
+            return null;
+        }
+        if (user.getStore() != null) {
+            return user.getStore().getId();
+        }
+        if (user.getBranch() != null && user.getBranch().getStore() != null) {
+            return user.getBranch().getStore().getId();
+        }
+        Store owned = storeRepository.findByStoreAdminId(user.getId());
+        if (owned == null) {
+            throw new UserException("No store is linked to this user");
+        }
+        return owned.getId();
+    }
+
+    // Quotes a CSV field when it holds a separator, quote or line break
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
         }
-        refundRepository.deleteById(refundId);
+        return text;
     }
 
 
@@ -0,0 +1,62 @@
+package com.zosh.service.impl;
+
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+import com.zosh.service.ShiftReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Advances the running totals of open shifts with committed orders and refunds,
+ * and deletions of either.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShiftProgressListener {
+
+    private final ShiftReportService shiftReportService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        try {
+            shiftReportService.onOrderPlaced(event);
+        } catch (Exception e) {
+            log.error("Error applying order {} to shift totals of cashier {}", event.orderId(), event.cashierId(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        try {
+            shiftReportService.onOrderDeleted(event);
+        } catch (Exception e) {
+            log.error("Error removing deleted order {} from shift totals of cashier {}",
+                    event.order().orderId(), event.order().cashierId(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRefundIssued(RefundIssuedEvent event) {
+        try {
+            shiftReportService.onRefundIssued(event);
+        } catch (Exception e) {
+            log.error("Error applying refund {} to shift totals of cashier {}", event.refundId(), event.cashierId(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRefundDeleted(RefundDeletedEvent event) {
+        try {
+            shiftReportService.onRefundDeleted(event);
+        } catch (Exception e) {
+            log.error("Error removing deleted refund {} from shift totals of cashier {}",
+                    event.refund().refundId(), event.refund().cashierId(), e);
+        }
+    }
+}
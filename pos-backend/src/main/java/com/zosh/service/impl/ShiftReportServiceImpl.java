@@ -3,30 +3,76 @@ package com.zosh.service.impl;
 
 
 import com.zosh.domain.PaymentType;
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
 import com.zosh.exception.UserException;
 import com.zosh.modal.*;
+import com.zosh.payload.dto.ShiftSummaryDTO;
+import com.zosh.payload.response.CursorPage;
 import com.zosh.repository.*;
 import com.zosh.service.ShiftReportService;
 import com.zosh.service.UserService;
+import com.zosh.util.KeysetCursor;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Open shifts keep running totals per cashier, advanced by committed orders and
+ * refunds, so shift progress is read without reloading the shift's orders. Totals
+ * are rebuilt from the database only when missing, e.g. after a restart.
+ */
 @Service
-@RequiredArgsConstructor
 public class ShiftReportServiceImpl implements ShiftReportService {
 
+    private static final int RECENT_ORDERS = 5;
+    private static final int TOP_PRODUCTS = 5;
+
     private final ShiftReportRepository shiftReportRepository;
     private final UserRepository userRepository;
     private final BranchRepository branchRepository;
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductRepository productRepository;
     private final RefundRepository refundRepository;
     private final UserService userService;
+    private final TransactionTemplate snapshotRead;
+
+    private final Map<Long, ShiftTotals> openShifts = new ConcurrentHashMap<>();
+
+    public ShiftReportServiceImpl(ShiftReportRepository shiftReportRepository,
+                                  UserRepository userRepository,
+                                  BranchRepository branchRepository,
+                                  OrderRepository orderRepository,
+                                  OrderItemRepository orderItemRepository,
+                                  ProductRepository productRepository,
+                                  RefundRepository refundRepository,
+                                  UserService userService,
+                                  PlatformTransactionManager transactionManager) {
+        this.shiftReportRepository = shiftReportRepository;
+        this.userRepository = userRepository;
+        this.branchRepository = branchRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.productRepository = productRepository;
+        this.refundRepository = refundRepository;
+        this.userService = userService;
+        this.snapshotRead = new TransactionTemplate(transactionManager);
+        snapshotRead.setReadOnly(true);
+        snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
 
     @Override
     public ShiftReport startShift(Long cashierId,
@@ -58,7 +104,9 @@ public class ShiftReportServiceImpl implements ShiftReportService {
         shift.setBranch(branch);
         shift.setShiftStart(shiftStart);
 
-        return shiftReportRepository.save(shift);
+        ShiftReport saved = shiftReportRepository.save(shift);
+        openShifts.put(currentUser.getId(), new ShiftTotals(saved.getId(), saved.getShiftStart()));
+        return saved;
     }
 
     @Override
@@ -76,32 +124,37 @@ public class ShiftReportServiceImpl implements ShiftReportService {
                 );
 
         shift.setShiftEnd(shiftEnd);
-
-        List<Order> orders = orderRepository.findByCashierAndCreatedAtBetween(
-                shift.getCashier(), shift.getShiftStart(), shiftEnd
-        );
-
-        List<Refund> refunds = refundRepository.findByCashierAndCreatedAtBetween(
-                shift.getCashier(), shift.getShiftStart(), shiftEnd
-        );
-
-        double totalRefunds = refunds.stream()
-                .mapToDouble(refund -> refund.getAmount() != null ? refund.getAmount() : 0.0)
-                .sum();
-
-        double totalSales = orders.stream().mapToDouble(Order::getTotalAmount).sum();
-        int totalOrders = orders.size();
-//        double totalRefunds = refunds.stream().mapToDouble(Refund::getAmount).sum();
-        double netSales = totalSales - totalRefunds;
-
-        shift.setTotalSales(totalSales);
-        shift.setTotalOrders(totalOrders);
-        shift.setTotalRefunds(totalRefunds);
-        shift.setNetSales(netSales);
-        shift.setRecentOrders(getRecentOrders(orders));
-        shift.setTopSellingProducts(getTopSellingProducts(orders));
-        shift.setPaymentSummaries(getPaymentSummaries(orders, totalSales));
-        shift.setRefunds(refunds);
+        openShifts.remove(currentUser.getId());
+
+        // Totals, payment breakdown and top sellers are grouped in SQL, so closing a
+        // shift costs the same handful of queries however many orders it holds
+        Long cashierId = shift.getCashier().getId();
+        LocalDateTime start = shift.getShiftStart();
+
+        Map<PaymentType, long[]> payments = paymentCounters(
+                orderRepository.sumSalesByPaymentTypeForCashier(cashierId, start, shiftEnd));
+        long totalSales = payments.values().stream().mapToLong(counter -> counter[0]).sum();
+        long totalOrders = payments.values().stream().mapToLong(counter -> counter[1]).sum();
+
+        long totalRefunds = refundRepository.sumRefundsByCashierBetween(cashierId, start, shiftEnd);
+        refundRepository.linkToShiftReport(shift, cashierId, start, shiftEnd);
+
+        List<Long> topProductIds = orderItemRepository
+                .findTopProductsByCashierBetween(cashierId, start, shiftEnd, PageRequest.of(0, TOP_PRODUCTS))
+                .stream()
+                .map(row -> ((Number) row[0]).longValue())
+                .toList();
+
+        shift.setTotalSales(Money.ofMinor(totalSales));
+        shift.setTotalOrders((int) totalOrders);
+        shift.setTotalRefunds(Money.ofMinor(totalRefunds));
+        shift.setNetSales(Money.ofMinor(totalSales - totalRefunds));
+        shift.setRecentOrders(new ArrayList<>(orderRepository
+                .findTop5ByCashierIdAndCreatedAtBetweenOrderByCreatedAtDesc(cashierId, start, shiftEnd)));
+        shift.setTopSellingProducts(inOrder(topProductIds,
+                productRepository.findAllById(topProductIds), Product::getId));
+        shift.setPaymentSummaries(paymentSummaries(payments, totalSales));
+        shift.setRefunds(refundRepository.findByShiftReportId(shift.getId()));
 
         return shiftReportRepository.save(shift);
     }
@@ -113,8 +166,36 @@ public class ShiftReportServiceImpl implements ShiftReportService {
     }
 
     @Override
-    public List<ShiftReport> getAllShiftReports() {
-        return shiftReportRepository.findAll();
+    public CursorPage<ShiftSummaryDTO> getShiftSummaries(Long branchId,
+                                                         LocalDateTime from,
+                                                         LocalDateTime to,
+                                                         String cursor,
+                                                         int limit) {
+        if (branchId != null && !branchRepository.existsById(branchId)) {
+            throw new EntityNotFoundException("Branch not found");
+        }
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        // Fetch one extra row to learn whether another page exists
+        List<ShiftSummaryDTO> rows = shiftReportRepository.findSummaries(
+                branchId,
+                from,
+                to,
+                position != null ? position.getCreatedAt() : null,
+                position != null ? position.getId() : null,
+                PageRequest.of(0, limit + 1));
+
+        boolean hasMore = rows.size() > limit;
+        List<ShiftSummaryDTO> page = hasMore ? rows.subList(0, limit) : rows;
+        attachPaymentSummaries(page);
+
+        String nextCursor = null;
+        if (hasMore) {
+            ShiftSummaryDTO last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getShiftStart(), last.getId()).encode();
+        }
+
+        return new CursorPage<>(page, nextCursor, hasMore);
     }
 
     @Override
@@ -124,13 +205,6 @@ public class ShiftReportServiceImpl implements ShiftReportService {
         return shiftReportRepository.findByCashier(cashier);
     }
 
-    @Override
-    public List<ShiftReport> getShiftReportsByBranch(Long branchId) {
-        Branch branch = branchRepository.findById(branchId)
-                .orElseThrow(() -> new RuntimeException("Branch not found"));
-        return shiftReportRepository.findByBranch(branch);
-    }
-
     @Override
     public ShiftReport getCurrentShiftProgress(Long cashierId) throws UserException {
         User cashier=userService.getCurrentUser();
@@ -141,36 +215,69 @@ public class ShiftReportServiceImpl implements ShiftReportService {
                 .findTopByCashierAndShiftEndIsNullOrderByShiftStartDesc(cashier)
                 .orElseThrow(() -> new RuntimeException("No active shift found for this cashier"));
 
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Order> orders = orderRepository.findByCashierAndCreatedAtBetween(
-                cashier, shift.getShiftStart(), now
-        );
+        ShiftTotals totals = totalsFor(shift);
+
+        long totalSales;
+        long totalRefunds;
+        List<Long> recentOrderIds;
+        List<Long> topProductIds;
+        List<Long> refundIds;
+        List<PaymentSummary> paymentSummaries;
+        synchronized (totals) {
+            totalSales = totals.salesMinor;
+            totalRefunds = totals.refundMinor;
+            shift.setTotalOrders(totals.orderIds.size());
+            recentOrderIds = List.copyOf(totals.recentOrderIds);
+            topProductIds = totals.topProductIds(TOP_PRODUCTS);
+            refundIds = List.copyOf(totals.refundIds);
+            paymentSummaries = totals.paymentSummaries();
+        }
 
-        List<Refund> refunds = refundRepository.findByCashierAndCreatedAtBetween(
-                cashier, shift.getShiftStart(), now
-        );
+        shift.setTotalSales(Money.ofMinor(totalSales));
+        shift.setTotalRefunds(Money.ofMinor(totalRefunds));
+        shift.setNetSales(Money.ofMinor(totalSales - totalRefunds));
+        shift.setRecentOrders(inOrder(recentOrderIds,
+                orderRepository.findByIdIn(recentOrderIds), Order::getId));
+        shift.setTopSellingProducts(inOrder(topProductIds,
+                productRepository.findAllById(topProductIds), Product::getId));
+        shift.setPaymentSummaries(paymentSummaries);
+        shift.setRefunds(refundIds.isEmpty() ? new ArrayList<>() : refundRepository.findAllById(refundIds));
 
-        double totalSales = orders.stream().mapToDouble(Order::getTotalAmount).sum();
-        int totalOrders = orders.size();
-//        double totalRefunds = refunds.stream().mapToDouble(Refund::getAmount).sum();
-        double totalRefunds = refunds.stream()
-                .mapToDouble(refund -> refund.getAmount() != null ? refund.getAmount() : 0.0)
-                .sum();
+        return shift;
+    }
 
-        double netSales = totalSales - totalRefunds;
+    @Override
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        ShiftTotals totals = event.cashierId() != null ? openShifts.get(event.cashierId()) : null;
+        if (totals != null) {
+            totals.applyOrder(event);
+        }
+    }
 
-        shift.setTotalSales(totalSales);
-        shift.setTotalOrders(totalOrders);
-        shift.setTotalRefunds(totalRefunds);
-        shift.setNetSales(netSales);
-        shift.setRecentOrders(getRecentOrders(orders));
-        shift.setTopSellingProducts(getTopSellingProducts(orders));
+    @Override
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        OrderPlacedEvent order = event.order();
+        ShiftTotals totals = order.cashierId() != null ? openShifts.get(order.cashierId()) : null;
+        if (totals != null) {
+            totals.removeOrder(order);
+        }
+    }
 
-        shift.setPaymentSummaries(getPaymentSummaries(orders, totalSales));
-        shift.setRefunds(refunds);
+    @Override
+    public void onRefundIssued(RefundIssuedEvent event) {
+        ShiftTotals totals = event.cashierId() != null ? openShifts.get(event.cashierId()) : null;
+        if (totals != null) {
+            totals.applyRefund(event);
+        }
+    }
 
-        return shift;
+    @Override
+    public void onRefundDeleted(RefundDeletedEvent event) {
+        RefundIssuedEvent refund = event.refund();
+        ShiftTotals totals = refund.cashierId() != null ? openShifts.get(refund.cashierId()) : null;
+        if (totals != null) {
+            totals.removeRefund(refund);
+        }
     }
 
     @Override
@@ -186,70 +293,219 @@ public class ShiftReportServiceImpl implements ShiftReportService {
     }
 
     @Override
+    @Transactional
     public void deleteShiftReport(Long id) {
         if (!shiftReportRepository.existsById(id)) {
             throw new RuntimeException("Shift report not found");
         }
+        refundRepository.unlinkFromShiftReport(id);
         shiftReportRepository.deleteById(id);
     }
 
     // ----------------- HELPER METHODS -----------------
 
-    private List<Order> getRecentOrders(List<Order> orders) {
-        return orders.stream()
-                .sorted(Comparator.comparing(Order::getCreatedAt).reversed())
-                .limit(5)
+    // Running totals of the cashier's open shift, rebuilt when missing or left over from an earlier shift
+    private ShiftTotals totalsFor(ShiftReport shift) {
+        Long cashierId = shift.getCashier().getId();
+        ShiftTotals totals = openShifts.get(cashierId);
+        if (totals != null && totals.shiftId.equals(shift.getId())) {
+            return totals;
+        }
+
+        ShiftTotals rebuilt = new ShiftTotals(shift.getId(), shift.getShiftStart());
+        // Registered before loading so events committed meanwhile wait for the load, then dedupe by id.
+        // The three reads share one snapshot, so the quantities cover exactly the loaded orders and an
+        // order committed between two of them cannot be counted in one and skipped as a duplicate later.
+        synchronized (rebuilt) {
+            openShifts.put(cashierId, rebuilt);
+            snapshotRead.executeWithoutResult(status -> rebuilt.load(
+                    orderRepository.findOrderTotalsByCashierSince(cashierId, shift.getShiftStart()),
+                    orderItemRepository.sumQuantityByProductForCashierSince(cashierId, shift.getShiftStart()),
+                    refundRepository.findRefundAmountsByCashierSince(cashierId, shift.getShiftStart())));
+        }
+        return rebuilt;
+    }
+
+    // Stored payment summaries for a whole page in one query
+    private void attachPaymentSummaries(List<ShiftSummaryDTO> page) {
+        if (page.isEmpty()) {
+            return;
+        }
+        Map<Long, ShiftSummaryDTO> byId = page.stream()
+                .collect(Collectors.toMap(ShiftSummaryDTO::getId, Function.identity()));
+        for (Object[] row : shiftReportRepository.findPaymentSummaries(byId.keySet())) {
+            byId.get((Long) row[0]).getPaymentSummaries().add(new PaymentSummary(
+                    (PaymentType) row[1],
+                    Money.ofMinor(ShiftTotals.minor(row[2])),
+                    ((Number) row[3]).intValue(),
+                    ((Number) row[4]).doubleValue()));
+        }
+    }
+
+    // Reorders the loaded entities to follow the ranked ids
+    private static <T> List<T> inOrder(List<Long> ids, List<T> loaded, Function<T, Long> idOf) {
+        Map<Long, T> byId = loaded.stream().collect(Collectors.toMap(idOf, Function.identity(), (a, b) -> a));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
-    private List<Product> getTopSellingProducts(List<Order> orders) {
-        Map<Product, Integer> productSalesMap = new HashMap<>();
+    // Grouped (payment type, amount, count) rows as counters, orders without a type counted as cash
+    private static Map<PaymentType, long[]> paymentCounters(List<Object[]> rows) {
+        Map<PaymentType, long[]> payments = new EnumMap<>(PaymentType.class);
+        for (Object[] row : rows) {
+            PaymentType type = row[0] != null ? (PaymentType) row[0] : PaymentType.CASH;
+            long[] counter = payments.computeIfAbsent(type, t -> new long[2]);
+            counter[0] += ShiftTotals.minor(row[1]);
+            counter[1] += ShiftTotals.minor(row[2]);
+        }
+        return payments;
+    }
+
+    private static List<PaymentSummary> paymentSummaries(Map<PaymentType, long[]> payments, long totalSales) {
+        List<PaymentSummary> summaries = new ArrayList<>();
+        payments.forEach((type, counter) -> summaries.add(new PaymentSummary(
+                type,
+                Money.ofMinor(counter[0]),
+                (int) counter[1],
+                totalSales != 0 ? (counter[0] * 100.0) / totalSales : 0.0)));
+        return summaries;
+    }
+
+    private static final class ShiftTotals {
+        private final Long shiftId;
+        private final LocalDateTime shiftStart;
+        private final Set<Long> orderIds = new HashSet<>();
+        private final Set<Long> refundIds = new LinkedHashSet<>();
+        private long salesMinor;
+        private long refundMinor;
+        private final Map<PaymentType, long[]> payments = new EnumMap<>(PaymentType.class); // {amount, count}
+        private final Map<Long, Long> productQuantities = new HashMap<>();
+        private final List<Long> recentOrderIds = new ArrayList<>(); // newest first
+        private final List<LocalDateTime> recentOrderTimes = new ArrayList<>();
+
+        private ShiftTotals(Long shiftId, LocalDateTime shiftStart) {
+            this.shiftId = shiftId;
+            this.shiftStart = shiftStart;
+        }
 
-        for (Order order : orders) {
-            for (OrderItem item : order.getItems()) {
-                Product product = item.getProduct();
-                productSalesMap.put(product, productSalesMap.getOrDefault(product, 0) + item.getQuantity());
+        private synchronized void load(List<Object[]> orders, List<Object[]> quantities, List<Object[]> refunds) {
+            for (Object[] row : orders) {
+                Long orderId = ((Number) row[0]).longValue();
+                if (orderIds.add(orderId)) {
+                    addSale(minor(row[1]), row[2] != null ? (PaymentType) row[2] : PaymentType.CASH);
+                    addRecent(orderId, (LocalDateTime) row[3]);
+                }
+            }
+            for (Object[] row : quantities) {
+                productQuantities.merge(((Number) row[0]).longValue(), minor(row[1]), Long::sum);
+            }
+            for (Object[] row : refunds) {
+                if (refundIds.add(((Number) row[0]).longValue())) {
+                    refundMinor += minor(row[1]);
+                }
             }
         }
 
-        return productSalesMap.entrySet().stream()
-                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-                .limit(5)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-    }
+        private synchronized void applyOrder(OrderPlacedEvent event) {
+            if (!inShift(event.createdAt()) || !orderIds.add(event.orderId())) {
+                return;
+            }
+            addSale(event.totalMinor(), event.paymentType());
+            addRecent(event.orderId(), event.createdAt());
+            for (OrderPlacedEvent.Line line : event.lines()) {
+                productQuantities.merge(line.productId(), (long) line.quantity(), Long::sum);
+            }
+        }
 
-    private List<PaymentSummary> getPaymentSummaries(List<Order> orders,
-                                                     double totalSales) {
-//        Map<PaymentType, List<Order>> grouped = orders.stream()
-//                .collect(Collectors.groupingBy(Order::getPaymentType));
+        // Only an order this shift counted is taken back; the recent list refills on the next rebuild
+        private synchronized void removeOrder(OrderPlacedEvent event) {
+            if (!orderIds.remove(event.orderId())) {
+                return;
+            }
+            salesMinor -= event.totalMinor();
+            long[] counter = payments.get(event.paymentType());
+            if (counter != null) {
+                counter[0] -= event.totalMinor();
+                counter[1]--;
+                if (counter[1] <= 0) {
+                    payments.remove(event.paymentType());
+                }
+            }
+            int at = recentOrderIds.indexOf(event.orderId());
+            if (at >= 0) {
+                recentOrderIds.remove(at);
+                recentOrderTimes.remove(at);
+            }
+            for (OrderPlacedEvent.Line line : event.lines()) {
+                productQuantities.computeIfPresent(line.productId(),
+                        (id, quantity) -> quantity > line.quantity() ? quantity - line.quantity() : null);
+            }
+        }
 
-        Map<PaymentType, List<Order>> grouped = orders.stream()
-                .collect(Collectors.groupingBy(
-                        order -> order.getPaymentType() != null ?
-                                order.getPaymentType() : PaymentType.CASH
-                ));
+        private synchronized void applyRefund(RefundIssuedEvent event) {
+            if (inShift(event.createdAt()) && refundIds.add(event.refundId())) {
+                refundMinor += event.amountMinor();
+            }
+        }
 
+        private synchronized void removeRefund(RefundIssuedEvent event) {
+            if (refundIds.remove(event.refundId())) {
+                refundMinor -= event.amountMinor();
+            }
+        }
 
-        List<PaymentSummary> summaries = new ArrayList<>();
+        private boolean inShift(LocalDateTime createdAt) {
+            return createdAt != null && !createdAt.isBefore(shiftStart);
+        }
 
-        for (Map.Entry<PaymentType, List<Order>> entry : grouped.entrySet()) {
-            double amount = entry.getValue()
-                    .stream()
-                    .mapToDouble(Order::getTotalAmount)
-                    .sum();
-            int transactions = entry.getValue().size();
-            double percent = (amount / totalSales) * 100;
+        private void addSale(long amountMinor, PaymentType type) {
+            salesMinor += amountMinor;
+            long[] counter = payments.computeIfAbsent(type, t -> new long[2]);
+            counter[0] += amountMinor;
+            counter[1]++;
+        }
 
-            PaymentSummary ps = new PaymentSummary();
-            ps.setType(entry.getKey());
-            ps.setTotalAmount(amount);
-            ps.setTransactionCount(transactions);
-            ps.setPercentage(percent);
-            summaries.add(ps);
+        // Keeps the newest few orders, placing late deliveries by their creation time
+        private void addRecent(Long orderId, LocalDateTime createdAt) {
+            int at = 0;
+            while (at < recentOrderTimes.size() && recentOrderTimes.get(at).isAfter(createdAt)) {
+                at++;
+            }
+            if (at >= RECENT_ORDERS) {
+                return;
+            }
+            recentOrderIds.add(at, orderId);
+            recentOrderTimes.add(at, createdAt);
+            if (recentOrderIds.size() > RECENT_ORDERS) {
+                recentOrderIds.remove(RECENT_ORDERS);
+                recentOrderTimes.remove(RECENT_ORDERS);
+            }
         }
 
-        return summaries;
+        // Bounded min-heap over the shift's products, best seller first
+        private List<Long> topProductIds(int limit) {
+            PriorityQueue<Map.Entry<Long, Long>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Long> entry : productQuantities.entrySet()) {
+                heap.offer(entry);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            LinkedList<Long> ranked = new LinkedList<>();
+            while (!heap.isEmpty()) {
+                ranked.addFirst(heap.poll().getKey());
+            }
+            return ranked;
+        }
+
+        private List<PaymentSummary> paymentSummaries() {
+            return ShiftReportServiceImpl.paymentSummaries(payments, salesMinor);
+        }
+
+        private static long minor(Object value) {
+            return value != null ? ((Number) value).longValue() : 0L;
+        }
     }
 }
-
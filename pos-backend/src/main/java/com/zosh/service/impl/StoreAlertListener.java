@@ -0,0 +1,65 @@
+package com.zosh.service.impl;
+
+import com.zosh.event.InventoryChangedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+import com.zosh.service.StoreAlertService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Feeds committed orders, refunds and stock changes into the store alert engine.
+ *
+ * A failure here never affects the sale itself; the next reconcile reloads the store.
+ * Deleted orders are not listened for: they return no stock, and the last sale
+ * date they may leave behind is reloaded at the next reconcile
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StoreAlertListener {
+
+    private final StoreAlertService storeAlertService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        try {
+            storeAlertService.onOrderPlaced(event);
+        } catch (Exception e) {
+            log.error("Error applying order {} to alerts for store admin {}", event.orderId(), event.storeAdminId(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRefundIssued(RefundIssuedEvent event) {
+        try {
+            storeAlertService.onRefundIssued(event);
+        } catch (Exception e) {
+            log.error("Error applying refund {} to alerts for store admin {}", event.refundId(), event.storeAdminId(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRefundDeleted(RefundDeletedEvent event) {
+        try {
+            storeAlertService.onRefundDeleted(event);
+        } catch (Exception e) {
+            log.error("Error removing deleted refund {} from alerts for store admin {}",
+                    event.refund().refundId(), event.refund().storeAdminId(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        try {
+            storeAlertService.onInventoryChanged(event);
+        } catch (Exception e) {
+            log.error("Error applying stock change of product {} in branch {} to alerts",
+                    event.productId(), event.branchId(), e);
+        }
+    }
+}
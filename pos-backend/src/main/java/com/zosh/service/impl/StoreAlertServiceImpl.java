@@ -0,0 +1,480 @@
+package com.zosh.service.impl;
+
+import com.zosh.event.InventoryChangedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+import com.zosh.mapper.RefundMapper;
+import com.zosh.modal.Branch;
+import com.zosh.modal.Money;
+import com.zosh.payload.StoreAnalysis.StoreAlertDTO;
+import com.zosh.payload.dto.BranchDTO;
+import com.zosh.payload.dto.ProductDTO;
+import com.zosh.payload.dto.RefundDTO;
+import com.zosh.payload.dto.UserDTO;
+import com.zosh.repository.BranchRepository;
+import com.zosh.repository.OrderRepository;
+import com.zosh.repository.ProductRepository;
+import com.zosh.repository.RefundRepository;
+import com.zosh.repository.UserRepository;
+import com.zosh.service.InventoryService;
+import com.zosh.service.StoreAlertService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental store alert engine. Each watched store's alert state is loaded
+ * once and then kept in memory: committed orders re-check only the products
+ * they sold and mark their branch as having sales, refunds add to their
+ * branch's running total for the day, and stock edits re-check one product.
+ * Reads and SSE subscribers are served from that state without touching the
+ * database.
+ *
+ * A store is registered before its state is loaded, and events that arrive
+ * while a load runs are replayed on top of it under the store's lock, so a
+ * reload never drops a sale or refund that committed during its queries.
+ * Replays are harmless to repeat: sales keep the latest day, refunds are
+ * matched by id and low stock is re-checked per product.
+ *
+ * SSE writes run on a small pool. A subscriber still writing its previous
+ * update is skipped and sent the latest alerts once that write finishes.
+ */
+@Service
+@Slf4j
+public class StoreAlertServiceImpl implements StoreAlertService {
+
+    private static final long SSE_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    // Stores nobody has read or subscribed to for this long are dropped at reconcile
+    private static final long IDLE_EVICT_MS = 60 * 60 * 1000L;
+
+    private final BranchRepository branchRepository;
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final RefundRepository refundRepository;
+    private final UserRepository userRepository;
+    // SSE writes happen here, so a slow client never holds up the request that placed an order
+    private final ExecutorService pushExecutor;
+
+    private final Map<Long, StoreAlerts> stores = new ConcurrentHashMap<>();
+
+    public StoreAlertServiceImpl(BranchRepository branchRepository,
+                                 OrderRepository orderRepository,
+                                 ProductRepository productRepository,
+                                 RefundRepository refundRepository,
+                                 UserRepository userRepository,
+                                 @Value("${app.alerts.push-threads:2}") int pushThreads) {
+        this.branchRepository = branchRepository;
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.refundRepository = refundRepository;
+        this.userRepository = userRepository;
+        this.pushExecutor = Executors.newFixedThreadPool(pushThreads, new CustomizableThreadFactory("store-alerts-"));
+    }
+
+    @Override
+    public StoreAlertDTO getAlerts(Long storeAdminId) {
+        StoreAlerts alerts = tracked(storeAdminId);
+        alerts.lastRead = System.currentTimeMillis();
+        return alerts.toDto();
+    }
+
+    @Override
+    public SseEmitter subscribe(Long storeAdminId) {
+        StoreAlerts alerts = tracked(storeAdminId);
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter, new AtomicBoolean());
+        emitter.onCompletion(() -> alerts.subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> alerts.subscribers.remove(subscriber));
+
+        // The newcomer gets the current state on its own; lastPublished is left to the
+        // publisher, so a change not yet published still reaches the other subscribers
+        StoreAlertDTO published = alerts.lastPublished();
+        StoreAlertDTO current = alerts.toDto();
+        alerts.subscribers.add(subscriber);
+        push(alerts, subscriber, current, published);
+        return emitter;
+    }
+
+    @Override
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        StoreAlerts alerts = event.storeAdminId() != null ? stores.get(event.storeAdminId()) : null;
+        if (alerts == null) {
+            return;
+        }
+
+        Set<Long> productIds = event.lines().stream()
+                .map(OrderPlacedEvent.Line::productId)
+                .collect(Collectors.toSet());
+        List<ProductDTO> lowStock = findLowStock(event.storeAdminId(), productIds);
+
+        alerts.apply(state -> {
+            BranchAlerts branch = state.branches.get(event.branchId());
+            if (branch != null) {
+                branch.recordSale(event.businessDate());
+            }
+            state.replaceLowStock(productIds, lowStock);
+        });
+        publishIfChanged(alerts);
+    }
+
+    @Override
+    public void onRefundIssued(RefundIssuedEvent event) {
+        StoreAlerts alerts = event.storeAdminId() != null ? stores.get(event.storeAdminId()) : null;
+        if (alerts == null) {
+            return;
+        }
+
+        RefundDTO refund = refundRepository.findById(event.refundId())
+                .map(RefundMapper::toDTO)
+                .orElse(null);
+        if (refund == null) {
+            return;
+        }
+
+        alerts.apply(state -> {
+            BranchAlerts branch = state.branches.get(event.branchId());
+            if (branch != null) {
+                branch.recordRefund(event.businessDate(), refund, event.amountMinor());
+            }
+        });
+        publishIfChanged(alerts);
+    }
+
+    @Override
+    public void onRefundDeleted(RefundDeletedEvent event) {
+        RefundIssuedEvent refund = event.refund();
+        StoreAlerts alerts = refund.storeAdminId() != null ? stores.get(refund.storeAdminId()) : null;
+        if (alerts == null) {
+            return;
+        }
+
+        alerts.apply(state -> {
+            BranchAlerts branch = state.branches.get(refund.branchId());
+            if (branch != null) {
+                branch.removeRefund(refund.businessDate(), refund.refundId(), refund.amountMinor());
+            }
+        });
+        publishIfChanged(alerts);
+    }
+
+    @Override
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        StoreAlerts alerts = event.storeAdminId() != null ? stores.get(event.storeAdminId()) : null;
+        if (alerts == null) {
+            return;
+        }
+
+        Set<Long> productIds = Set.of(event.productId());
+        List<ProductDTO> lowStock = findLowStock(event.storeAdminId(), productIds);
+        alerts.apply(state -> state.replaceLowStock(productIds, lowStock));
+        publishIfChanged(alerts);
+    }
+
+    @Override
+    public void publishChanges() {
+        stores.values().forEach(this::publishIfChanged);
+    }
+
+    @Override
+    public void reconcile() {
+        long idleBefore = System.currentTimeMillis() - IDLE_EVICT_MS;
+        stores.values().removeIf(alerts -> alerts.subscribers.isEmpty() && alerts.lastRead < idleBefore);
+
+        for (StoreAlerts alerts : stores.values()) {
+            try {
+                reload(alerts);
+                publishIfChanged(alerts);
+            } catch (Exception e) {
+                log.error("Error reloading alerts for store admin {}", alerts.storeAdminId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stopPushExecutor() {
+        pushExecutor.shutdownNow();
+    }
+
+    private StoreAlerts tracked(Long storeAdminId) {
+        StoreAlerts alerts = stores.get(storeAdminId);
+        if (alerts == null) {
+            // Registered before loading so events committed during the load are kept for replay;
+            // loaded outside the map so a slow first read never blocks events for other stores
+            StoreAlerts created = new StoreAlerts(storeAdminId);
+            created.lastRead = System.currentTimeMillis();
+            alerts = stores.putIfAbsent(storeAdminId, created);
+            if (alerts == null) {
+                alerts = created;
+                try {
+                    reload(created);
+                } catch (RuntimeException e) {
+                    stores.remove(storeAdminId, created);
+                    created.ready.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        alerts.ready.join();
+        return alerts;
+    }
+
+    private void reload(StoreAlerts alerts) {
+        alerts.beginLoad();
+        Snapshot snapshot;
+        try {
+            snapshot = load(alerts.storeAdminId);
+        } catch (RuntimeException e) {
+            alerts.abortLoad();
+            throw e;
+        }
+        alerts.finishLoad(snapshot);
+    }
+
+    private Snapshot load(Long storeAdminId) {
+        List<Branch> branches = branchRepository.findByStoreStoreAdminId(storeAdminId);
+        Map<Long, Branch> branchesById = branches.stream()
+                .collect(Collectors.toMap(Branch::getId, b -> b));
+
+        Map<Long, BranchAlerts> branchAlerts = new LinkedHashMap<>();
+        for (Branch branch : branches) {
+            branchAlerts.put(branch.getId(), new BranchAlerts(
+                    new BranchDTO(branch.getId(), branch.getName(), branch.getAddress()), branch.zoneId()));
+        }
+
+        // Two server days back covers the current day of a branch in any zone
+        LocalDateTime since = LocalDate.now().minusDays(2).atStartOfDay();
+
+        for (Object[] row : orderRepository.findLastOrderTimeByBranch(storeAdminId, since)) {
+            Long branchId = (Long) row[0];
+            BranchAlerts branch = branchAlerts.get(branchId);
+            if (branch != null) {
+                branch.recordSale(branchesById.get(branchId).businessDate((LocalDateTime) row[1]));
+            }
+        }
+
+        for (RefundDTO refund : refundRepository.findRecentByStoreAdmin(storeAdminId, since)) {
+            BranchAlerts branch = branchAlerts.get(refund.getBranchId());
+            if (branch != null) {
+                branch.recordRefund(branchesById.get(refund.getBranchId()).businessDate(refund.getCreatedAt()),
+                        refund, Money.toMinor(refund.getAmount() != null ? refund.getAmount() : 0.0));
+            }
+        }
+
+        List<UserDTO> inactiveCashiers = userRepository.findInactiveCashiers(storeAdminId,
+                LocalDateTime.now().minusDays(INACTIVE_CASHIER_DAYS));
+
+        return new Snapshot(
+                productRepository.findLowStockProducts(storeAdminId, InventoryService.LOW_STOCK_THRESHOLD),
+                branchAlerts,
+                inactiveCashiers);
+    }
+
+    private List<ProductDTO> findLowStock(Long storeAdminId, Collection<Long> productIds) {
+        return productIds.isEmpty() ? List.of()
+                : productRepository.findLowStockProductsIn(storeAdminId, InventoryService.LOW_STOCK_THRESHOLD, productIds);
+    }
+
+    private void publishIfChanged(StoreAlerts alerts) {
+        if (alerts.subscribers.isEmpty()) {
+            return;
+        }
+
+        StoreAlertDTO current = alerts.toDto();
+        synchronized (alerts) {
+            if (current.equals(alerts.lastPublished)) {
+                return;
+            }
+            alerts.lastPublished = current;
+        }
+        alerts.subscribers.forEach(subscriber -> push(alerts, subscriber, current, current));
+    }
+
+    // Sends the alerts, then the latest published ones if anything was published after `seen`
+    private void push(StoreAlerts alerts, Subscriber subscriber, StoreAlertDTO current, StoreAlertDTO seen) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            // Still writing the previous update; it sends the then-latest alerts when done
+            return;
+        }
+        try {
+            pushExecutor.execute(() -> {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().name("alerts").data(current));
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away; the emitter's own callbacks finish the cleanup
+                    alerts.subscribers.remove(subscriber);
+                    return;
+                } finally {
+                    subscriber.sending.set(false);
+                }
+                StoreAlertDTO latest = alerts.lastPublished();
+                if (latest != null && latest != seen) {
+                    push(alerts, subscriber, latest, latest);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private record Snapshot(List<ProductDTO> lowStock,
+                            Map<Long, BranchAlerts> branches,
+                            List<UserDTO> inactiveCashiers) {
+    }
+
+    private record Subscriber(SseEmitter emitter, AtomicBoolean sending) {
+    }
+
+    private static final class StoreAlerts {
+        private final Long storeAdminId;
+        private final Map<Long, ProductDTO> lowStock = new LinkedHashMap<>();
+        private Map<Long, BranchAlerts> branches = new LinkedHashMap<>();
+        private List<UserDTO> inactiveCashiers = List.of();
+        private StoreAlertDTO lastPublished;
+        private volatile long lastRead;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        // Completed once the first load has been applied
+        private final CompletableFuture<Void> ready = new CompletableFuture<>();
+        // Loads in flight, and the event changes to replay once each of them lands
+        private int loading;
+        private final List<Consumer<StoreAlerts>> replay = new ArrayList<>();
+
+        private StoreAlerts(Long storeAdminId) {
+            this.storeAdminId = storeAdminId;
+        }
+
+        private synchronized void apply(Consumer<StoreAlerts> change) {
+            change.accept(this);
+            if (loading > 0) {
+                replay.add(change);
+            }
+        }
+
+        private synchronized void beginLoad() {
+            loading++;
+        }
+
+        private synchronized void finishLoad(Snapshot snapshot) {
+            lowStock.clear();
+            snapshot.lowStock().forEach(product -> lowStock.put(product.getId(), product));
+            branches = snapshot.branches();
+            inactiveCashiers = snapshot.inactiveCashiers();
+            // The load may have missed any of these; replaying one it already saw changes nothing
+            replay.forEach(change -> change.accept(this));
+            endLoad();
+            ready.complete(null);
+        }
+
+        private synchronized void abortLoad() {
+            endLoad();
+        }
+
+        private void endLoad() {
+            if (--loading == 0) {
+                replay.clear();
+            }
+        }
+
+        private synchronized StoreAlertDTO lastPublished() {
+            return lastPublished;
+        }
+
+        // The re-checked products that came back low stay flagged, the rest are cleared
+        private void replaceLowStock(Collection<Long> checked, List<ProductDTO> stillLow) {
+            checked.forEach(lowStock::remove);
+            stillLow.forEach(product -> lowStock.put(product.getId(), product));
+        }
+
+        private synchronized StoreAlertDTO toDto() {
+            List<BranchDTO> noSalesToday = new ArrayList<>();
+            List<RefundDTO> refundSpikes = new ArrayList<>();
+            for (BranchAlerts branch : branches.values()) {
+                LocalDate today = LocalDate.now(branch.zone);
+                if (!today.equals(branch.lastSaleDate)) {
+                    noSalesToday.add(branch.branch);
+                }
+                if (today.equals(branch.refundDate) && branch.refundMinor > REFUND_SPIKE_MINOR) {
+                    refundSpikes.addAll(branch.refunds);
+                }
+            }
+
+            return StoreAlertDTO.builder()
+                    .lowStockAlerts(new ArrayList<>(lowStock.values()))
+                    .noSalesToday(noSalesToday)
+                    .refundSpikeAlerts(refundSpikes)
+                    .inactiveCashiers(inactiveCashiers)
+                    .build();
+        }
+    }
+
+    private static final class BranchAlerts {
+        private final BranchDTO branch;
+        private final ZoneId zone;
+        private LocalDate lastSaleDate;
+        private LocalDate refundDate;
+        private long refundMinor;
+        private final List<RefundDTO> refunds = new ArrayList<>();
+
+        private BranchAlerts(BranchDTO branch, ZoneId zone) {
+            this.branch = branch;
+            this.zone = zone;
+        }
+
+        private void recordSale(LocalDate businessDate) {
+            if (lastSaleDate == null || businessDate.isAfter(lastSaleDate)) {
+                lastSaleDate = businessDate;
+            }
+        }
+
+        // Keeps only the latest business day's refunds; a new day starts the total again
+        private void recordRefund(LocalDate businessDate, RefundDTO refund, long amountMinor) {
+            if (refundDate != null && businessDate.isBefore(refundDate)) {
+                return;
+            }
+            if (!businessDate.equals(refundDate)) {
+                refundDate = businessDate;
+                refundMinor = 0;
+                refunds.clear();
+            }
+            if (refunds.stream().anyMatch(r -> Objects.equals(r.getId(), refund.getId()))) {
+                return;
+            }
+            refundMinor += amountMinor;
+            refunds.add(refund);
+        }
+
+        // Only a refund still counted for the current day is taken back
+        private void removeRefund(LocalDate businessDate, Long refundId, long amountMinor) {
+            if (businessDate.equals(refundDate)
+                    && refunds.removeIf(r -> Objects.equals(r.getId(), refundId))) {
+                refundMinor -= amountMinor;
+            }
+        }
+    }
+}
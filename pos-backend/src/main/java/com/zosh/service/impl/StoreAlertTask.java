@@ -0,0 +1,41 @@
+package com.zosh.service.impl;
+
+import com.zosh.service.StoreAlertService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task to keep in-memory store alerts honest
+ *
+ * Every minute pushes alerts that changed with the clock (a branch's new day);
+ * every 15 minutes reloads tracked stores from the database
+ */
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+public class StoreAlertTask {
+
+    private final StoreAlertService storeAlertService;
+
+    @Scheduled(fixedDelay = 60_000)
+    public void publishChanges() {
+        try {
+            storeAlertService.publishChanges();
+        } catch (Exception e) {
+            log.error("Error publishing store alert changes", e);
+        }
+    }
+
+    @Scheduled(initialDelay = 900_000, fixedDelay = 900_000)
+    public void reconcile() {
+        try {
+            storeAlertService.reconcile();
+        } catch (Exception e) {
+            log.error("Error reconciling store alerts", e);
+        }
+    }
+}
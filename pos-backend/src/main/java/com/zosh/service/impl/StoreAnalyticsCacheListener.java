@@ -0,0 +1,54 @@
+package com.zosh.service.impl;
+
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+import com.zosh.service.StoreAnalyticsService;
+import com.zosh.service.StoreKpiSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Invalidates cached store analytics once an order or refund for the store, or a
+ * deletion of either, has committed, so the next dashboard read sees it.
+ */
+@Component
+@RequiredArgsConstructor
+public class StoreAnalyticsCacheListener {
+
+    private final StoreAnalyticsService storeAnalyticsService;
+    private final StoreKpiSnapshotService storeKpiSnapshotService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (event.storeAdminId() != null) {
+            storeAnalyticsService.invalidateDailySales(event.storeAdminId());
+            storeKpiSnapshotService.applyOrder(event);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        if (event.order().storeAdminId() != null) {
+            storeAnalyticsService.invalidateDailySales(event.order().storeAdminId());
+            storeKpiSnapshotService.applyOrderDeletion(event);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRefundIssued(RefundIssuedEvent event) {
+        if (event.storeAdminId() != null) {
+            storeKpiSnapshotService.applyRefund(event);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRefundDeleted(RefundDeletedEvent event) {
+        if (event.refund().storeAdminId() != null) {
+            storeKpiSnapshotService.applyRefundDeletion(event);
+        }
+    }
+}
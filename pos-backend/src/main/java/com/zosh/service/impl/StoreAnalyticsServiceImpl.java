@@ -1,31 +1,83 @@
 package com.zosh.service.impl;
 
 import com.zosh.domain.UserRole;
-import com.zosh.modal.Order;
+import com.zosh.modal.Money;
 import com.zosh.payload.StoreAnalysis.*;
 import com.zosh.repository.*;
+import com.zosh.service.StoreAlertService;
 import com.zosh.service.StoreAnalyticsService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class StoreAnalyticsServiceImpl implements StoreAnalyticsService {
 
+    private static final int MONTHS_IN_GRAPH = 12;
+    private static final int DAYS_IN_GRAPH = 7;
+
     private final BranchRepository branchRepository;
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final RefundRepository refundRepository;
     private final UserRepository userRepository;
     private final CustomerRepository customerRepository;
+    private final StoreAlertService storeAlertService;
+    private final PlatformTransactionManager transactionManager;
+
+    // Bounded so concurrent dashboards never take more than this many pooled connections
+    @Value("${app.analytics.store-overview-threads:3}")
+    private int storeOverviewThreads;
+
+    @Value("${app.analytics.store-overview-timeout-ms:2000}")
+    private long storeOverviewTimeoutMs;
+
+    // How long, and for how many stores, the last overview is kept to fall back on
+    @Value("${app.analytics.store-overview-fallback-minutes:30}")
+    private long storeOverviewFallbackMinutes;
+
+    @Value("${app.analytics.store-overview-fallback-max-entries:1000}")
+    private int storeOverviewFallbackMaxEntries;
+
+    private ExecutorService overviewExecutor;
+    // Read-only transactions; the bounded one's timeout Spring applies to each overview query
+    private TransactionTemplate overviewTransaction;
+    private TransactionTemplate unboundedOverviewTransaction;
+    private final Map<Long, LastOverview> lastStoreOverview = new ConcurrentHashMap<>();
+
+    // Safety net for orders placed on other instances, which never reach this cache's invalidation
+    @Value("${app.analytics.daily-sales-ttl-seconds:300}")
+    private long dailySalesTtlSeconds;
+
+    // Bumped by every committed order; a cached graph is only served while its version is current
+    private final Map<Long, Long> dailySalesVersions = new ConcurrentHashMap<>();
+    private final Map<Long, CachedDailySales> dailySalesCache = new ConcurrentHashMap<>();
 
     @Override
     public StoreOverviewDTO getStoreOverview(Long storeAdminId) {
@@ -35,16 +87,114 @@ public class StoreAnalyticsServiceImpl implements StoreAnalyticsService {
         roles.add(UserRole.ROLE_BRANCH_CASHIER);
         roles.add(UserRole.ROLE_BRANCH_MANAGER);
 
-        return StoreOverviewDTO.builder()
-                .totalBranches(branchRepository.countByStoreAdminId(storeAdminId))
-                .totalSales(orderRepository.sumTotalSalesByStoreAdmin(storeAdminId).orElse(Double.valueOf(0)))
-                .totalOrders(orderRepository.countByStoreAdminId(storeAdminId))
-                .totalEmployees(userRepository.countByStoreAdminIdAndRoles(storeAdminId,roles))
-                .totalCustomers(customerRepository.countByStoreAdminId(storeAdminId))
-                .totalRefunds(refundRepository.countByStoreAdminId(storeAdminId))
-                .totalProducts(productRepository.countByStoreAdminId(storeAdminId))
+        // The budget only applies when there is an earlier overview to serve instead; the
+        // first one runs its queries without a timeout and waits for all of them
+        StoreOverviewDTO last = lastOverview(storeAdminId);
+        TransactionTemplate transaction = last != null ? overviewTransaction : unboundedOverviewTransaction;
+
+        // The seven aggregates are independent, so they run side by side on the overview pool
+        CompletableFuture<Integer> branches = supplyOverview(transaction, () -> branchRepository.countByStoreAdminId(storeAdminId));
+        CompletableFuture<Long> sales = supplyOverview(transaction, () -> orderRepository.sumTotalSalesByStoreAdmin(storeAdminId).orElse(0L));
+        CompletableFuture<Integer> orders = supplyOverview(transaction, () -> orderRepository.countByStoreAdminId(storeAdminId));
+        CompletableFuture<Integer> employees = supplyOverview(transaction, () -> userRepository.countByStoreAdminIdAndRoles(storeAdminId, roles));
+        CompletableFuture<Integer> customers = supplyOverview(transaction, () -> customerRepository.countByStoreAdminId(storeAdminId));
+        CompletableFuture<Integer> refunds = supplyOverview(transaction, () -> refundRepository.countByStoreAdminId(storeAdminId));
+        CompletableFuture<Integer> products = supplyOverview(transaction, () -> productRepository.countByStoreAdminId(storeAdminId));
+
+        List<CompletableFuture<?>> queries = List.of(branches, sales, orders, employees, customers, refunds, products);
+        CompletableFuture<Void> all = CompletableFuture.allOf(queries.toArray(CompletableFuture[]::new));
+        try {
+            if (last != null) {
+                all.get(storeOverviewTimeoutMs, TimeUnit.MILLISECONDS);
+            } else {
+                all.get();
+            }
+        } catch (TimeoutException | ExecutionException e) {
+            if (last != null) {
+                // Queued queries never start; running ones stop at their query timeout
+                queries.forEach(query -> query.cancel(true));
+                log.warn("Store overview for {} exceeded its budget, serving the last one: {}", storeAdminId, e.toString());
+                return last;
+            }
+            throw new IllegalStateException("Could not load store overview for " + storeAdminId, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queries.forEach(query -> query.cancel(true));
+            if (last != null) {
+                return last;
+            }
+            throw new IllegalStateException("Interrupted while loading store overview", e);
+        }
+
+        StoreOverviewDTO overview = StoreOverviewDTO.builder()
+                .totalBranches(branches.join())
+                .totalSales(Money.toMajor(sales.join()))
+                .totalOrders(orders.join())
+                .totalEmployees(employees.join())
+                .totalCustomers(customers.join())
+                .totalRefunds(refunds.join())
+                .totalProducts(products.join())
 //                .topBranchName(branchRepository.findTopBranchBySales(storeAdminId))
                 .build();
+        rememberOverview(storeAdminId, overview);
+        return overview;
+    }
+
+    private <T> CompletableFuture<T> supplyOverview(TransactionTemplate transaction, Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> transaction.execute(status -> query.get()), overviewExecutor);
+    }
+
+    private StoreOverviewDTO lastOverview(Long storeAdminId) {
+        LastOverview last = lastStoreOverview.get(storeAdminId);
+        if (last == null) {
+            return null;
+        }
+        if (last.expiresAt() < System.currentTimeMillis()) {
+            lastStoreOverview.remove(storeAdminId, last);
+            return null;
+        }
+        return last.overview();
+    }
+
+    private void rememberOverview(Long storeAdminId, StoreOverviewDTO overview) {
+        long now = System.currentTimeMillis();
+        lastStoreOverview.put(storeAdminId,
+                new LastOverview(overview, now + TimeUnit.MINUTES.toMillis(storeOverviewFallbackMinutes)));
+        if (lastStoreOverview.size() <= storeOverviewFallbackMaxEntries) {
+            return;
+        }
+
+        lastStoreOverview.values().removeIf(last -> last.expiresAt() < now);
+        int overflow = lastStoreOverview.size() - storeOverviewFallbackMaxEntries;
+        if (overflow > 0) {
+            lastStoreOverview.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt()))
+                    .limit(overflow)
+                    .toList()
+                    .forEach(e -> lastStoreOverview.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private record LastOverview(StoreOverviewDTO overview, long expiresAt) {
+    }
+
+    @PostConstruct
+    void startOverviewExecutor() {
+        overviewExecutor = Executors.newFixedThreadPool(storeOverviewThreads,
+                new CustomizableThreadFactory("store-overview-"));
+
+        overviewTransaction = new TransactionTemplate(transactionManager);
+        overviewTransaction.setReadOnly(true);
+        // Transaction timeouts are whole seconds; round the budget up so it is never cut short
+        overviewTransaction.setTimeout((int) Math.max(1, (storeOverviewTimeoutMs + 999) / 1000));
+
+        unboundedOverviewTransaction = new TransactionTemplate(transactionManager);
+        unboundedOverviewTransaction.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void stopOverviewExecutor() {
+        overviewExecutor.shutdownNow();
     }
 
     @Override
@@ -59,34 +209,75 @@ public class StoreAnalyticsServiceImpl implements StoreAnalyticsService {
 
     @Override
     public List<TimeSeriesPointDTO> getMonthlySalesGraph(Long storeAdminId) {
-        LocalDateTime end = LocalDateTime.now();
-        LocalDateTime start = end.minusDays(365);
+        // The current month and the 11 before it
+        YearMonth lastMonth = YearMonth.now();
+        YearMonth firstMonth = lastMonth.minusMonths(MONTHS_IN_GRAPH - 1);
+        LocalDateTime start = firstMonth.atDay(1).atStartOfDay();
+        LocalDateTime end = lastMonth.plusMonths(1).atDay(1).atStartOfDay();
 
-        List<Order> orders = orderRepository.findAllByStoreAdminAndCreatedAtBetween(storeAdminId, start, end);
+        Map<YearMonth, Long> salesByMonth = new HashMap<>();
+        for (Object[] row : orderRepository.sumSalesByMonth(storeAdminId, start, end)) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            salesByMonth.put(month, ((Number) row[2]).longValue());
+        }
 
-        Map<YearMonth, Double> grouped = orders.stream()
-                .collect(Collectors.groupingBy(
-                        order -> YearMonth.from(order.getCreatedAt()),  // Group by Year-Month
-                        Collectors.summingDouble(order ->
-                                order.getTotalAmount() != null ? order.getTotalAmount().doubleValue() : 0.0
-                        )
-                ));
-
-        return grouped.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .map(entry -> new TimeSeriesPointDTO(
-                        entry.getKey().atDay(1).atStartOfDay(), // Convert YearMonth to LocalDateTime
-                        entry.getValue()
-                ))
-                .collect(Collectors.toList());
+        // Gap-fill so the graph always has one point per month
+        List<TimeSeriesPointDTO> points = new ArrayList<>(MONTHS_IN_GRAPH);
+        for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            points.add(new TimeSeriesPointDTO(
+                    month.atDay(1).atStartOfDay(), // Convert YearMonth to LocalDateTime
+                    Money.toMajor(salesByMonth.getOrDefault(month, 0L))
+            ));
+        }
+        return points;
     }
 
     @Override
     public List<TimeSeriesPointDTO> getDailySalesGraph(Long storeAdminId) {
-//        return null;
-        LocalDateTime end = LocalDateTime.now();
-        LocalDateTime start = end.minusDays(6);
-        return orderRepository.getDailySales(storeAdminId, start, end);
+        LocalDate today = LocalDate.now();
+        long now = System.currentTimeMillis();
+        long version = dailySalesVersions.getOrDefault(storeAdminId, 0L);
+
+        CachedDailySales cached = dailySalesCache.get(storeAdminId);
+        if (cached != null && cached.version == version && cached.day.equals(today) && cached.expiresAt > now) {
+            return cached.points;
+        }
+
+        List<TimeSeriesPointDTO> points = loadDailySales(storeAdminId, today);
+        dailySalesCache.put(storeAdminId,
+                new CachedDailySales(points, today, version, now + dailySalesTtlSeconds * 1000));
+        return points;
+    }
+
+    @Override
+    public void invalidateDailySales(Long storeAdminId) {
+        dailySalesVersions.merge(storeAdminId, 1L, Long::sum);
+    }
+
+    private List<TimeSeriesPointDTO> loadDailySales(Long storeAdminId, LocalDate today) {
+        // Today and the 6 days before it
+        LocalDate firstDay = today.minusDays(DAYS_IN_GRAPH - 1);
+        LocalDateTime start = firstDay.atStartOfDay();
+        LocalDateTime end = today.plusDays(1).atStartOfDay();
+
+        Map<LocalDate, Long> salesByDay = new HashMap<>();
+        for (Object[] row : orderRepository.getDailySales(storeAdminId, start, end)) {
+            salesByDay.put(toLocalDate(row[0]), ((Number) row[1]).longValue());
+        }
+
+        // Zero-fill so the graph always has one point per day, however busy the store is
+        List<TimeSeriesPointDTO> points = new ArrayList<>(DAYS_IN_GRAPH);
+        for (LocalDate day = firstDay; !day.isAfter(today); day = day.plusDays(1)) {
+            points.add(new TimeSeriesPointDTO(
+                    day.atStartOfDay(),
+                    Money.toMajor(salesByDay.getOrDefault(day, 0L))
+            ));
+        }
+        return List.copyOf(points);
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) value;
     }
 
     @Override
@@ -120,14 +311,9 @@ public class StoreAnalyticsServiceImpl implements StoreAnalyticsService {
 
     @Override
     public StoreAlertDTO getStoreAlerts(Long storeAdminId) {
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-        userRepository.findInactiveCashiers(storeAdminId, sevenDaysAgo);
-
-        return StoreAlertDTO.builder()
-                .lowStockAlerts(productRepository.findLowStockProducts(storeAdminId, 5))  // ✅ FIXED: Added threshold
-                .noSalesToday(branchRepository.findBranchesWithNoSalesToday(storeAdminId))
-                .refundSpikeAlerts(refundRepository.findRefundSpikes(storeAdminId))
-                .inactiveCashiers(userRepository.findInactiveCashiers(storeAdminId, sevenDaysAgo))
-                .build();
+        return storeAlertService.getAlerts(storeAdminId);
+    }
+
+    private record CachedDailySales(List<TimeSeriesPointDTO> points, LocalDate day, long version, long expiresAt) {
     }
 }
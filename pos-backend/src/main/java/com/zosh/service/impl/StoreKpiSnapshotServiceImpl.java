@@ -0,0 +1,338 @@
+package com.zosh.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zosh.domain.PaymentType;
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.event.RefundDeletedEvent;
+import com.zosh.event.RefundIssuedEvent;
+import com.zosh.modal.Branch;
+import com.zosh.modal.Category;
+import com.zosh.modal.Money;
+import com.zosh.modal.StoreKpiSnapshot;
+import com.zosh.payload.StoreAnalysis.BranchSalesDTO;
+import com.zosh.payload.StoreAnalysis.CategorySalesDTO;
+import com.zosh.payload.StoreAnalysis.PaymentInsightDTO;
+import com.zosh.payload.StoreAnalysis.StoreKpiSnapshotDTO;
+import com.zosh.payload.StoreAnalysis.StoreOverviewDTO;
+import com.zosh.repository.BranchRepository;
+import com.zosh.repository.CategoryRepository;
+import com.zosh.repository.StoreKpiSnapshotRepository;
+import com.zosh.service.StoreAnalyticsService;
+import com.zosh.service.StoreKpiSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps store_kpi_snapshot current. Committed orders and refunds queue their
+ * amounts per store; StoreKpiSnapshotTask adds the queued deltas to existing
+ * snapshots every few seconds, so a sale never re-runs the dashboard queries.
+ * Stores without a snapshot are built in full on first read, and refreshAll
+ * recomputes everything periodically to pick up other instances' sales.
+ *
+ * A rebuild discards the store's queued delta before it reads the database,
+ * under the same per-store lock that applying a delta takes, so an order is
+ * counted either by the rebuild or by a delta, never by both.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoreKpiSnapshotServiceImpl implements StoreKpiSnapshotService {
+
+    private final StoreKpiSnapshotRepository snapshotRepository;
+    private final StoreAnalyticsService storeAnalyticsService;
+    private final BranchRepository branchRepository;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+
+    // Deltas are only mutated inside compute/merge, so each store's is updated atomically
+    private final Map<Long, StoreDelta> pending = new ConcurrentHashMap<>();
+    // Serializes applying a store's delta with rebuilding its snapshot
+    private final Map<Long, Object> storeLocks = new ConcurrentHashMap<>();
+
+    @Override
+    public StoreKpiSnapshotDTO getSnapshot(Long storeAdminId) {
+        StoreKpiSnapshot snapshot = snapshotRepository.findById(storeAdminId)
+                .orElseGet(() -> refresh(storeAdminId));
+        return toDto(snapshot);
+    }
+
+    @Override
+    public void applyOrder(OrderPlacedEvent event) {
+        pending.compute(event.storeAdminId(), (id, delta) -> {
+            StoreDelta next = delta != null ? delta : new StoreDelta();
+            next.addOrder(event, 1);
+            return next;
+        });
+    }
+
+    @Override
+    public void applyOrderDeletion(OrderDeletedEvent event) {
+        OrderPlacedEvent order = event.order();
+        pending.compute(order.storeAdminId(), (id, delta) -> {
+            StoreDelta next = delta != null ? delta : new StoreDelta();
+            next.addOrder(order, -1);
+            return next;
+        });
+    }
+
+    @Override
+    public void applyRefund(RefundIssuedEvent event) {
+        pending.compute(event.storeAdminId(), (id, delta) -> {
+            StoreDelta next = delta != null ? delta : new StoreDelta();
+            next.refundCount++;
+            return next;
+        });
+    }
+
+    @Override
+    public void applyRefundDeletion(RefundDeletedEvent event) {
+        pending.compute(event.refund().storeAdminId(), (id, delta) -> {
+            StoreDelta next = delta != null ? delta : new StoreDelta();
+            next.refundCount--;
+            return next;
+        });
+    }
+
+    @Override
+    public void applyPending() {
+        for (Long storeAdminId : List.copyOf(pending.keySet())) {
+            synchronized (lockFor(storeAdminId)) {
+                // Taken before applying, so a sale committed meanwhile queues a fresh delta
+                StoreDelta delta = pending.remove(storeAdminId);
+                if (delta == null) {
+                    continue;
+                }
+                try {
+                    applyDelta(storeAdminId, delta);
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    // Another instance saved the row first; apply on top of its version next run
+                    pending.merge(storeAdminId, delta, StoreDelta::merge);
+                } catch (Exception e) {
+                    log.error("Error applying KPI snapshot delta for store admin {}", storeAdminId, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void refreshAll() {
+        for (Long storeAdminId : snapshotRepository.findAllStoreAdminIds()) {
+            refreshQuietly(storeAdminId);
+        }
+    }
+
+    private void applyDelta(Long storeAdminId, StoreDelta delta) {
+        Optional<StoreKpiSnapshot> existing = snapshotRepository.findById(storeAdminId);
+        if (existing.isEmpty()) {
+            return;
+        }
+
+        StoreKpiSnapshot snapshot = existing.get();
+        StoreKpiSnapshotDTO sections = read(snapshot.getPayload());
+
+        StoreOverviewDTO overview = sections.getOverview();
+        if (overview != null) {
+            overview.setTotalSales(plus(overview.getTotalSales(), delta.salesMinor));
+            overview.setTotalOrders(plus(overview.getTotalOrders(), delta.orderCount));
+            overview.setTotalRefunds(plus(overview.getTotalRefunds(), delta.refundCount));
+        }
+
+        // Sections are keyed by name, as the queries that build them group by name
+        Map<String, Long> byCategory = renameKeys(delta.salesByCategory,
+                ids -> categoryRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Category::getId, Category::getName)));
+        Map<String, Long> byBranch = renameKeys(delta.salesByBranch,
+                ids -> branchRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Branch::getId, Branch::getName)));
+
+        sections.setSalesByCategory(addTo(sections.getSalesByCategory(), byCategory,
+                CategorySalesDTO::getCategoryName, CategorySalesDTO::getTotalSales,
+                CategorySalesDTO::setTotalSales, name -> new CategorySalesDTO(name, 0.0)));
+        sections.setSalesByBranch(addTo(sections.getSalesByBranch(), byBranch,
+                BranchSalesDTO::getBranchName, BranchSalesDTO::getTotalSales,
+                BranchSalesDTO::setTotalSales, name -> new BranchSalesDTO(name, 0.0)));
+        sections.setPaymentMethods(addTo(sections.getPaymentMethods(), delta.salesByPaymentType,
+                PaymentInsightDTO::getPaymentMethod, PaymentInsightDTO::getTotalAmount,
+                PaymentInsightDTO::setTotalAmount, type -> new PaymentInsightDTO(type, 0.0)));
+        if (sections.getBranchPerformance() != null) {
+            sections.getBranchPerformance().setBranchSales(addTo(sections.getBranchPerformance().getBranchSales(),
+                    byBranch, BranchSalesDTO::getBranchName, BranchSalesDTO::getTotalSales,
+                    BranchSalesDTO::setTotalSales, name -> new BranchSalesDTO(name, 0.0)));
+        }
+
+        sections.setVersion(null);
+        snapshot.setPayload(write(sections));
+        snapshot.setUpdatedAt(LocalDateTime.now());
+        snapshotRepository.save(snapshot);
+    }
+
+    private void refreshQuietly(Long storeAdminId) {
+        try {
+            refresh(storeAdminId);
+        } catch (Exception e) {
+            log.error("Error refreshing KPI snapshot for store admin {}", storeAdminId, e);
+        }
+    }
+
+    private StoreKpiSnapshot refresh(Long storeAdminId) {
+        synchronized (lockFor(storeAdminId)) {
+            // Everything queued so far has committed, so the queries below count it already
+            pending.remove(storeAdminId);
+            return rebuild(storeAdminId);
+        }
+    }
+
+    private Object lockFor(Long storeAdminId) {
+        return storeLocks.computeIfAbsent(storeAdminId, id -> new Object());
+    }
+
+    private StoreKpiSnapshot rebuild(Long storeAdminId) {
+        String payload = write(StoreKpiSnapshotDTO.builder()
+                .overview(storeAnalyticsService.getStoreOverview(storeAdminId))
+                .salesByCategory(storeAnalyticsService.getSalesByCategory(storeAdminId))
+                .salesByBranch(storeAnalyticsService.getSalesByBranch(storeAdminId))
+                .paymentMethods(storeAnalyticsService.getSalesByPaymentMethod(storeAdminId))
+                .branchPerformance(storeAnalyticsService.getBranchPerformance(storeAdminId))
+                .build());
+
+        StoreKpiSnapshot snapshot = snapshotRepository.findById(storeAdminId)
+                .orElseGet(() -> StoreKpiSnapshot.builder().storeAdminId(storeAdminId).build());
+
+        // An unchanged dashboard keeps its version, so clients keep getting 304s
+        if (payload.equals(snapshot.getPayload())) {
+            return snapshot;
+        }
+
+        snapshot.setPayload(payload);
+        snapshot.setUpdatedAt(LocalDateTime.now());
+        try {
+            return snapshotRepository.save(snapshot);
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+            // Another instance refreshed the same store at the same time; its row is as fresh as ours
+            log.debug("KPI snapshot for store admin {} was refreshed concurrently", storeAdminId);
+            return snapshotRepository.findById(storeAdminId).orElseThrow(() -> e);
+        }
+    }
+
+    // Adds each amount to the row with the same key, appending rows for keys the section lacks
+    private static <R, K> List<R> addTo(List<R> rows,
+                                        Map<K, Long> amounts,
+                                        Function<R, K> key,
+                                        Function<R, Double> total,
+                                        BiConsumer<R, Double> setTotal,
+                                        Function<K, R> newRow) {
+        if (rows == null || amounts.isEmpty()) {
+            return rows;
+        }
+        List<R> result = new ArrayList<>(rows);
+        amounts.forEach((k, minor) -> {
+            R row = result.stream().filter(r -> Objects.equals(key.apply(r), k)).findFirst().orElse(null);
+            if (row == null) {
+                row = newRow.apply(k);
+                result.add(row);
+            }
+            setTotal.accept(row, plus(total.apply(row), minor));
+        });
+        return result;
+    }
+
+    private static Map<String, Long> renameKeys(Map<Long, Long> amounts,
+                                                Function<Iterable<Long>, Map<Long, String>> names) {
+        if (amounts.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, String> nameById = names.apply(amounts.keySet());
+        Map<String, Long> renamed = new HashMap<>();
+        amounts.forEach((id, minor) -> {
+            String name = nameById.get(id);
+            if (name != null) {
+                renamed.merge(name, minor, Long::sum);
+            }
+        });
+        return renamed;
+    }
+
+    private static Double plus(Double major, long deltaMinor) {
+        return Money.toMajor(Money.toMinor(major != null ? major : 0.0) + deltaMinor);
+    }
+
+    private static Integer plus(Integer count, int delta) {
+        return (count != null ? count : 0) + delta;
+    }
+
+    private StoreKpiSnapshotDTO read(String payload) {
+        try {
+            return objectMapper.readValue(payload, StoreKpiSnapshotDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored KPI snapshot is unreadable", e);
+        }
+    }
+
+    private String write(StoreKpiSnapshotDTO sections) {
+        try {
+            return objectMapper.writeValueAsString(sections);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize KPI snapshot", e);
+        }
+    }
+
+    private StoreKpiSnapshotDTO toDto(StoreKpiSnapshot snapshot) {
+        StoreKpiSnapshotDTO dto = read(snapshot.getPayload());
+        dto.setVersion(snapshot.getVersion());
+        return dto;
+    }
+
+    /**
+     * Amounts queued for one store since the last run, in minor units. Keys are
+     * category and branch ids; names are resolved once when the delta is applied.
+     */
+    private static final class StoreDelta {
+        private long salesMinor;
+        private int orderCount;
+        private int refundCount;
+        private final Map<Long, Long> salesByCategory = new HashMap<>();
+        private final Map<Long, Long> salesByBranch = new HashMap<>();
+        private final Map<PaymentType, Long> salesByPaymentType = new EnumMap<>(PaymentType.class);
+
+        private void addOrder(OrderPlacedEvent event, int sign) {
+            salesMinor += sign * event.totalMinor();
+            orderCount += sign;
+            salesByBranch.merge(event.branchId(), sign * event.totalMinor(), Long::sum);
+            salesByPaymentType.merge(event.paymentType(), sign * event.totalMinor(), Long::sum);
+            for (OrderPlacedEvent.Line line : event.lines()) {
+                // Uncategorized products never appear in the category section
+                if (!Objects.equals(line.categoryId(), OrderPlacedEvent.UNCATEGORIZED)) {
+                    salesByCategory.merge(line.categoryId(), sign * line.lineTotalMinor(), Long::sum);
+                }
+            }
+        }
+
+        private StoreDelta merge(StoreDelta other) {
+            salesMinor += other.salesMinor;
+            orderCount += other.orderCount;
+            refundCount += other.refundCount;
+            other.salesByCategory.forEach((k, v) -> salesByCategory.merge(k, v, Long::sum));
+            other.salesByBranch.forEach((k, v) -> salesByBranch.merge(k, v, Long::sum));
+            other.salesByPaymentType.forEach((k, v) -> salesByPaymentType.merge(k, v, Long::sum));
+            return this;
+        }
+    }
+}
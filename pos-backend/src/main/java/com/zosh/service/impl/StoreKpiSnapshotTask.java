@@ -0,0 +1,41 @@
+package com.zosh.service.impl;
+
+import com.zosh.service.StoreKpiSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task to keep store KPI snapshots current
+ *
+ * Order and refund deltas are applied to existing snapshots every 5 seconds;
+ * every snapshot is recomputed every 15 minutes to catch everything else
+ */
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+public class StoreKpiSnapshotTask {
+
+    private final StoreKpiSnapshotService snapshotService;
+
+    @Scheduled(fixedDelay = 5_000)
+    public void applyPendingDeltas() {
+        try {
+            snapshotService.applyPending();
+        } catch (Exception e) {
+            log.error("Error applying pending KPI snapshot deltas", e);
+        }
+    }
+
+    @Scheduled(initialDelay = 300_000, fixedDelay = 900_000)
+    public void refreshAllSnapshots() {
+        try {
+            snapshotService.refreshAll();
+        } catch (Exception e) {
+            log.error("Error refreshing KPI snapshots", e);
+        }
+    }
+}
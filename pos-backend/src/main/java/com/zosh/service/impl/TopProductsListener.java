@@ -0,0 +1,41 @@
+package com.zosh.service.impl;
+
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.service.TopProductsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Counts committed order lines into the branch top-sellers sketches, and takes
+ * deleted orders' lines back out.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TopProductsListener {
+
+    private final TopProductsService topProductsService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        try {
+            topProductsService.onOrderPlaced(event);
+        } catch (Exception e) {
+            log.error("Error counting order {} into top products of branch {}", event.orderId(), event.branchId(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        try {
+            topProductsService.onOrderDeleted(event);
+        } catch (Exception e) {
+            log.error("Error removing deleted order {} from top products of branch {}",
+                    event.order().orderId(), event.order().branchId(), e);
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.SalesWindow;
+import com.zosh.event.OrderDeletedEvent;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.modal.Branch;
+import com.zosh.payload.dto.ProductPerformanceDTO;
+import com.zosh.repository.BranchRepository;
+import com.zosh.repository.OrderItemRepository;
+import com.zosh.repository.OrderRepository;
+import com.zosh.service.TopProductsService;
+import com.zosh.util.SpaceSavingSketch;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-branch top sellers kept in memory as Space-Saving sketches: one for all
+ * time and one per business day for the last 30 days, which the windowed
+ * rankings merge. Committed orders add their lines, so a ranking never scans
+ * order_items.
+ *
+ * Branches selling fewer distinct products than a sketch holds are ranked
+ * exactly. Once a sketch has evicted, every product that could still make the
+ * top N is re-read from the database for just those products, and that
+ * verified ranking is reused for a short while.
+ *
+ * A branch is registered before it loads. Orders placed or deleted during a
+ * load are journaled, and once the load's aggregates are in, the same database
+ * snapshot tells which of them it already counted; placements it missed are
+ * replayed under the branch's lock, and deletions only take back what was
+ * counted, so a reload neither drops nor doubles a sale. The all-time
+ * sketch is loaded once and kept; a branch nobody reads only gives up its day
+ * sketches, which the next read reloads from the last 30 days.
+ */
+@Service
+@Slf4j
+public class TopProductsServiceImpl implements TopProductsService {
+
+    // Products counted per sketch; branches selling fewer distinct products stay exact
+    private static final int SKETCH_CAPACITY = 500;
+
+    private static final int WINDOW_DAYS = 30;
+
+    // A verified ranking is reused this long even if orders arrive meanwhile
+    private static final long VERIFIED_REUSE_MS = 30_000;
+
+    // Branches nobody has read for this long release their day sketches at reconcile
+    private static final long IDLE_EVICT_MS = 60 * 60 * 1000L;
+
+    private final BranchRepository branchRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    // A load reads its aggregates and checks the orders that raced it in one snapshot
+    private final TransactionTemplate snapshotRead;
+
+    private final Map<Long, BranchRanking> rankings = new ConcurrentHashMap<>();
+
+    public TopProductsServiceImpl(BranchRepository branchRepository,
+                                  OrderRepository orderRepository,
+                                  OrderItemRepository orderItemRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.branchRepository = branchRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.snapshotRead = new TransactionTemplate(transactionManager);
+        snapshotRead.setReadOnly(true);
+        snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Override
+    public List<ProductPerformanceDTO> getTopProducts(Long branchId, SalesWindow window, int limit) {
+        BranchRanking ranking = tracked(branchId);
+
+        Candidates candidates = ranking.candidates(window, limit);
+        if (candidates.exact) {
+            return ranking.toDtos(candidates.ranked, candidates.total, limit);
+        }
+
+        String key = window + ":" + limit;
+        Verified cached = ranking.verified.get(key);
+        if (cached != null && (cached.generation == candidates.generation
+                || System.currentTimeMillis() - cached.verifiedAt < VERIFIED_REUSE_MS)) {
+            return cached.top;
+        }
+
+        List<ProductPerformanceDTO> top = ranking.toDtos(verify(ranking, window, candidates), candidates.total, limit);
+        ranking.verified.put(key, new Verified(top, candidates.generation, System.currentTimeMillis()));
+        return top;
+    }
+
+    @Override
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        BranchRanking ranking = rankings.get(event.branchId());
+        if (ranking != null) {
+            ranking.record(event);
+        }
+    }
+
+    @Override
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        BranchRanking ranking = rankings.get(event.order().branchId());
+        if (ranking != null) {
+            ranking.record(event);
+        }
+    }
+
+    @Override
+    public void reconcile() {
+        long idleBefore = System.currentTimeMillis() - IDLE_EVICT_MS;
+        for (BranchRanking ranking : rankings.values()) {
+            if (ranking.lastRead < idleBefore) {
+                ranking.releaseDays();
+                continue;
+            }
+            try {
+                branchRepository.findById(ranking.branchId).ifPresent(branch -> load(ranking, branch, true));
+            } catch (Exception e) {
+                log.error("Error reloading top products of branch {}", ranking.branchId, e);
+            }
+        }
+    }
+
+    private BranchRanking tracked(Long branchId) {
+        BranchRanking ranking = rankings.get(branchId);
+        if (ranking != null && ranking.isLoaded()) {
+            ranking.lastRead = System.currentTimeMillis();
+            return ranking;
+        }
+
+        Branch branch = branchRepository.findById(branchId)
+                .orElseThrow(() -> new EntityNotFoundException("Branch not found"));
+        BranchRanking registered = rankings.computeIfAbsent(branchId, id -> new BranchRanking(id, branch.zoneId()));
+        registered.lastRead = System.currentTimeMillis();
+        load(registered, branch, false);
+        return registered;
+    }
+
+    // Loads whatever the branch is missing, or rebuilds its days when asked to;
+    // loads of one branch run one at a time
+    private void load(BranchRanking ranking, Branch branch, boolean reloadDays) {
+        synchronized (ranking.loadLock) {
+            boolean withAllTime = !ranking.isAllTimeLoaded();
+            if (!withAllTime && !reloadDays && ranking.hasDays()) {
+                return;
+            }
+
+            ranking.beginLoad();
+            try {
+                snapshotRead.executeWithoutResult(status -> {
+                    Loaded loaded = withAllTime
+                            ? readAllTime(ranking.branchId).withDays(readDays(branch))
+                            : readDays(branch);
+
+                    // Orders journaled meanwhile were committed, but maybe after the snapshot was taken
+                    Set<Long> counted = new HashSet<>();
+                    int checked = 0;
+                    do {
+                        List<Long> raced = ranking.journaledSince(checked);
+                        if (!raced.isEmpty()) {
+                            counted.addAll(orderRepository.findExistingIds(raced));
+                        }
+                        checked += raced.size();
+                    } while (!ranking.finishLoad(loaded, counted, checked));
+                });
+            } catch (RuntimeException e) {
+                ranking.abortLoad();
+                throw e;
+            }
+        }
+    }
+
+    // The one full aggregate over the branch's history, run on a branch's first read
+    // after every restart, as the sketch lives only in memory; daily_branch_sales
+    // rolls up by category, not product, so it cannot seed it. The rows are already
+    // sorted, so only the tail past the sketch's capacity is dropped
+    private Loaded readAllTime(Long branchId) {
+        List<Object[]> rows = orderItemRepository.getTopProductsByQuantity(branchId);
+        SpaceSavingSketch allTime = new SpaceSavingSketch(SKETCH_CAPACITY);
+        Map<Long, String> names = new HashMap<>();
+        long total = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            long quantity = ((Number) row[2]).longValue();
+            total += quantity;
+            if (i < SKETCH_CAPACITY) {
+                names.put((Long) row[0], (String) row[1]);
+                allTime.add((Long) row[0], quantity);
+            }
+        }
+        if (rows.size() > SKETCH_CAPACITY) {
+            allTime.markSaturated();
+        }
+        return new Loaded(allTime, total, null, names);
+    }
+
+    private Loaded readDays(Branch branch) {
+        LocalDate today = LocalDate.now(branch.zoneId());
+        LocalDateTime start = branch.startOfBusinessDay(today.minusDays(WINDOW_DAYS - 1));
+        LocalDateTime end = branch.startOfBusinessDay(today.plusDays(1));
+
+        TreeMap<LocalDate, DayCounts> days = new TreeMap<>();
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] row : orderItemRepository.sumQuantityByProductAndQuarterHour(branch.getId(), start, end)) {
+            LocalDate day = branch.businessDate(toLocalDate(row[0])
+                    .atTime(((Number) row[1]).intValue(), ((Number) row[2]).intValue() * 15));
+            Long productId = (Long) row[3];
+            names.put(productId, (String) row[4]);
+            days.computeIfAbsent(day, d -> new DayCounts()).add(productId, ((Number) row[5]).longValue());
+        }
+        return new Loaded(null, 0, days, names);
+    }
+
+    private List<Estimate> verify(BranchRanking ranking, SalesWindow window, Candidates candidates) {
+        List<Long> productIds = candidates.ranked.stream().map(Estimate::productId).toList();
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object[]> rows;
+        if (window == SalesWindow.ALL_TIME) {
+            rows = orderItemRepository.sumQuantityForProducts(ranking.branchId, productIds);
+        } else {
+            Branch branch = branchRepository.findById(ranking.branchId)
+                    .orElseThrow(() -> new EntityNotFoundException("Branch not found"));
+            LocalDate today = LocalDate.now(ranking.zone);
+            rows = orderItemRepository.sumQuantityForProductsBetween(ranking.branchId, productIds,
+                    branch.startOfBusinessDay(today.minusDays(window.getDays() - 1)),
+                    branch.startOfBusinessDay(today.plusDays(1)));
+        }
+
+        List<Estimate> exact = new ArrayList<>();
+        for (Object[] row : rows) {
+            exact.add(new Estimate((Long) row[0], ((Number) row[1]).longValue()));
+        }
+        exact.sort(Comparator.comparingLong(Estimate::quantity).reversed());
+        return exact;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) value;
+    }
+
+    private record Estimate(Long productId, long quantity) {
+    }
+
+    private record Candidates(List<Estimate> ranked, long total, boolean exact, long generation) {
+    }
+
+    // A load's result; allTime is null when only the days were read
+    private record Loaded(SpaceSavingSketch allTime, long allTimeTotal,
+                          TreeMap<LocalDate, DayCounts> days, Map<Long, String> names) {
+
+        private Loaded withDays(Loaded days) {
+            Map<Long, String> merged = new HashMap<>(names);
+            merged.putAll(days.names);
+            return new Loaded(allTime, allTimeTotal, days.days, merged);
+        }
+    }
+
+    private record Verified(List<ProductPerformanceDTO> top, long generation, long verifiedAt) {
+    }
+
+    private static final class DayCounts {
+        private final SpaceSavingSketch sketch = new SpaceSavingSketch(SKETCH_CAPACITY);
+        private long total;
+
+        private void add(Long productId, long quantity) {
+            sketch.add(productId, quantity);
+            total += quantity;
+        }
+
+        private void subtract(Long productId, long quantity) {
+            sketch.subtract(productId, quantity);
+            total -= quantity;
+        }
+    }
+
+    private static final class BranchRanking {
+        private final Long branchId;
+        private final ZoneId zone;
+        private final Object loadLock = new Object();
+        private SpaceSavingSketch allTime = new SpaceSavingSketch(SKETCH_CAPACITY);
+        private long allTimeTotal;
+        private boolean allTimeLoaded;
+        // Null until loaded, and again once released for idleness
+        private TreeMap<LocalDate, DayCounts> days;
+        private final Map<Long, String> names = new HashMap<>();
+        private final Map<String, Verified> verified = new ConcurrentHashMap<>();
+        private long generation;
+        private volatile long lastRead;
+        // Orders placed or deleted while a load runs, replayed against what its snapshot counted
+        private boolean loading;
+        private final List<Object> replay = new ArrayList<>();
+
+        private BranchRanking(Long branchId, ZoneId zone) {
+            this.branchId = branchId;
+            this.zone = zone;
+        }
+
+        private synchronized boolean isLoaded() {
+            return allTimeLoaded && days != null;
+        }
+
+        private synchronized boolean isAllTimeLoaded() {
+            return allTimeLoaded;
+        }
+
+        private synchronized boolean hasDays() {
+            return days != null;
+        }
+
+        // Takes an OrderPlacedEvent or an OrderDeletedEvent
+        private synchronized void record(Object event) {
+            if (loading) {
+                replay.add(event);
+            }
+            if (event instanceof OrderDeletedEvent deleted) {
+                remove(deleted.order(), true);
+            } else {
+                apply((OrderPlacedEvent) event, true);
+            }
+        }
+
+        private void apply(OrderPlacedEvent event, boolean toAllTime) {
+            DayCounts day = days != null ? days.computeIfAbsent(event.businessDate(), d -> new DayCounts()) : null;
+            for (OrderPlacedEvent.Line line : event.lines()) {
+                names.put(line.productId(), line.productName());
+                if (toAllTime) {
+                    allTime.add(line.productId(), line.quantity());
+                    allTimeTotal += line.quantity();
+                }
+                if (day != null) {
+                    day.add(line.productId(), line.quantity());
+                }
+            }
+            generation++;
+        }
+
+        private void remove(OrderPlacedEvent event, boolean fromAllTime) {
+            DayCounts day = days != null ? days.get(event.businessDate()) : null;
+            for (OrderPlacedEvent.Line line : event.lines()) {
+                if (fromAllTime) {
+                    allTime.subtract(line.productId(), line.quantity());
+                    allTimeTotal -= line.quantity();
+                }
+                if (day != null) {
+                    day.subtract(line.productId(), line.quantity());
+                }
+            }
+            generation++;
+        }
+
+        private synchronized void beginLoad() {
+            loading = true;
+        }
+
+        private synchronized List<Long> journaledSince(int from) {
+            return replay.subList(from, replay.size()).stream()
+                    .map(event -> orderOf(event).orderId())
+                    .toList();
+        }
+
+        private static OrderPlacedEvent orderOf(Object event) {
+            return event instanceof OrderDeletedEvent deleted ? deleted.order() : (OrderPlacedEvent) event;
+        }
+
+        // Swaps the load in and replays what it missed, unless more orders arrived since the last check
+        private synchronized boolean finishLoad(Loaded loaded, Set<Long> counted, int checked) {
+            if (replay.size() > checked) {
+                return false;
+            }
+
+            boolean withAllTime = loaded.allTime() != null;
+            if (withAllTime) {
+                allTime = loaded.allTime();
+                allTimeTotal = loaded.allTimeTotal();
+                allTimeLoaded = true;
+            }
+            days = loaded.days();
+            names.putAll(loaded.names());
+            // The live all-time sketch already holds every journaled event unless it was just replaced.
+            // A deletion takes back an order the snapshot saw or a placement replayed before it
+            Set<Long> replayed = new HashSet<>();
+            for (Object event : replay) {
+                OrderPlacedEvent order = orderOf(event);
+                if (event instanceof OrderDeletedEvent) {
+                    if (counted.contains(order.orderId()) || replayed.remove(order.orderId())) {
+                        remove(order, withAllTime);
+                    }
+                } else if (!counted.contains(order.orderId())) {
+                    apply(order, withAllTime);
+                    replayed.add(order.orderId());
+                }
+            }
+            replay.clear();
+            loading = false;
+            generation++;
+            return true;
+        }
+
+        private synchronized void abortLoad() {
+            replay.clear();
+            loading = false;
+        }
+
+        private synchronized void releaseDays() {
+            days = null;
+            verified.clear();
+        }
+
+        // Ranked by estimated quantity. Until the counts are verified, every product whose
+        // estimate reaches the limit-th best guaranteed quantity (count - error) is kept,
+        // since any of them may still belong in the top
+        private synchronized Candidates candidates(SalesWindow window, int limit) {
+            LocalDate today = LocalDate.now(zone);
+            TreeMap<LocalDate, DayCounts> days = this.days != null ? this.days : new TreeMap<>();
+            days.headMap(today.minusDays(WINDOW_DAYS - 1)).clear();
+
+            Map<Long, long[]> merged = new HashMap<>();
+            long total;
+            boolean exact;
+            if (window == SalesWindow.ALL_TIME) {
+                allTime.mergeInto(merged);
+                total = allTimeTotal;
+                exact = allTime.isExact();
+            } else {
+                total = 0;
+                exact = true;
+                for (DayCounts day : days.tailMap(today.minusDays(window.getDays() - 1)).values()) {
+                    day.sketch.mergeInto(merged);
+                    total += day.total;
+                    exact &= day.sketch.isExact();
+                }
+            }
+
+            long floor = 0;
+            if (!exact) {
+                floor = merged.values().stream()
+                        .mapToLong(estimate -> estimate[0] - estimate[1])
+                        .boxed()
+                        .sorted(Comparator.reverseOrder())
+                        .skip(Math.max(0, limit - 1L))
+                        .findFirst()
+                        .orElse(0L);
+            }
+            long minimum = floor;
+
+            List<Estimate> ranked = merged.entrySet().stream()
+                    .filter(e -> e.getValue()[0] >= minimum)
+                    .map(e -> new Estimate(e.getKey(), e.getValue()[0]))
+                    .sorted(Comparator.comparingLong(Estimate::quantity).reversed())
+                    .limit(exact ? limit : Long.MAX_VALUE)
+                    .toList();
+            return new Candidates(ranked, total, exact, generation);
+        }
+
+        private synchronized List<ProductPerformanceDTO> toDtos(List<Estimate> ranked, long total, int limit) {
+            return ranked.stream()
+                    .limit(limit)
+                    .map(estimate -> {
+                        double percentage = total == 0 ? 0 :
+                                ((double) estimate.quantity() / total) * 100;
+                        return ProductPerformanceDTO.builder()
+                                .productName(names.get(estimate.productId()))
+                                .quantitySold(estimate.quantity())
+                                .percentage(Math.round(percentage * 10.0) / 10.0) // rounded to 1 decimal
+                                .build();
+                    })
+                    .toList();
+        }
+    }
+}
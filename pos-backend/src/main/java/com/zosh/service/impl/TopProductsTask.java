@@ -0,0 +1,29 @@
+package com.zosh.service.impl;
+
+import com.zosh.service.TopProductsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task to reload the windowed top-sellers counts hourly
+ */
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+public class TopProductsTask {
+
+    private final TopProductsService topProductsService;
+
+    @Scheduled(initialDelay = 3_600_000, fixedDelay = 3_600_000)
+    public void reconcile() {
+        try {
+            topProductsService.reconcile();
+        } catch (Exception e) {
+            log.error("Error reconciling top products", e);
+        }
+    }
+}
@@ -32,7 +32,6 @@ public class UltraOptimizedDataInitializationComponent implements CommandLineRun
     private final InventoryRepository inventoryRepository;
     private final CustomerRepository customerRepository;
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
     private final ShiftReportRepository shiftReportRepository;
     private final RefundRepository refundRepository;
     private final SubscriptionRepository subscriptionRepository;
@@ -356,7 +355,7 @@ public class UltraOptimizedDataInitializationComponent implements CommandLineRun
                 .sku(generateSKU(store.getBrand(), i))
                 .description(pd.description)
                 .mrp(pd.mrp)
-                .sellingPrice(pd.sellingPrice)
+                .sellingPrice(Money.ofMajor(pd.sellingPrice))
                 .brand(pd.brand)
                 .category(category)
                 .store(store)
@@ -444,6 +443,10 @@ public class UltraOptimizedDataInitializationComponent implements CommandLineRun
         log.info("Creating ULTRA-OPTIMIZED transaction data from {} to {} ({} days)", 
                 startDate, endDate, MAX_DAYS);
         
+        long insertStart = System.nanoTime();
+        int orderCount = 0;
+        int itemCount = 0;
+        
         for (Branch branch : branches) {
             List<User> cashiers = branchCashiers.get(branch);
             
@@ -475,6 +478,9 @@ public class UltraOptimizedDataInitializationComponent implements CommandLineRun
                     List<Order> shiftOrders = createUltraOptimizedShiftOrders(branch, cashier, products, 
                                                                        customers, shiftStart, shiftEnd, totalMultiplier);
                     
+                    orderCount += shiftOrders.size();
+                    itemCount += shiftOrders.stream().mapToInt(o -> o.getItems().size()).sum();
+                    
                     // Create shift report
                     createUltraOptimizedShiftReport(branch, cashier, shiftOrders, shiftStart, shiftEnd);
                 }
@@ -484,6 +490,8 @@ public class UltraOptimizedDataInitializationComponent implements CommandLineRun
             }
         }
         
+        orderRepository.flush();
+        logInsertRate(orderCount, itemCount, insertStart);
         log.info("Created {} days of ULTRA-OPTIMIZED transaction data for all branches", MAX_DAYS);
     }
 
@@ -524,7 +532,7 @@ public class UltraOptimizedDataInitializationComponent implements CommandLineRun
             // Create 1-2 items per order (reduced)
             int itemCount = random.nextDouble() < 0.9 ? 1 : 2;
             List<OrderItem> orderItems = new ArrayList<>();
-            double totalAmount = 0.0;
+            long totalAmount = 0;
             
             // Select unique products for the order
             Set<Product> selectedProducts = new HashSet<>();
@@ -535,50 +543,51 @@ public class UltraOptimizedDataInitializationComponent implements CommandLineRun
             
             for (Product product : selectedProducts) {
                 int quantity = 1; // Always 1 item
-                double price = product.getSellingPrice();
-                double itemTotal = price * quantity;
+                long price = product.getSellingPrice().getMinorUnits();
+                long itemTotal = price * quantity;
                 totalAmount += itemTotal;
                 
                 OrderItem orderItem = OrderItem.builder()
                     .product(product)
                     .quantity(quantity)
-                    .price(price)
+                    .unitPrice(Money.ofMinor(price))
+                    .lineTotal(Money.ofMinor(itemTotal))
                     .order(order)
                     .build();
                 orderItems.add(orderItem);
             }
             
-            order.setTotalAmount(totalAmount);
+            order.setTotalAmount(Money.ofMinor(totalAmount));
             order.setItems(orderItems);
             
-            Order savedOrder = orderRepository.save(order);
-            orderItemRepository.saveAll(orderItems);
-            orders.add(savedOrder);
+            orders.add(order);
         }
         
-        return orders;
+        // Items cascade from their order; saving the shift together lets the
+        // pooled id sequences hand out ids in memory and JDBC batch the INSERTs
+        return orderRepository.saveAll(orders);
     }
 
     private void createUltraOptimizedShiftReport(Branch branch, User cashier, List<Order> orders, 
                                   LocalDateTime shiftStart, LocalDateTime shiftEnd) {
         
-        double totalSales = orders.stream()
-            .mapToDouble(Order::getTotalAmount)
+        long totalSales = orders.stream()
+            .mapToLong(order -> order.getTotalAmount().getMinorUnits())
             .sum();
         
         // Create 0-1 refunds per shift (reduced)
         int refundCount = random.nextDouble() < 0.2 ? 0 : 1;
         List<Refund> refunds = new ArrayList<>();
-        double totalRefunds = 0.0;
+        long totalRefunds = 0;
         
         if (refundCount > 0 && !orders.isEmpty()) {
             Order order = orders.get(random.nextInt(orders.size()));
-            double refundAmount = order.getTotalAmount() * 0.8; // 80% refund
+            long refundAmount = Math.round(order.getTotalAmount().getMinorUnits() * 0.8); // 80% refund
             
             Refund refund = new Refund();
             refund.setOrder(order);
             refund.setReason(getRandomRefundReason());
-            refund.setAmount(refundAmount);
+            refund.setAmount(Money.ofMinor(refundAmount));
             refund.setCashier(cashier);
             refund.setBranch(branch);
             refund.setPaymentType(order.getPaymentType());
@@ -605,9 +614,9 @@ public class UltraOptimizedDataInitializationComponent implements CommandLineRun
         ShiftReport shiftReport = new ShiftReport();
         shiftReport.setShiftStart(shiftStart);
         shiftReport.setShiftEnd(shiftEnd);
-        shiftReport.setTotalSales(totalSales);
-        shiftReport.setTotalRefunds(totalRefunds);
-        shiftReport.setNetSales(totalSales - totalRefunds);
+        shiftReport.setTotalSales(Money.ofMinor(totalSales));
+        shiftReport.setTotalRefunds(Money.ofMinor(totalRefunds));
+        shiftReport.setNetSales(Money.ofMinor(totalSales - totalRefunds));
         shiftReport.setTotalOrders(orders.size());
         shiftReport.setCashier(cashier);
         shiftReport.setBranch(branch);
@@ -672,6 +681,13 @@ public class UltraOptimizedDataInitializationComponent implements CommandLineRun
         }
     }
 
+    private void logInsertRate(int orderCount, int itemCount, long startNanos) {
+        long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        int rows = orderCount + itemCount;
+        log.info("Inserted {} orders with {} items in {} ms ({} rows/s)",
+                orderCount, itemCount, elapsedMs, rows * 1000L / elapsedMs);
+    }
+
     // Helper class for product data
     private static class ProductData {
         String name;
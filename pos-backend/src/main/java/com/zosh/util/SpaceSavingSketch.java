@@ -0,0 +1,100 @@
+package com.zosh.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters summary over long keys: at most {@code capacity}
+ * counters, each an upper bound on its key's true count with a known maximum
+ * overestimate. While nothing has been evicted every count is exact.
+ *
+ * Not thread-safe; callers guard it with their own lock.
+ */
+public class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private boolean saturated;
+
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void add(Long key, long count) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += count;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(key, count, 0));
+            return;
+        }
+
+        // Replace the smallest counter; the newcomer inherits its count as possible overestimate
+        Counter min = counters.values().stream()
+                .min(Comparator.comparingLong(c -> c.count))
+                .orElseThrow();
+        counters.remove(min.key);
+        counters.put(key, new Counter(key, min.count + count, min.count));
+        saturated = true;
+    }
+
+    /**
+     * Takes back {@code count} of a key's occurrences, e.g. for a deleted order.
+     * A key no longer held needs nothing: every held count still bounds its own key.
+     */
+    public void subtract(Long key, long count) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            return;
+        }
+        counter.count -= count;
+        // A count never undercuts its key's true count, so at zero the key is gone
+        if (counter.count <= 0) {
+            counters.remove(key);
+        }
+    }
+
+    // Marks the summary as possibly missing keys, e.g. when it was seeded from a truncated list
+    public void markSaturated() {
+        saturated = true;
+    }
+
+    /**
+     * True while every count is exact and no key has been dropped.
+     */
+    public boolean isExact() {
+        return !saturated;
+    }
+
+    /**
+     * Adds this summary's counters into {@code into}, keyed by item, as (count, error) pairs.
+     */
+    public void mergeInto(Map<Long, long[]> into) {
+        for (Counter counter : counters.values()) {
+            long[] estimate = into.computeIfAbsent(counter.key, k -> new long[2]);
+            estimate[0] += counter.count;
+            estimate[1] += counter.error;
+        }
+    }
+
+    public List<Long> keys() {
+        return new ArrayList<>(counters.keySet());
+    }
+
+    private static final class Counter {
+        private final Long key;
+        private long count;
+        private final long error;
+
+        private Counter(Long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
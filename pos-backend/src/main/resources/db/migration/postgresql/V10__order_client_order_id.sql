@@ -0,0 +1,7 @@
+-- Orders synced in a batch from an offline till carry the id the till gave
+-- them, so a batch that is re-sent after a lost response does not create the
+-- same orders twice. Orders taken online leave it NULL; NULLs never collide
+-- in a unique index. Safe to re-run.
+
+ALTER TABLE IF EXISTS orders ADD COLUMN IF NOT EXISTS client_order_id VARCHAR(64);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_order_client_order_id ON orders (client_order_id);
@@ -0,0 +1,38 @@
+-- Switch Order/OrderItem/Refund/ShiftReport/Customer/User ids from IDENTITY
+-- columns to pooled sequences (allocationSize = 50) so Hibernate can assign
+-- ids in memory and JDBC-batch the INSERTs.
+--
+-- Run once against an existing PostgreSQL database BEFORE deploying the
+-- build that uses the sequences. Each sequence is moved past the current
+-- MAX(id) so the pooled optimizer never hands out an id that is in use.
+-- Safe to re-run.
+
+-- orders
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) FROM orders) + 50);
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- order_items
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+SELECT setval('order_items_seq', (SELECT COALESCE(MAX(id), 0) FROM order_items) + 50);
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- refunds
+CREATE SEQUENCE IF NOT EXISTS refunds_seq INCREMENT BY 50;
+SELECT setval('refunds_seq', (SELECT COALESCE(MAX(id), 0) FROM refunds) + 50);
+ALTER TABLE refunds ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- shift_reports
+CREATE SEQUENCE IF NOT EXISTS shift_reports_seq INCREMENT BY 50;
+SELECT setval('shift_reports_seq', (SELECT COALESCE(MAX(id), 0) FROM shift_reports) + 50);
+ALTER TABLE shift_reports ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- customers
+CREATE SEQUENCE IF NOT EXISTS customers_seq INCREMENT BY 50;
+SELECT setval('customers_seq', (SELECT COALESCE(MAX(id), 0) FROM customers) + 50);
+ALTER TABLE customers ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- users
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) FROM users) + 50);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
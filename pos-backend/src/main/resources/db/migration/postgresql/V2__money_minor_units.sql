@@ -0,0 +1,41 @@
+-- Move money columns from double precision major units to BIGINT minor units
+-- (paise/cents). Order totals, line prices, selling prices, refunds and shift
+-- totals are then summed as exact integers in both Java and SQL.
+--
+-- Run once against an existing PostgreSQL database BEFORE deploying the
+-- build that maps com.zosh.modal.Money. The old double columns are kept (and
+-- made nullable where needed) so the previous build can still be rolled back
+-- to; drop them once the new build is settled. Safe to re-run.
+
+-- orders
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS total_amount_minor BIGINT;
+UPDATE orders SET total_amount_minor = ROUND(total_amount * 100)
+WHERE total_amount_minor IS NULL AND total_amount IS NOT NULL;
+
+-- order_items
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS price_minor BIGINT;
+UPDATE order_items SET price_minor = ROUND(price * 100)
+WHERE price_minor IS NULL AND price IS NOT NULL;
+
+-- products
+ALTER TABLE products ADD COLUMN IF NOT EXISTS selling_price_minor BIGINT;
+UPDATE products SET selling_price_minor = ROUND(selling_price * 100)
+WHERE selling_price_minor IS NULL;
+ALTER TABLE products ALTER COLUMN selling_price_minor SET NOT NULL;
+ALTER TABLE products ALTER COLUMN selling_price DROP NOT NULL;
+
+-- refunds
+ALTER TABLE refunds ADD COLUMN IF NOT EXISTS amount_minor BIGINT;
+UPDATE refunds SET amount_minor = ROUND(amount * 100)
+WHERE amount_minor IS NULL AND amount IS NOT NULL;
+
+-- shift_reports
+ALTER TABLE shift_reports ADD COLUMN IF NOT EXISTS total_sales_minor BIGINT;
+ALTER TABLE shift_reports ADD COLUMN IF NOT EXISTS total_refunds_minor BIGINT;
+ALTER TABLE shift_reports ADD COLUMN IF NOT EXISTS net_sales_minor BIGINT;
+UPDATE shift_reports SET total_sales_minor = ROUND(total_sales * 100)
+WHERE total_sales_minor IS NULL AND total_sales IS NOT NULL;
+UPDATE shift_reports SET total_refunds_minor = ROUND(total_refunds * 100)
+WHERE total_refunds_minor IS NULL AND total_refunds IS NOT NULL;
+UPDATE shift_reports SET net_sales_minor = ROUND(net_sales * 100)
+WHERE net_sales_minor IS NULL AND net_sales IS NOT NULL;
@@ -0,0 +1,16 @@
+-- Split order_items.price_minor, which held a line total for API orders and a
+-- unit price for seeded orders, into explicit unit_price_minor and
+-- line_total_minor columns, and add the index category/product sales read from.
+--
+-- Existing rows are filled by OrderItemPriceBackfillTask in chunks after the
+-- new build starts; price_minor is left in place for it and can be dropped
+-- once SELECT COUNT(*) FROM order_items WHERE line_total_minor IS NULL is 0.
+--
+-- CREATE INDEX CONCURRENTLY cannot run inside a transaction block; run this
+-- script with autocommit on. Safe to re-run.
+
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS unit_price_minor BIGINT;
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS line_total_minor BIGINT;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_item_sales
+    ON order_items (order_id, product_id, line_total_minor, quantity);
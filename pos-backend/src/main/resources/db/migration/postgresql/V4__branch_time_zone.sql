@@ -0,0 +1,5 @@
+-- Optional per-branch IANA time zone (e.g. 'Asia/Kolkata') used to bucket
+-- branch analytics into the branch's own calendar days. NULL keeps the
+-- server's zone, which is the previous behaviour. Safe to re-run.
+
+ALTER TABLE branches ADD COLUMN IF NOT EXISTS time_zone VARCHAR(64);
@@ -0,0 +1,23 @@
+-- Pre-aggregated sales per (branch, branch-local day, payment type, category),
+-- kept current by DailySalesRollupListener after every order and refund
+-- commit. History is filled by DailySalesRollupBackfillTask on first start,
+-- and any range of closed days can be recomputed with
+-- POST /api/branch-analytics/rollups/daily-sales/rebuild. Safe to re-run.
+
+CREATE SEQUENCE IF NOT EXISTS daily_branch_sales_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS daily_branch_sales (
+    id           BIGINT   PRIMARY KEY,
+    branch_id    BIGINT   NOT NULL REFERENCES branches (id),
+    sales_date   DATE     NOT NULL,
+    payment_type SMALLINT NOT NULL,
+    category_id  BIGINT   NOT NULL,
+    sales_minor  BIGINT   NOT NULL,
+    quantity     BIGINT   NOT NULL,
+    order_count  INTEGER  NOT NULL,
+    refund_minor BIGINT   NOT NULL,
+    refund_count INTEGER  NOT NULL,
+    CONSTRAINT uk_daily_branch_sales_key UNIQUE (branch_id, sales_date, payment_type, category_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_daily_branch_sales_date ON daily_branch_sales (sales_date);
@@ -0,0 +1,14 @@
+-- One low-stock item count per branch and branch-local day, written hourly by
+-- LowStockSnapshotTask and read as "yesterday" by the branch overview.
+-- Safe to re-run.
+
+CREATE SEQUENCE IF NOT EXISTS daily_low_stock_snapshots_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS daily_low_stock_snapshots (
+    id              BIGINT    PRIMARY KEY,
+    branch_id       BIGINT    NOT NULL REFERENCES branches (id),
+    snapshot_date   DATE      NOT NULL,
+    low_stock_count INTEGER   NOT NULL,
+    recorded_at     TIMESTAMP(6),
+    CONSTRAINT uk_low_stock_snapshot_branch_date UNIQUE (branch_id, snapshot_date)
+);
@@ -0,0 +1,11 @@
+-- One materialized dashboard per store admin, read by primary key by the
+-- store analytics endpoints. Rows are created on first read and kept current
+-- by StoreKpiSnapshotTask; version is the ETag served to clients.
+-- Safe to re-run.
+
+CREATE TABLE IF NOT EXISTS store_kpi_snapshot (
+    store_admin_id BIGINT       PRIMARY KEY,
+    version        BIGINT,
+    payload        TEXT         NOT NULL,
+    updated_at     TIMESTAMP(6)
+);
@@ -0,0 +1,33 @@
+-- Payment breakdown of each closed shift, written once by endShift and read
+-- with the report instead of being recomputed from orders.
+--
+-- Shifts closed before this table existed are backfilled from their orders.
+-- type holds the PaymentType ordinal as orders.payment_type does (CARD=0,
+-- UPI=1, CASH=2); orders without a type count as cash. Safe to re-run.
+
+CREATE TABLE IF NOT EXISTS shift_report_payment_summaries (
+    shift_report_id    BIGINT           NOT NULL REFERENCES shift_reports (id),
+    type               SMALLINT,
+    total_amount_minor BIGINT,
+    transaction_count  INTEGER          NOT NULL,
+    percentage         DOUBLE PRECISION NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_shift_report_payment_summaries_report
+    ON shift_report_payment_summaries (shift_report_id);
+
+INSERT INTO shift_report_payment_summaries
+    (shift_report_id, type, total_amount_minor, transaction_count, percentage)
+SELECT s.id,
+       COALESCE(o.payment_type, 2),
+       SUM(o.total_amount_minor),
+       COUNT(*),
+       CASE WHEN COALESCE(s.total_sales_minor, 0) <> 0
+            THEN SUM(o.total_amount_minor) * 100.0 / s.total_sales_minor
+            ELSE 0 END
+FROM shift_reports s
+JOIN orders o ON o.cashier_id = s.cashier_id
+             AND o.created_at BETWEEN s.shift_start AND s.shift_end
+WHERE s.shift_end IS NOT NULL
+AND NOT EXISTS (SELECT 1 FROM shift_report_payment_summaries p WHERE p.shift_report_id = s.id)
+GROUP BY s.id, COALESCE(o.payment_type, 2), s.total_sales_minor;
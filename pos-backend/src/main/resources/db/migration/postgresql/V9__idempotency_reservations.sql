@@ -0,0 +1,10 @@
+-- Idempotency rows are now inserted as PENDING before the request runs, so
+-- only one instance runs a given key, and carry a hash of the request body so
+-- a key reused for a different request is rejected. Existing rows all hold a
+-- completed response. Safe to re-run.
+
+ALTER TABLE IF EXISTS idempotency_records ADD COLUMN IF NOT EXISTS request_hash VARCHAR(64);
+ALTER TABLE IF EXISTS idempotency_records ADD COLUMN IF NOT EXISTS status VARCHAR(16);
+ALTER TABLE IF EXISTS idempotency_records ALTER COLUMN response_body DROP NOT NULL;
+
+UPDATE idempotency_records SET status = 'COMPLETED' WHERE status IS NULL;
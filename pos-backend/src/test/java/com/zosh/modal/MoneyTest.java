@@ -0,0 +1,52 @@
+package com.zosh.modal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void majorAmountsRoundToTheNearestMinorUnit() {
+        assertEquals(2999, Money.minorOf(Money.ofMajor(29.99)));
+        assertEquals(1005, Money.minorOf(Money.ofMajor(10.049999)));
+        assertNull(Money.ofMajor(null));
+        assertSame(Money.ZERO, Money.ofMinor(0));
+    }
+
+    @Test
+    void summingManyLinesDoesNotDrift() {
+        double doubles = 0;
+        Money money = Money.ZERO;
+        for (int i = 0; i < 1_000; i++) {
+            doubles += 0.10;
+            money = money.plus(Money.ofMajor(0.10));
+        }
+
+        assertNotEquals(100.0, doubles);
+        assertEquals(10_000, Money.minorOf(money));
+        assertEquals("100.00", money.toString());
+    }
+
+    @Test
+    void arithmeticFailsInsteadOfOverflowing() {
+        Money large = Money.ofMinor(Long.MAX_VALUE / 2 + 1);
+
+        assertThrows(ArithmeticException.class, () -> large.plus(large));
+        assertThrows(ArithmeticException.class, () -> large.times(2));
+        assertEquals(-250, Money.minorOf(Money.ofMinor(250).minus(Money.ofMinor(500))));
+    }
+
+    @Test
+    void jsonKeepsTheMajorUnitShape() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals("12.5", objectMapper.writeValueAsString(Money.ofMinor(1_250)));
+        assertEquals(1_250, Money.minorOf(objectMapper.readValue("12.5", Money.class)));
+    }
+}
@@ -0,0 +1,103 @@
+package com.zosh.repository;
+
+import com.zosh.domain.PaymentType;
+import com.zosh.modal.Branch;
+import com.zosh.modal.Money;
+import com.zosh.modal.Order;
+import com.zosh.modal.OrderItem;
+import com.zosh.modal.Product;
+import com.zosh.modal.Store;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Order and order line ids come from pooled sequences, so Hibernate can batch
+ * their INSERTs (hibernate.jdbc.batch_size). An IDENTITY id would force one
+ * statement per row; this fails the build if that comes back.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderInsertBatchingTest {
+
+    private static final int ORDERS = 40;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Branch branch;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Store store = persist(Store.builder().brand("Corner Shop").build());
+        branch = persist(Branch.builder().name("Main").store(store).build());
+        products = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            products.add(persist(Product.builder()
+                    .name("Product " + i)
+                    .sku("SKU-" + i)
+                    .mrp(10.0)
+                    .sellingPrice(Money.ofMinor(1_000))
+                    .store(store)
+                    .build()));
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void orderAndLineInsertsAreBatched() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .branch(branch)
+                    .paymentType(PaymentType.CASH)
+                    .totalAmount(Money.ofMinor(3_000))
+                    .items(new ArrayList<>())
+                    .build();
+            for (Product product : products) {
+                order.getItems().add(OrderItem.builder()
+                        .order(order)
+                        .product(product)
+                        .quantity(1)
+                        .unitPrice(Money.ofMinor(1_000))
+                        .lineTotal(Money.ofMinor(1_000))
+                        .build());
+            }
+            orders.add(order);
+        }
+        statistics.clear();
+
+        orderRepository.saveAll(orders);
+        entityManager.flush();
+
+        long rows = ORDERS + (long) ORDERS * ITEMS_PER_ORDER;
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(rows, statistics.getEntityInsertCount());
+        // 160 rows: a few sequence calls (allocation size 50) plus INSERT batches of 20
+        assertTrue(statements <= 15, "expected batched inserts but ran " + statements + " statements for " + rows + " rows");
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
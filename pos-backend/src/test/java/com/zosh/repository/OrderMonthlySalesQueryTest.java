@@ -0,0 +1,119 @@
+package com.zosh.repository;
+
+import com.zosh.domain.PaymentType;
+import com.zosh.domain.UserRole;
+import com.zosh.modal.Branch;
+import com.zosh.modal.Money;
+import com.zosh.modal.Order;
+import com.zosh.modal.Store;
+import com.zosh.modal.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The monthly sales graph is aggregated in the database, so however many orders
+ * a store has, the read is one statement returning at most one row per month and
+ * no order is loaded as an entity.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderMonthlySalesQueryTest {
+
+    private static final YearMonth FIRST_MONTH = YearMonth.of(2025, 4);
+    private static final int MONTHS = 12;
+    private static final int ORDERS_PER_MONTH = 50;
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User storeAdmin;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        storeAdmin = user("admin@example.com");
+        Branch branch = branch(storeAdmin);
+        Branch otherBranch = branch(user("other@example.com"));
+
+        for (int month = 0; month < MONTHS; month++) {
+            LocalDateTime monthStart = FIRST_MONTH.plusMonths(month).atDay(1).atStartOfDay();
+            for (int i = 0; i < ORDERS_PER_MONTH; i++) {
+                order(branch, monthStart.plusHours(i), 1_000);
+            }
+            order(otherBranch, monthStart, 99_999);
+        }
+        // Just outside the range on both sides
+        order(branch, FIRST_MONTH.atDay(1).atStartOfDay().minusNanos(1_000), 7);
+        order(branch, FIRST_MONTH.plusMonths(MONTHS).atDay(1).atStartOfDay(), 7);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void salesAreSummedPerMonthInOneStatement() {
+        statistics.clear();
+
+        List<Object[]> rows = orderRepository.sumSalesByMonth(storeAdmin.getId(),
+                FIRST_MONTH.atDay(1).atStartOfDay(),
+                FIRST_MONTH.plusMonths(MONTHS).atDay(1).atStartOfDay());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(MONTHS, rows.size());
+
+        Map<YearMonth, Long> byMonth = new HashMap<>();
+        for (Object[] row : rows) {
+            byMonth.put(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()),
+                    ((Number) row[2]).longValue());
+        }
+        for (int month = 0; month < MONTHS; month++) {
+            assertEquals(ORDERS_PER_MONTH * 1_000L, byMonth.get(FIRST_MONTH.plusMonths(month)));
+        }
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setFullName(email);
+        user.setEmail(email);
+        user.setRole(UserRole.ROLE_STORE_ADMIN);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Branch branch(User admin) {
+        Store store = Store.builder().brand(admin.getEmail()).storeAdmin(admin).build();
+        entityManager.persist(store);
+        Branch branch = Branch.builder().name("Main").store(store).build();
+        entityManager.persist(branch);
+        return branch;
+    }
+
+    private void order(Branch branch, LocalDateTime createdAt, long totalMinor) {
+        entityManager.persist(Order.builder()
+                .branch(branch)
+                .paymentType(PaymentType.CASH)
+                .totalAmount(Money.ofMinor(totalMinor))
+                .createdAt(createdAt)
+                .build());
+    }
+}
@@ -0,0 +1,156 @@
+package com.zosh.repository;
+
+import com.zosh.domain.PaymentType;
+import com.zosh.domain.UserRole;
+import com.zosh.modal.Branch;
+import com.zosh.modal.Money;
+import com.zosh.modal.Order;
+import com.zosh.modal.Refund;
+import com.zosh.modal.Store;
+import com.zosh.modal.User;
+import com.zosh.payload.dto.RefundDTO;
+import com.zosh.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The refund listing and export build their WHERE clause from the filters that
+ * are set, so these check each filter on its own and that refunds without a
+ * cashier or shift report are not dropped by the selected columns.
+ */
+@DataJpaTest
+class RefundRepositoryTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 2, 12, 0);
+
+    @Autowired
+    private RefundRepository refundRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Store store;
+    private Branch branch;
+    private Branch otherStoreBranch;
+    private User cashier;
+    private Refund early;
+    private Refund late;
+    private Refund unassigned;
+    private Refund otherStore;
+
+    @BeforeEach
+    void setUp() {
+        store = persist(Store.builder().brand("Corner Shop").build());
+        branch = persist(Branch.builder().name("Main").store(store).build());
+        Store second = persist(Store.builder().brand("Other Shop").build());
+        otherStoreBranch = persist(Branch.builder().name("Other").store(second).build());
+
+        cashier = new User();
+        cashier.setFullName("Cashier");
+        cashier.setEmail("cashier@example.com");
+        cashier.setRole(UserRole.ROLE_BRANCH_CASHIER);
+        cashier.setBranch(branch);
+        persist(cashier);
+
+        early = refund(branch, cashier, NOON.minusHours(2), 1_250);
+        late = refund(branch, cashier, NOON, 500);
+        unassigned = refund(branch, null, NOON.minusHours(1), 300);
+        otherStore = refund(otherStoreBranch, null, NOON, 100);
+        entityManager.clear();
+    }
+
+    @Test
+    void noFiltersListsEveryRefundNewestFirst() {
+        List<RefundDTO> rows = refundRepository.findSummaries(Specification.allOf(), 0);
+
+        assertEquals(List.of(otherStore.getId(), late.getId(), unassigned.getId(), early.getId()), ids(rows));
+        RefundDTO first = rows.get(3);
+        assertEquals(12.5, first.getAmount());
+        assertEquals("Cashier", first.getCashierName());
+        assertEquals(branch.getId(), first.getBranchId());
+        assertNull(rows.get(2).getCashierName());
+        assertNull(first.getShiftReportId());
+    }
+
+    @Test
+    void eachFilterOnlyNarrowsByItsOwnColumn() {
+        assertEquals(List.of(late.getId(), unassigned.getId(), early.getId()),
+                ids(refundRepository.findSummaries(RefundSpecifications.storeId(store.getId()), 0)));
+        assertEquals(List.of(otherStore.getId()),
+                ids(refundRepository.findSummaries(RefundSpecifications.branchId(otherStoreBranch.getId()), 0)));
+        assertEquals(List.of(late.getId(), early.getId()),
+                ids(refundRepository.findSummaries(RefundSpecifications.cashierId(cashier.getId()), 0)));
+        assertEquals(List.of(unassigned.getId(), early.getId()),
+                ids(refundRepository.findSummaries(Specification.allOf(
+                        RefundSpecifications.createdFrom(NOON.minusHours(2)),
+                        RefundSpecifications.createdBefore(NOON)), 0)));
+    }
+
+    @Test
+    void keysetPagesContinueAfterTheCursor() {
+        Specification<Refund> spec = RefundSpecifications.storeId(store.getId());
+
+        List<RefundDTO> firstPage = refundRepository.findSummaries(spec, 2);
+        RefundDTO last = firstPage.get(1);
+        List<RefundDTO> secondPage = refundRepository.findSummaries(
+                spec.and(RefundSpecifications.before(new KeysetCursor(last.getCreatedAt(), last.getId()))), 2);
+
+        assertEquals(List.of(late.getId(), unassigned.getId()), ids(firstPage));
+        assertEquals(List.of(early.getId()), ids(secondPage));
+    }
+
+    @Test
+    void exportStreamsMatchingRowsOldestFirst() {
+        try (Stream<Object[]> rows = refundRepository.streamForExport(RefundSpecifications.storeId(store.getId()))) {
+            List<Object[]> exported = rows.toList();
+
+            assertEquals(List.of(early.getId(), unassigned.getId(), late.getId()),
+                    exported.stream().map(row -> (Long) row[0]).toList());
+            assertEquals(1_250L, exported.get(0)[6]);
+            assertEquals(PaymentType.CASH, exported.get(0)[5]);
+        }
+    }
+
+    private Refund refund(Branch refundBranch, User refundCashier, LocalDateTime createdAt, long amountMinor) {
+        Order order = persist(Order.builder()
+                .branch(refundBranch)
+                .cashier(refundCashier)
+                .paymentType(PaymentType.CASH)
+                .totalAmount(Money.ofMinor(amountMinor))
+                .build());
+        Refund refund = new Refund();
+        refund.setOrder(order);
+        refund.setBranch(refundBranch);
+        refund.setCashier(refundCashier);
+        refund.setAmount(Money.ofMinor(amountMinor));
+        refund.setPaymentType(PaymentType.CASH);
+        refund.setReason("Damaged");
+        persist(refund);
+        // createdAt is stamped on persist; move it to the time the test needs
+        entityManager.flush();
+        entityManager.createQuery("UPDATE Refund r SET r.createdAt = :createdAt WHERE r.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", refund.getId())
+                .executeUpdate();
+        return refund;
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private static List<Long> ids(List<RefundDTO> rows) {
+        return rows.stream().map(RefundDTO::getId).toList();
+    }
+}
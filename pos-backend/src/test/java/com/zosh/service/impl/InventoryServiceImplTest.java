@@ -0,0 +1,72 @@
+package com.zosh.service.impl;
+
+import com.zosh.exception.UserException;
+import com.zosh.repository.BranchRepository;
+import com.zosh.repository.InventoryRepository;
+import com.zosh.repository.LowStockSnapshotRepository;
+import com.zosh.repository.ProductRepository;
+import com.zosh.util.SecurityUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceImplTest {
+
+    private static final Long BRANCH_ID = 3L;
+    private static final Long PRODUCT_ID = 11L;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+    @Mock
+    private BranchRepository branchRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private SecurityUtil securityUtil;
+    @Mock
+    private LowStockSnapshotRepository lowStockSnapshotRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private InventoryServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new InventoryServiceImpl(inventoryRepository, branchRepository, productRepository,
+                securityUtil, lowStockSnapshotRepository, eventPublisher);
+    }
+
+    @Test
+    void missingInventoryRowIsNotReportedAsAShortage() {
+        when(inventoryRepository.decrementStock(eq(BRANCH_ID), eq(PRODUCT_ID), eq(2), any())).thenReturn(0);
+        when(inventoryRepository.existsByBranchIdAndProductId(BRANCH_ID, PRODUCT_ID)).thenReturn(false);
+
+        UserException e = assertThrows(UserException.class,
+                () -> service.decrementStock(BRANCH_ID, Map.of(PRODUCT_ID, 2)));
+
+        assertEquals("Product 11 is not stocked at this branch", e.getMessage());
+    }
+
+    @Test
+    void shortStockIsReportedAsInsufficient() {
+        when(inventoryRepository.decrementStock(eq(BRANCH_ID), eq(PRODUCT_ID), eq(2), any())).thenReturn(0);
+        when(inventoryRepository.existsByBranchIdAndProductId(BRANCH_ID, PRODUCT_ID)).thenReturn(true);
+
+        UserException e = assertThrows(UserException.class,
+                () -> service.decrementStock(BRANCH_ID, Map.of(PRODUCT_ID, 2)));
+
+        assertEquals("Insufficient stock for product 11", e.getMessage());
+    }
+}
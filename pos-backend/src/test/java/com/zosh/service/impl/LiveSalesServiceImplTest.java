@@ -0,0 +1,91 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.UserRole;
+import com.zosh.exception.AccessDeniedException;
+import com.zosh.modal.Branch;
+import com.zosh.modal.Store;
+import com.zosh.modal.User;
+import com.zosh.repository.BranchRepository;
+import com.zosh.repository.OrderRepository;
+import com.zosh.repository.RefundRepository;
+import com.zosh.repository.StoreRepository;
+import com.zosh.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LiveSalesServiceImplTest {
+
+    @Mock
+    private BranchRepository branchRepository;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private RefundRepository refundRepository;
+    @Mock
+    private StoreRepository storeRepository;
+    @Mock
+    private UserService userService;
+
+    private final Store store = Store.builder().id(1L).build();
+    private final Store otherStore = Store.builder().id(2L).build();
+    private final Branch otherBranch = Branch.builder().id(20L).store(store).build();
+    private LiveSalesServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LiveSalesServiceImpl(branchRepository, orderRepository, refundRepository,
+                storeRepository, userService, 10, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stopPushExecutor();
+    }
+
+    @Test
+    void cashierCannotWatchAnotherBranchOfTheirStore() throws Exception {
+        User cashier = user(UserRole.ROLE_BRANCH_CASHIER);
+        cashier.setBranch(Branch.builder().id(10L).store(store).build());
+        when(userService.getCurrentUser()).thenReturn(cashier);
+        when(branchRepository.findById(20L)).thenReturn(Optional.of(otherBranch));
+
+        assertThrows(AccessDeniedException.class, () -> service.subscribeBranch(20L));
+    }
+
+    @Test
+    void branchStaffCannotWatchTheWholeStore() throws Exception {
+        User manager = user(UserRole.ROLE_BRANCH_MANAGER);
+        manager.setBranch(otherBranch);
+        when(userService.getCurrentUser()).thenReturn(manager);
+
+        assertThrows(AccessDeniedException.class, () -> service.subscribeStore(1L));
+    }
+
+    @Test
+    void storeAdminCannotWatchAnotherStore() throws Exception {
+        User admin = user(UserRole.ROLE_STORE_ADMIN);
+        when(userService.getCurrentUser()).thenReturn(admin);
+        when(storeRepository.findByStoreAdminId(admin.getId())).thenReturn(otherStore);
+        when(branchRepository.findById(20L)).thenReturn(Optional.of(otherBranch));
+
+        assertThrows(AccessDeniedException.class, () -> service.subscribeStore(1L));
+        assertThrows(AccessDeniedException.class, () -> service.subscribeBranch(20L));
+    }
+
+    private static User user(UserRole role) {
+        User user = new User();
+        user.setId(5L);
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,173 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.PaymentType;
+import com.zosh.domain.UserRole;
+import com.zosh.modal.Branch;
+import com.zosh.modal.Category;
+import com.zosh.modal.Customer;
+import com.zosh.modal.Money;
+import com.zosh.modal.Order;
+import com.zosh.modal.OrderItem;
+import com.zosh.modal.Product;
+import com.zosh.modal.Store;
+import com.zosh.modal.User;
+import com.zosh.payload.dto.OrderDTO;
+import com.zosh.service.InventoryService;
+import com.zosh.service.OrderService;
+import com.zosh.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements each order read path runs, so a mapper or query
+ * change that brings back per-order or per-item loading fails the build. The
+ * fixture has enough orders and items that N+1 loading would blow every bound.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(OrderServiceImpl.class)
+class OrderReadQueryCountTest {
+
+    private static final int ORDERS = 8;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private UserService userService;
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    private Statistics statistics;
+    private Branch branch;
+    private User cashier;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Store store = persist(Store.builder().brand("Corner Shop").build());
+        branch = persist(Branch.builder().name("Main").store(store).build());
+        cashier = new User();
+        cashier.setFullName("Cashier");
+        cashier.setEmail("cashier@example.com");
+        cashier.setRole(UserRole.ROLE_BRANCH_CASHIER);
+        cashier.setBranch(branch);
+        cashier.setStore(store);
+        persist(cashier);
+        customer = new Customer();
+        customer.setFullName("Customer");
+        customer.setStore(store);
+        persist(customer);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            Category category = persist(Category.builder().name("Category " + i).store(store).build());
+            products.add(persist(Product.builder()
+                    .name("Product " + i)
+                    .sku("SKU-" + i)
+                    .mrp(10.0)
+                    .sellingPrice(Money.ofMinor(1_000))
+                    .category(category)
+                    .store(store)
+                    .build()));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .branch(branch)
+                    .cashier(cashier)
+                    .customer(customer)
+                    .paymentType(PaymentType.CASH)
+                    .totalAmount(Money.ofMinor(3_000))
+                    .createdAt(now.minusMinutes(i))
+                    .items(new ArrayList<>())
+                    .build();
+            for (Product product : products) {
+                order.getItems().add(OrderItem.builder()
+                        .order(order)
+                        .product(product)
+                        .quantity(1)
+                        .unitPrice(Money.ofMinor(1_000))
+                        .lineTotal(Money.ofMinor(1_000))
+                        .build());
+            }
+            persist(order);
+        }
+    }
+
+    @Test
+    void ordersByCashierLoadInOneQuery() {
+        List<OrderDTO> orders = countQueries(1, () -> orderService.getOrdersByCashier(cashier.getId()));
+        assertEquals(ORDERS, orders.size());
+    }
+
+    @Test
+    void ordersByCustomerLoadInOneQuery() {
+        List<OrderDTO> orders = countQueries(1, () -> orderService.getOrdersByCustomerId(customer.getId()));
+        assertEquals(ORDERS, orders.size());
+    }
+
+    @Test
+    void todayOrdersLoadInOneQuery() {
+        List<OrderDTO> orders = countQueries(1, () -> orderService.getTodayOrdersByBranch(branch.getId()));
+        assertTrue(orders.size() > 0);
+    }
+
+    @Test
+    void recentOrdersStayWithinBatchFetchBound() {
+        // Branch lookup, the limited order page, then batched items, products and categories
+        List<OrderDTO> orders = countQueries(5, () -> orderService.getTop5RecentOrdersByBranchId(branch.getId()));
+        assertEquals(5, orders.size());
+    }
+
+    @Test
+    void branchOrderPageLoadsInTwoQueries() {
+        // The limited page, then its items, products and categories by id
+        List<OrderDTO> orders = countQueries(2, () -> orderService
+                .getOrdersByBranch(branch.getId(), null, null, null, null, null, 5)
+                .getItems());
+        assertEquals(5, orders.size());
+        assertEquals(ITEMS_PER_ORDER, orders.get(0).getItems().size());
+    }
+
+    // Runs the read against an empty persistence context and checks it stays within maxQueries
+    private <T> T countQueries(long maxQueries, Supplier<T> read) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        T result = read.get();
+
+        long queries = statistics.getPrepareStatementCount();
+        assertTrue(queries <= maxQueries, "expected at most " + maxQueries + " queries but ran " + queries);
+        return result;
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,108 @@
+package com.zosh.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zosh.domain.PaymentType;
+import com.zosh.event.OrderPlacedEvent;
+import com.zosh.modal.StoreKpiSnapshot;
+import com.zosh.payload.StoreAnalysis.StoreKpiSnapshotDTO;
+import com.zosh.payload.StoreAnalysis.StoreOverviewDTO;
+import com.zosh.repository.BranchRepository;
+import com.zosh.repository.CategoryRepository;
+import com.zosh.repository.StoreKpiSnapshotRepository;
+import com.zosh.service.StoreAnalyticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StoreKpiSnapshotServiceImplTest {
+
+    private static final Long STORE_ADMIN_ID = 7L;
+
+    @Mock
+    private StoreKpiSnapshotRepository snapshotRepository;
+    @Mock
+    private StoreAnalyticsService storeAnalyticsService;
+    @Mock
+    private BranchRepository branchRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<StoreKpiSnapshot> stored = new AtomicReference<>();
+    private StoreKpiSnapshotServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StoreKpiSnapshotServiceImpl(snapshotRepository, storeAnalyticsService,
+                branchRepository, categoryRepository, objectMapper);
+        when(snapshotRepository.findById(STORE_ADMIN_ID)).thenAnswer(invocation -> Optional.ofNullable(stored.get()));
+        when(snapshotRepository.save(any(StoreKpiSnapshot.class))).thenAnswer(invocation -> {
+            StoreKpiSnapshot snapshot = invocation.getArgument(0);
+            stored.set(snapshot);
+            return snapshot;
+        });
+    }
+
+    @Test
+    void rebuildDiscardsDeltasItAlreadyCounted() {
+        service.applyOrder(order(1L, 1_000));
+        // The database already holds the order when the snapshot is built
+        overviewReturns(10.0, 1);
+
+        service.getSnapshot(STORE_ADMIN_ID);
+        service.applyPending();
+
+        StoreOverviewDTO overview = storedOverview();
+        assertEquals(1, overview.getTotalOrders());
+        assertEquals(10.0, overview.getTotalSales());
+    }
+
+    @Test
+    void deltaQueuedAfterRebuildIsAppliedOnce() {
+        overviewReturns(10.0, 1);
+        service.getSnapshot(STORE_ADMIN_ID);
+
+        service.applyOrder(order(2L, 500));
+        service.applyPending();
+        service.applyPending();
+
+        StoreOverviewDTO overview = storedOverview();
+        assertEquals(2, overview.getTotalOrders());
+        assertEquals(15.0, overview.getTotalSales());
+    }
+
+    private void overviewReturns(double totalSales, int totalOrders) {
+        when(storeAnalyticsService.getStoreOverview(STORE_ADMIN_ID)).thenReturn(StoreOverviewDTO.builder()
+                .totalSales(totalSales)
+                .totalOrders(totalOrders)
+                .totalRefunds(0)
+                .build());
+    }
+
+    private StoreOverviewDTO storedOverview() {
+        try {
+            return objectMapper.readValue(stored.get().getPayload(), StoreKpiSnapshotDTO.class).getOverview();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static OrderPlacedEvent order(Long orderId, long totalMinor) {
+        LocalDateTime now = LocalDateTime.now();
+        return new OrderPlacedEvent(orderId, 3L, 5L, STORE_ADMIN_ID, 9L, now, LocalDate.from(now),
+                PaymentType.CASH, totalMinor, List.of());
+    }
+}
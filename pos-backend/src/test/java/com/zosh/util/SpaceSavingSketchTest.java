@@ -0,0 +1,127 @@
+package com.zosh.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void countsStayExactWithinCapacity() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        sketch.add(1L, 5);
+        sketch.add(2L, 2);
+        sketch.add(1L, 3);
+        sketch.add(3L, 1);
+
+        Map<Long, long[]> counts = merged(sketch);
+
+        assertTrue(sketch.isExact());
+        assertEquals(3, counts.size());
+        assertArrayEquals(new long[]{8, 0}, counts.get(1L));
+        assertArrayEquals(new long[]{2, 0}, counts.get(2L));
+        assertArrayEquals(new long[]{1, 0}, counts.get(3L));
+    }
+
+    @Test
+    void newcomerReplacesSmallestCounterAndInheritsItAsError() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.add(1L, 5);
+        sketch.add(2L, 3);
+        sketch.add(3L, 1);
+
+        Map<Long, long[]> counts = merged(sketch);
+
+        assertFalse(sketch.isExact());
+        assertEquals(2, counts.size());
+        assertFalse(counts.containsKey(2L));
+        assertArrayEquals(new long[]{5, 0}, counts.get(1L));
+        assertArrayEquals(new long[]{4, 3}, counts.get(3L));
+    }
+
+    @Test
+    void markSaturatedMakesSketchInexact() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(10);
+        sketch.add(1L, 1);
+
+        sketch.markSaturated();
+
+        assertFalse(sketch.isExact());
+    }
+
+    @Test
+    void countsBoundTrueCountsOnBothSides() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(20);
+        Map<Long, Long> truth = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            // Skewed towards low keys, so a few heavy hitters stand out of a long tail
+            long key = (long) Math.floor(Math.pow(random.nextDouble(), 3) * 200);
+            long quantity = 1 + random.nextInt(3);
+            sketch.add(key, quantity);
+            truth.merge(key, quantity, Long::sum);
+        }
+
+        Map<Long, long[]> counts = merged(sketch);
+
+        assertFalse(sketch.isExact());
+        assertEquals(20, counts.size());
+        for (Map.Entry<Long, long[]> entry : counts.entrySet()) {
+            long actual = truth.get(entry.getKey());
+            long count = entry.getValue()[0];
+            long error = entry.getValue()[1];
+            assertTrue(count >= actual, "count overestimates key " + entry.getKey());
+            assertTrue(count - error <= actual, "count - error underestimates key " + entry.getKey());
+        }
+        // The heaviest key can never be evicted
+        long heaviest = truth.entrySet().stream().max(Map.Entry.comparingByValue()).orElseThrow().getKey();
+        assertTrue(counts.containsKey(heaviest));
+    }
+
+    @Test
+    void subtractTakesBackCountsAndDropsEmptiedKeys() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        sketch.add(1L, 5);
+        sketch.add(2L, 2);
+
+        sketch.subtract(1L, 3);
+        sketch.subtract(2L, 2);
+        sketch.subtract(3L, 4);
+
+        Map<Long, long[]> counts = merged(sketch);
+
+        assertEquals(1, counts.size());
+        assertArrayEquals(new long[]{2, 0}, counts.get(1L));
+    }
+
+    @Test
+    void mergeIntoSumsCountsAndErrorsAcrossSketches() {
+        SpaceSavingSketch first = new SpaceSavingSketch(1);
+        first.add(1L, 2);
+        first.add(2L, 3);
+        SpaceSavingSketch second = new SpaceSavingSketch(2);
+        second.add(2L, 4);
+        second.add(3L, 1);
+
+        Map<Long, long[]> counts = new HashMap<>();
+        first.mergeInto(counts);
+        second.mergeInto(counts);
+
+        assertEquals(2, counts.size());
+        assertArrayEquals(new long[]{9, 2}, counts.get(2L));
+        assertArrayEquals(new long[]{1, 0}, counts.get(3L));
+    }
+
+    private static Map<Long, long[]> merged(SpaceSavingSketch sketch) {
+        Map<Long, long[]> counts = new HashMap<>();
+        sketch.mergeInto(counts);
+        return counts;
+    }
+}
@@ -18,6 +18,11 @@ const initialState = {
   loading: false,
   error: null,
   recentOrders: [], // Added for recent orders
+  // Keyset paging for the branch orders list
+  ordersQuery: null,
+  ordersNextCursor: null,
+  ordersHasMore: false,
+  loadingMore: false,
 };
 
 const orderSlice = createSlice({
@@ -30,6 +35,9 @@ const orderSlice = createSlice({
       state.customerOrders = [];
       state.selectedOrder = null;
       state.error = null;
+      state.ordersQuery = null;
+      state.ordersNextCursor = null;
+      state.ordersHasMore = false;
     },
     clearCustomerOrders: (state) => {
       state.customerOrders = [];
@@ -54,8 +62,25 @@ const orderSlice = createSlice({
         state.selectedOrder = action.payload;
       })
 
+      .addCase(getOrdersByBranch.pending, (state, action) => {
+        if (action.meta.arg.cursor) state.loadingMore = true;
+        else state.loading = true;
+      })
       .addCase(getOrdersByBranch.fulfilled, (state, action) => {
-        state.orders = action.payload;
+        // A request with a cursor appends the next page; anything else starts over
+        const { cursor, ...query } = action.meta.arg;
+        const { items, nextCursor, hasMore } = action.payload;
+        state.orders = cursor ? [...state.orders, ...items] : items;
+        state.ordersQuery = query;
+        state.ordersNextCursor = nextCursor;
+        state.ordersHasMore = hasMore;
+        state.loading = false;
+        state.loadingMore = false;
+      })
+      .addCase(getOrdersByBranch.rejected, (state, action) => {
+        state.loading = false;
+        state.loadingMore = false;
+        state.error = action.payload;
       })
 
       .addCase(getOrdersByCashier.fulfilled, (state, action) => {
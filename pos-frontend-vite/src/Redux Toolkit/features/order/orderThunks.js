@@ -84,7 +84,7 @@ export const getOrderById = createAsyncThunk(
 // 🔹 Get Orders by Branch (with optional filters)
 export const getOrdersByBranch = createAsyncThunk(
   'order/getByBranch',
-  async ({ branchId, customerId, cashierId, paymentType, status }, { rejectWithValue }) => {
+  async ({ branchId, customerId, cashierId, paymentType, status, cursor, limit }, { rejectWithValue }) => {
     try {
       const headers = getAuthHeaders();
       // Build query params
@@ -93,9 +93,12 @@ export const getOrdersByBranch = createAsyncThunk(
       if (cashierId) params.push(`cashierId=${cashierId}`);
       if (paymentType) params.push(`paymentType=${paymentType}`);
       if (status) params.push(`status=${status}`);
+      if (cursor) params.push(`cursor=${cursor}`);
+      if (limit) params.push(`limit=${limit}`);
       const query = params.length ? `?${params.join('&')}` : '';
       const res = await api.get(`/api/orders/branch/${branchId}${query}`, { headers });
       console.log('✅ Orders by branch response:', res.data);
+      // Paginated response: { items, nextCursor, hasMore }
       return res.data;
     } catch (err) {
       console.error('❌ Failed to fetch orders by branch:', err.response?.data || err.message);
@@ -10,17 +10,46 @@ import {
   deleteRefund
 } from './refundThunks';
 
+const emptyPage = { query: null, nextCursor: null, hasMore: false };
+
 const initialState = {
   refunds: [],
   refundsByCashier: [],
   refundsByBranch: [],
   refundsByShift: [],
   refundsByDateRange: [],
+  // Keyset paging: the query each list was loaded with and its next cursor
+  refundsPage: emptyPage,
+  refundsByCashierPage: emptyPage,
+  refundsByBranchPage: emptyPage,
+  loadingMore: false,
   selectedRefund: null,
   loading: false,
   error: null,
 };
 
+// A request with a cursor appends the next page; anything else starts over
+const applyPage = (state, listKey, action) => {
+  const { cursor, ...query } = action.meta.arg || {};
+  const { items, nextCursor, hasMore } = action.payload;
+  state[listKey] = cursor ? [...state[listKey], ...items] : items;
+  state[`${listKey}Page`] = { query, nextCursor, hasMore };
+  state.loading = false;
+  state.loadingMore = false;
+};
+
+const startPage = (state, action) => {
+  if (action.meta.arg?.cursor) state.loadingMore = true;
+  else state.loading = true;
+  state.error = null;
+};
+
+const failPage = (state, action) => {
+  state.loading = false;
+  state.loadingMore = false;
+  state.error = action.payload;
+};
+
 const refundSlice = createSlice({
   name: 'refund',
   initialState,
@@ -31,6 +60,9 @@ const refundSlice = createSlice({
       state.refundsByBranch = [];
       state.refundsByShift = [];
       state.refundsByDateRange = [];
+      state.refundsPage = emptyPage;
+      state.refundsByCashierPage = emptyPage;
+      state.refundsByBranchPage = emptyPage;
       state.selectedRefund = null;
       state.error = null;
     },
@@ -39,9 +71,11 @@ const refundSlice = createSlice({
     },
     clearRefundsByCashier: (state) => {
       state.refundsByCashier = [];
+      state.refundsByCashierPage = emptyPage;
     },
     clearRefundsByBranch: (state) => {
       state.refundsByBranch = [];
+      state.refundsByBranchPage = emptyPage;
     },
     clearRefundsByShift: (state) => {
       state.refundsByShift = [];
@@ -73,46 +107,25 @@ const refundSlice = createSlice({
       })
 
       // Get All Refunds
-      .addCase(getAllRefunds.pending, (state) => {
-        state.loading = true;
-        state.error = null;
-      })
+      .addCase(getAllRefunds.pending, startPage)
       .addCase(getAllRefunds.fulfilled, (state, action) => {
-        state.loading = false;
-        state.refunds = action.payload;
-      })
-      .addCase(getAllRefunds.rejected, (state, action) => {
-        state.loading = false;
-        state.error = action.payload;
+        applyPage(state, 'refunds', action);
       })
+      .addCase(getAllRefunds.rejected, failPage)
 
       // Get Refunds by Cashier
-      .addCase(getRefundsByCashier.pending, (state) => {
-        state.loading = true;
-        state.error = null;
-      })
+      .addCase(getRefundsByCashier.pending, startPage)
       .addCase(getRefundsByCashier.fulfilled, (state, action) => {
-        state.loading = false;
-        state.refundsByCashier = action.payload;
-      })
-      .addCase(getRefundsByCashier.rejected, (state, action) => {
-        state.loading = false;
-        state.error = action.payload;
+        applyPage(state, 'refundsByCashier', action);
       })
+      .addCase(getRefundsByCashier.rejected, failPage)
 
       // Get Refunds by Branch
-      .addCase(getRefundsByBranch.pending, (state) => {
-        state.loading = true;
-        state.error = null;
-      })
+      .addCase(getRefundsByBranch.pending, startPage)
       .addCase(getRefundsByBranch.fulfilled, (state, action) => {
-        state.loading = false;
-        state.refundsByBranch = action.payload;
-      })
-      .addCase(getRefundsByBranch.rejected, (state, action) => {
-        state.loading = false;
-        state.error = action.payload;
+        applyPage(state, 'refundsByBranch', action);
       })
+      .addCase(getRefundsByBranch.rejected, failPage)
 
       // Get Refunds by Shift
       .addCase(getRefundsByShift.pending, (state) => {
@@ -54,17 +54,22 @@ export const createRefund = createAsyncThunk(
 // 🔹 Get All Refunds
 export const getAllRefunds = createAsyncThunk(
   'refund/getAll',
-  async (_, { rejectWithValue }) => {
+  async ({ branchId, cashierId, from, to, cursor, limit } = {}, { rejectWithValue }) => {
     try {
-      console.log('🔄 Fetching all refunds...');
+      console.log('🔄 Fetching all refunds...', { cursor });
       
       const headers = getAuthHeaders();
-      const res = await api.get('/api/refunds', { headers });
+      const res = await api.get('/api/refunds', {
+        headers,
+        params: { branchId, cashierId, from, to, cursor, limit },
+      });
+      // Paginated response: { items, nextCursor, hasMore }
+      const refunds = res.data.items;
       
       console.log('✅ All refunds fetched successfully:', {
-        refundCount: res.data.length,
-        totalAmount: res.data.reduce((sum, refund) => sum + (refund.amount || 0), 0),
-        refunds: res.data.map(refund => ({
+        refundCount: refunds.length,
+        totalAmount: refunds.reduce((sum, refund) => sum + (refund.amount || 0), 0),
+        refunds: refunds.map(refund => ({
           id: refund.id,
           orderId: refund.orderId,
           amount: refund.amount,
@@ -89,18 +94,23 @@ export const getAllRefunds = createAsyncThunk(
 // 🔹 Get Refunds by Cashier
 export const getRefundsByCashier = createAsyncThunk(
   'refund/getByCashier',
-  async (cashierId, { rejectWithValue }) => {
+  async ({ cashierId, from, to, cursor, limit }, { rejectWithValue }) => {
     try {
-      console.log('🔄 Fetching refunds by cashier...', { cashierId });
+      console.log('🔄 Fetching refunds by cashier...', { cashierId, cursor });
       
       const headers = getAuthHeaders();
-      const res = await api.get(`/api/refunds/cashier/${cashierId}`, { headers });
+      const res = await api.get(`/api/refunds/cashier/${cashierId}`, {
+        headers,
+        params: { from, to, cursor, limit },
+      });
+      // Paginated response: { items, nextCursor, hasMore }
+      const refunds = res.data.items;
       
       console.log('✅ Refunds by cashier fetched successfully:', {
         cashierId,
-        refundCount: res.data.length,
-        totalAmount: res.data.reduce((sum, refund) => sum + (refund.amount || 0), 0),
-        refunds: res.data.map(refund => ({
+        refundCount: refunds.length,
+        totalAmount: refunds.reduce((sum, refund) => sum + (refund.amount || 0), 0),
+        refunds: refunds.map(refund => ({
           id: refund.id,
           orderId: refund.orderId,
           amount: refund.amount,
@@ -126,18 +136,23 @@ export const getRefundsByCashier = createAsyncThunk(
 // 🔹 Get Refunds by Branch
 export const getRefundsByBranch = createAsyncThunk(
   'refund/getByBranch',
-  async (branchId, { rejectWithValue }) => {
+  async ({ branchId, from, to, cursor, limit }, { rejectWithValue }) => {
     try {
-      console.log('🔄 Fetching refunds by branch...', { branchId });
+      console.log('🔄 Fetching refunds by branch...', { branchId, cursor });
       
       const headers = getAuthHeaders();
-      const res = await api.get(`/api/refunds/branch/${branchId}`, { headers });
+      const res = await api.get(`/api/refunds/branch/${branchId}`, {
+        headers,
+        params: { from, to, cursor, limit },
+      });
+      // Paginated response: { items, nextCursor, hasMore }
+      const refunds = res.data.items;
       
       console.log('✅ Refunds by branch fetched successfully:', {
         branchId,
-        refundCount: res.data.length,
-        totalAmount: res.data.reduce((sum, refund) => sum + (refund.amount || 0), 0),
-        refunds: res.data.map(refund => ({
+        refundCount: refunds.length,
+        totalAmount: refunds.reduce((sum, refund) => sum + (refund.amount || 0), 0),
+        refunds: refunds.map(refund => ({
           id: refund.id,
           orderId: refund.orderId,
           amount: refund.amount,
@@ -17,6 +17,11 @@ const initialState = {
   selectedShift: null,
   shiftsByCashier: [],
   shiftsByBranch: [],
+  // Keyset paging for shift history: pass the next cursor back to load more
+  shiftsNextCursor: null,
+  shiftsHasMore: false,
+  shiftsByBranchNextCursor: null,
+  shiftsByBranchHasMore: false,
   loading: false,
   error: null,
 };
@@ -31,6 +36,10 @@ const shiftReportSlice = createSlice({
       state.selectedShift = null;
       state.shiftsByCashier = [];
       state.shiftsByBranch = [];
+      state.shiftsNextCursor = null;
+      state.shiftsHasMore = false;
+      state.shiftsByBranchNextCursor = null;
+      state.shiftsByBranchHasMore = false;
       state.error = null;
     },
     clearCurrentShift: (state) => {
@@ -44,6 +53,8 @@ const shiftReportSlice = createSlice({
     },
     clearShiftsByBranch: (state) => {
       state.shiftsByBranch = [];
+      state.shiftsByBranchNextCursor = null;
+      state.shiftsByBranchHasMore = false;
     },
   },
   extraReducers: (builder) => {
@@ -134,7 +145,11 @@ const shiftReportSlice = createSlice({
       })
       .addCase(getShiftsByBranch.fulfilled, (state, action) => {
         state.loading = false;
-        state.shiftsByBranch = action.payload;
+        // A request with a cursor appends the next page; anything else starts over
+        const { items, nextCursor, hasMore } = action.payload;
+        state.shiftsByBranch = action.meta.arg.cursor ? [...state.shiftsByBranch, ...items] : items;
+        state.shiftsByBranchNextCursor = nextCursor;
+        state.shiftsByBranchHasMore = hasMore;
       })
       .addCase(getShiftsByBranch.rejected, (state, action) => {
         state.loading = false;
@@ -148,7 +163,10 @@ const shiftReportSlice = createSlice({
       })
       .addCase(getAllShifts.fulfilled, (state, action) => {
         state.loading = false;
-        state.shifts = action.payload;
+        const { items, nextCursor, hasMore } = action.payload;
+        state.shifts = action.meta.arg?.cursor ? [...state.shifts, ...items] : items;
+        state.shiftsNextCursor = nextCursor;
+        state.shiftsHasMore = hasMore;
       })
       .addCase(getAllShifts.rejected, (state, action) => {
         state.loading = false;
@@ -188,18 +188,23 @@ export const getShiftsByCashier = createAsyncThunk(
 // 🔹 Get Shifts by Branch
 export const getShiftsByBranch = createAsyncThunk(
   'shiftReport/getByBranch',
-  async (branchId, { rejectWithValue }) => {
+  async ({ branchId, from, to, cursor, limit }, { rejectWithValue }) => {
     try {
-      console.log('🔄 Fetching shifts by branch...', { branchId });
+      console.log('🔄 Fetching shifts by branch...', { branchId, cursor });
       
       const headers = getAuthHeaders();
-      const res = await api.get(`/api/shift-reports/branch/${branchId}`, { headers });
+      const res = await api.get(`/api/shift-reports/branch/${branchId}`, {
+        headers,
+        params: { from, to, cursor, limit },
+      });
+      // Paginated response: { items, nextCursor, hasMore }
+      const shifts = res.data.items;
       
       console.log('✅ Shifts by branch fetched successfully:', {
         branchId,
-        shiftCount: res.data.length,
-        totalSales: res.data.reduce((sum, shift) => sum + (shift.totalSales || 0), 0),
-        shifts: res.data.map(shift => ({
+        shiftCount: shifts.length,
+        totalSales: shifts.reduce((sum, shift) => sum + (shift.totalSales || 0), 0),
+        shifts: shifts.map(shift => ({
           id: shift.id,
           cashierId: shift.cashierId,
           startTime: shift.startTime,
@@ -225,17 +230,22 @@ export const getShiftsByBranch = createAsyncThunk(
 // 🔹 Get All Shifts
 export const getAllShifts = createAsyncThunk(
   'shiftReport/getAll',
-  async (_, { rejectWithValue }) => {
+  async ({ from, to, cursor, limit } = {}, { rejectWithValue }) => {
     try {
-      console.log('🔄 Fetching all shifts...');
+      console.log('🔄 Fetching all shifts...', { cursor });
       
       const headers = getAuthHeaders();
-      const res = await api.get('/api/shift-reports', { headers });
+      const res = await api.get('/api/shift-reports', {
+        headers,
+        params: { from, to, cursor, limit },
+      });
+      // Paginated response: { items, nextCursor, hasMore }
+      const shifts = res.data.items;
       
       console.log('✅ All shifts fetched successfully:', {
-        shiftCount: res.data.length,
-        totalSales: res.data.reduce((sum, shift) => sum + (shift.totalSales || 0), 0),
-        shifts: res.data.map(shift => ({
+        shiftCount: shifts.length,
+        totalSales: shifts.reduce((sum, shift) => sum + (shift.totalSales || 0), 0),
+        shifts: shifts.map(shift => ({
           id: shift.id,
           cashierId: shift.cashierId,
           branchId: shift.branchId,
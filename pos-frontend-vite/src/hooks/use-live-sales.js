@@ -0,0 +1,23 @@
+import * as React from "react"
+
+import { openEventStream } from "@/utils/eventStream"
+
+/**
+ * Latest live sales totals for a branch, pushed by /api/branches/{id}/live.
+ * Returns null until the first update arrives.
+ */
+export function useLiveSales(branchId) {
+  const [live, setLive] = React.useState(null)
+
+  React.useEffect(() => {
+    if (!branchId) return undefined
+    setLive(null)
+    return openEventStream(`/api/branches/${branchId}/live`, {
+      onEvent: (name, data) => {
+        if (name === "sales") setLive(data)
+      },
+    })
+  }, [branchId])
+
+  return live
+}
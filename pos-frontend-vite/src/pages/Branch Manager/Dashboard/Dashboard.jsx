@@ -11,11 +11,14 @@ import RecentOrders from "./RecentOrders";
 import { getTodayOverview, getPaymentBreakdown } from "@/Redux Toolkit/features/branchAnalytics/branchAnalyticsThunks";
 import PaymentBreakdown from "./PaymentBreakdown";
 import TodayOverview from "./TodayOverview";
+import { useLiveSales } from "@/hooks/use-live-sales";
 
 export default function Dashboard() {
   const dispatch = useDispatch();
   const { branch } = useSelector((state) => state.branch);
   const branchId = branch?.id;
+  // Today's totals and latest orders, pushed as they change instead of refetched
+  const live = useLiveSales(branchId);
 
   useEffect(() => {
     if (branchId) {
@@ -37,7 +40,7 @@ export default function Dashboard() {
         <p className="text-gray-500">{branch?.name || "Loading branch..."}</p>
       </div>
       {/* KPI Cards */}
-      <TodayOverview/>
+      <TodayOverview live={live}/>
       
       {/* Payment Breakdown */}
       <PaymentBreakdown/>
@@ -50,7 +53,7 @@ export default function Dashboard() {
       {/* Additional Data */}
       <div className="grid grid-cols-1 gap-6 lg:grid-cols-2">
         <CashierPerformance />
-        <RecentOrders />
+        <RecentOrders live={live} />
       </div>
     </div>
   );
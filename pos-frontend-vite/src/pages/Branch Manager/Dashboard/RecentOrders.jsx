@@ -7,10 +7,12 @@ import { getRecentOrdersByBranch } from "@/Redux Toolkit/features/order/orderThu
 import { getStatusColor } from "../../../utils/getStatusColor";
 import { formatDateTime } from "../../../utils/formateDate";
 
-const RecentOrders = () => {
+const RecentOrders = ({ live }) => {
   const dispatch = useDispatch();
   const branchId = useSelector((state) => state.branch.branch?.id);
-  const { recentOrders, loading } = useSelector((state) => state.order);
+  const { recentOrders: loadedOrders, loading } = useSelector((state) => state.order);
+  // The live stream carries today's latest orders; the loaded list covers the wait for it
+  const recentOrders = live ? live.recentOrders : loadedOrders;
 
   useEffect(() => {
     if (branchId) {
@@ -43,9 +45,13 @@ const RecentOrders = () => {
                 <TableCell>{order.customer?.fullName || order.customerName || "-"}</TableCell>
                 <TableCell>{order.amount ? `₹${order.amount}` : order.totalAmount ? `₹${order.totalAmount}` : "-"}</TableCell>
                 <TableCell>
-                  <Badge className={getStatusColor(order.status)} variant="secondary">
-                    {order.status}
-                  </Badge>
+                  {order.status ? (
+                    <Badge className={getStatusColor(order.status)} variant="secondary">
+                      {order.status}
+                    </Badge>
+                  ) : (
+                    order.paymentType || "-"
+                  )}
                 </TableCell>
                 <TableCell className="text-right">{formatDateTime(order.createdAt)}</TableCell>
               </TableRow>
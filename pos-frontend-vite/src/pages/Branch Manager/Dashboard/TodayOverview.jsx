@@ -4,20 +4,23 @@ import { getChangeType } from '../data';
 import { Card, CardContent, CardHeader, CardTitle } from "@/components/ui/card";
 import { FiDollarSign, FiShoppingBag, FiUsers, FiPackage, FiCreditCard } from "react-icons/fi";
 
-const TodayOverview = () => {
+const TodayOverview = ({ live }) => {
       const { todayOverview, loading } = useSelector((state) => state.branchAnalytics);
+      // Live totals win over the overview loaded with the page; growth figures stay as loaded
+      const totalSales = live?.totalSales ?? todayOverview?.totalSales;
+      const ordersToday = live?.totalOrders ?? todayOverview?.ordersToday;
 
       const kpis = todayOverview ? [
         {
           title: "Today's Sales",
-          value: `₹${todayOverview.totalSales?.toLocaleString() ?? "-"}`,
+          value: `₹${totalSales?.toLocaleString() ?? "-"}`,
           icon: <FiDollarSign className="w-8 h-8 text-primary" />,
           change: todayOverview.salesGrowth !== undefined ? `${todayOverview.salesGrowth > 0 ? "+" : ""}${todayOverview.salesGrowth.toFixed(2)}%` : "-",
           changeType: getChangeType(todayOverview.salesGrowth)
         },
         {
           title: "Orders Today",
-          value: todayOverview.ordersToday ?? "-",
+          value: ordersToday ?? "-",
           icon: <FiShoppingBag className="w-8 h-8 text-primary" />,
           change: todayOverview.orderGrowth !== undefined ? `${todayOverview.orderGrowth > 0 ? "+" : ""}${todayOverview.orderGrowth.toFixed(2)}%` : "-",
           changeType: getChangeType(todayOverview.orderGrowth)
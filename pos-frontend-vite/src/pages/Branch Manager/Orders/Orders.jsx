@@ -19,7 +19,8 @@ import OrderDetailsDialog from "./OrderDetailsDialog";
 const Orders = () => {
   const dispatch = useDispatch();
   const branchId = useSelector((state) => state.branch.branch?.id);
-  const { orders, loading } = useSelector((state) => state.order);
+  const { orders, loading, loadingMore, ordersQuery, ordersNextCursor, ordersHasMore } =
+    useSelector((state) => state.order);
   const { selectedOrder } = useSelector((state) => state.order);
 
 
@@ -55,14 +56,19 @@ const Orders = () => {
 
   const handleRefresh = () => {
     if (branchId) {
-      const data = {
-        branchId,
-      };
+      // Keep the filters the list was loaded with
+      const data = ordersQuery?.branchId === branchId ? ordersQuery : { branchId };
       console.log("filter data ", data);
       dispatch(getOrdersByBranch(data));
     }
   };
 
+  const handleLoadMore = () => {
+    if (ordersQuery && ordersNextCursor) {
+      dispatch(getOrdersByBranch({ ...ordersQuery, cursor: ordersNextCursor }));
+    }
+  };
+
   return (
     <div className="space-y-6">
       <div className="flex justify-between items-center">
@@ -91,6 +97,14 @@ const Orders = () => {
         getPaymentIcon={getPaymentIcon}
       />
 
+      {ordersHasMore && (
+        <div className="flex justify-center">
+          <Button variant="outline" onClick={handleLoadMore} disabled={loadingMore}>
+            {loadingMore ? "Loading..." : "Load more"}
+          </Button>
+        </div>
+      )}
+
       {/* Order Details Dialog */}
       <OrderDetailsDialog
         open={showDetails && !!selectedOrder}
@@ -22,11 +22,19 @@ const Refunds = () => {
   const dispatch = useDispatch();
   const { branch } = useSelector((store) => store.branch);
   const  refunds  = useSelector((store) => store.refund.refundsByBranch);
+  const { refundsByBranchPage, loadingMore } = useSelector((store) => store.refund);
 
   useEffect(() => {
-    if (branch) dispatch(getRefundsByBranch(branch?.id));
+    if (branch) dispatch(getRefundsByBranch({ branchId: branch?.id }));
   }, [branch, dispatch]);
 
+  const handleLoadMore = () => {
+    const { query, nextCursor } = refundsByBranchPage;
+    if (query && nextCursor) {
+      dispatch(getRefundsByBranch({ ...query, cursor: nextCursor }));
+    }
+  };
+
   console.log("refund s", refunds)
   return (
     <>
@@ -60,7 +68,15 @@ const Refunds = () => {
           </TableRow>
         )}
       </TableBody>
-    </Table></>
+    </Table>
+    {refundsByBranchPage.hasMore && (
+      <div className="flex justify-center pt-4">
+        <Button variant="outline" onClick={handleLoadMore} disabled={loadingMore}>
+          {loadingMore ? "Loading..." : "Load more"}
+        </Button>
+      </div>
+    )}
+    </>
   );
 };
 
@@ -0,0 +1,92 @@
+import api from './api';
+
+const RETRY_MS = 3000;
+const MAX_RETRY_MS = 30000;
+
+/**
+ * Opens a Server-Sent Events stream with the JWT in the Authorization header.
+ * The browser's EventSource cannot send headers, so this reads the stream
+ * through fetch and parses the event frames itself.
+ *
+ * Calls onEvent(name, data) for every event, with JSON data parsed. Reconnects
+ * with a growing delay when the connection drops, and stops for good on 401/403
+ * or once the returned close() is called.
+ */
+export const openEventStream = (path, { onEvent, onError } = {}) => {
+  const controller = new AbortController();
+  let retryMs = RETRY_MS;
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const token = localStorage.getItem('jwt');
+        const res = await fetch(`${api.defaults.baseURL}${path}`, {
+          headers: {
+            Accept: 'text/event-stream',
+            ...(token ? { Authorization: `Bearer ${token}` } : {}),
+          },
+          signal: controller.signal,
+        });
+
+        if (res.status === 401 || res.status === 403) {
+          onError?.(new Error(`Live stream refused with status ${res.status}`));
+          return;
+        }
+        if (!res.ok || !res.body) {
+          throw new Error(`Live stream failed with status ${res.status}`);
+        }
+
+        retryMs = RETRY_MS;
+        await readEvents(res.body, onEvent);
+      } catch (err) {
+        if (controller.signal.aborted) return;
+        console.error('❌ Live stream error:', err.message);
+        onError?.(err);
+      }
+
+      // The server closed the stream or the connection dropped; try again shortly
+      await new Promise((resolve) => setTimeout(resolve, retryMs));
+      retryMs = Math.min(retryMs * 2, MAX_RETRY_MS);
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+};
+
+// Frames are separated by a blank line; each has optional "event:" and one or more "data:" lines
+const readEvents = async (body, onEvent) => {
+  const reader = body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = '';
+
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) return;
+    buffer += decoder.decode(value, { stream: true }).replace(/\r\n?/g, '\n');
+
+    let boundary;
+    while ((boundary = buffer.indexOf('\n\n')) !== -1) {
+      const frame = buffer.slice(0, boundary);
+      buffer = buffer.slice(boundary + 2);
+      dispatchFrame(frame, onEvent);
+    }
+  }
+};
+
+const dispatchFrame = (frame, onEvent) => {
+  let name = 'message';
+  const data = [];
+  for (const line of frame.split('\n')) {
+    if (line.startsWith('event:')) name = line.slice(6).trim();
+    else if (line.startsWith('data:')) data.push(line.slice(5).replace(/^ /, ''));
+  }
+  if (data.length === 0) return;
+
+  const text = data.join('\n');
+  try {
+    onEvent?.(name, JSON.parse(text));
+  } catch {
+    onEvent?.(name, text);
+  }
+};